@@ -43,6 +43,7 @@ import com.scandit.datacapture.core.common.geometry.Point;
 import com.scandit.datacapture.core.data.FrameData;
 import com.scandit.datacapture.core.time.TimeInterval;
 import com.scandit.datacapture.listbuildingsample.data.ScanResult;
+import com.scandit.datacapture.sparkscancommon.ScanEventQueue;
 
 import java.util.Arrays;
 import java.util.HashSet;
@@ -59,6 +60,8 @@ public class MainActivity extends CameraPermissionActivity implements SparkScanL
 
     private static final int SCALED_IMAGE_SIZE_IN_PIXELS = 100;
 
+    private static final int SCAN_QUEUE_CAPACITY = 64;
+
     private DataCaptureContext dataCaptureContext;
 
     private SparkScan sparkScan;
@@ -74,6 +77,9 @@ public class MainActivity extends CameraPermissionActivity implements SparkScanL
 
     private final ExecutorService backgroundExecutor = Executors.newSingleThreadExecutor();
 
+    // Hands the results from the background executor over to the main thread, once per frame.
+    private ScanEventQueue<ScanResult> scanResults;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -98,6 +104,16 @@ public class MainActivity extends CameraPermissionActivity implements SparkScanL
 
         resultCountTextView = findViewById(R.id.item_count);
         setItemCount(0);
+
+        scanResults = new ScanEventQueue<>(
+            SCAN_QUEUE_CAPACITY,
+            // Each result carries its own image, so none is counted towards another one. The
+            // scanning side must never wait for the main thread, so if the list falls behind by
+            // a full queue, the oldest results are dropped and counted by getDroppedCount().
+            ScanEventQueue.OverflowPolicy.DROP_OLDEST,
+            null,
+            (result, count) -> showResult(result)
+        );
     }
 
     private void initialize() {
@@ -176,6 +192,7 @@ public class MainActivity extends CameraPermissionActivity implements SparkScanL
         sparkScan.removeListener(this);
         sparkScanView.setFeedbackDelegate(null);
         backgroundExecutor.shutdown();
+        scanResults.close();
         super.onDestroy();
     }
 
@@ -211,11 +228,13 @@ public class MainActivity extends CameraPermissionActivity implements SparkScanL
     }
 
     private void postResult(ScanResult result) {
-        runOnUiThread(() -> {
-            resultListAdapter.addResult(result);
-            setItemCount(resultListAdapter.getItemsScannedCount());
-            resultRecycler.scrollToPosition(0);
-        });
+        scanResults.offer(result);
+    }
+
+    private void showResult(ScanResult result) {
+        resultListAdapter.addResult(result);
+        setItemCount(resultListAdapter.getItemsScannedCount());
+        resultRecycler.scrollToPosition(0);
     }
 
     private Bitmap cropBarcode(Barcode barcode, Bitmap frame) {
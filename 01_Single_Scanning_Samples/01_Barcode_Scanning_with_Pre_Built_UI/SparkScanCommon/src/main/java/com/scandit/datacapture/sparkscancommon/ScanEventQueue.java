@@ -0,0 +1,307 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.sparkscancommon;
+
+import android.view.Choreographer;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Bounded queue between a single producer thread, such as the thread delivering scanner callbacks,
+// and the main thread. Events are handed to the consumer once per frame, instead of posting one
+// message to the main thread per event, so a burst of scans can't flood the main looper.
+// When the queue is full, the overflow policy decides whether the new event is counted towards a
+// queued one, replaces the oldest queued event, or waits until the main thread makes room.
+//
+// Only the producer moves the tail. The head is moved by whoever takes the oldest slot: the
+// consumer to deliver it, or the producer to drop it. Taking a slot is atomic, so an event is
+// either delivered or dropped, never both, and the producer can't count an event towards one
+// that is already delivered. The two sides only lock while the producer waits for room.
+// Must be created on the main thread.
+public class ScanEventQueue<T> {
+
+    public enum OverflowPolicy {
+        // Wait until the main thread makes room.
+        WAIT,
+        // Count the new event towards a queued event with the same key. If there is none, wait
+        // until the main thread makes room.
+        COALESCE_DUPLICATES,
+        // Drop the oldest queued event to make room, so the producer never waits.
+        DROP_OLDEST
+    }
+
+    // Receives the events on the main thread. count is the number of events coalesced together,
+    // at least 1.
+    public interface Consumer<T> {
+        void onEvent(T event, int count);
+    }
+
+    // Returns the key that identifies duplicate events.
+    public interface KeyFunction<T> {
+        Object keyOf(T event);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<Slot<T>> slots;
+    private final OverflowPolicy overflowPolicy;
+    private final KeyFunction<T> keyFunction;
+
+    // Index of the oldest queued event, and of the next event to add.
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    private final Choreographer choreographer = Choreographer.getInstance();
+    private final Choreographer.FrameCallback drainCallback = frameTimeNanos -> drain();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    // The consumer, or null once the queue is closed.
+    private volatile Consumer<T> consumer;
+
+    // The producer waits on this lock while the queue is full.
+    private final Object roomLock = new Object();
+    private volatile boolean producerWaiting = false;
+
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong waitCount = new AtomicLong();
+    private volatile int maxDepth = 0;
+
+    // The capacity is rounded up to a power of two. The key function is only used with
+    // COALESCE_DUPLICATES, and can be null otherwise.
+    public ScanEventQueue(
+        int capacity,
+        OverflowPolicy overflowPolicy,
+        KeyFunction<T> keyFunction,
+        Consumer<T> consumer
+    ) {
+        int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.overflowPolicy = overflowPolicy;
+        this.keyFunction = keyFunction;
+        this.consumer = consumer;
+    }
+
+    // Adds an event. Must only be called from one thread at a time, and never from the main
+    // thread unless the policy is DROP_OLDEST, since it can wait for the main thread when the
+    // queue is full.
+    // Events added once the queue is closed are dropped.
+    public void offer(T event) {
+        if (consumer == null) {
+            return;
+        }
+        long t = tail.get();
+        if (t - head.get() >= capacity) {
+            if (overflowPolicy == OverflowPolicy.COALESCE_DUPLICATES
+                && coalesce(event, head.get(), t)) {
+                coalescedCount.incrementAndGet();
+                scheduleDrain();
+                return;
+            }
+            if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+                dropOldest(t);
+            } else if (!awaitRoom(t)) {
+                return;
+            }
+        }
+
+        slots.set((int) t & mask, new Slot<>(event, t));
+        tail.set(t + 1);
+
+        int depth = (int) (t + 1 - head.get());
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+        scheduleDrain();
+    }
+
+    // Delivers the events still queued right away, then stops delivering events.
+    // Must be called on the main thread.
+    public void close() {
+        Consumer<T> currentConsumer = consumer;
+        if (currentConsumer == null) {
+            return;
+        }
+        choreographer.removeFrameCallback(drainCallback);
+        deliverQueued(currentConsumer);
+        consumer = null;
+        // Let a waiting producer give up.
+        synchronized (roomLock) {
+            roomLock.notifyAll();
+        }
+    }
+
+    // Returns the number of events waiting to be delivered.
+    public int getDepth() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    // Returns the highest number of events that were waiting at the same time.
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    // Returns the number of events counted towards a queued duplicate because the queue was full.
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    // Returns the number of events dropped because the queue was full, counting the duplicates
+    // coalesced into them.
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    // Returns the number of times the producer waited because the queue was full.
+    public long getWaitCount() {
+        return waitCount.get();
+    }
+
+    private boolean coalesce(T event, long h, long t) {
+        Object key = keyFunction.keyOf(event);
+        // Look for the most recent duplicate first.
+        for (long i = t - 1; i >= h; i--) {
+            Slot<T> slot = slots.get((int) i & mask);
+            if (slot != null
+                && Objects.equals(key, keyFunction.keyOf(slot.event))
+                && slot.increment()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Drops the oldest queued events until the event at index t fits in the queue. When the
+    // consumer takes the oldest event first, waits for it to move the head instead, which it does
+    // before delivering the event.
+    private void dropOldest(long t) {
+        long h;
+        while (t - (h = head.get()) >= capacity) {
+            Slot<T> slot = slots.get((int) h & mask);
+            int count = slot != null && slot.index == h ? slot.take() : Slot.TAKEN;
+            if (count != Slot.TAKEN) {
+                droppedCount.addAndGet(count);
+                head.compareAndSet(h, h + 1);
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    // Waits until the event at index t fits in the queue. Returns false if the queue was closed,
+    // or the producer interrupted, in the meantime.
+    private boolean awaitRoom(long t) {
+        waitCount.incrementAndGet();
+        synchronized (roomLock) {
+            // Set before checking the head, so that the consumer either sees it after moving the
+            // head, or the check below sees the moved head.
+            producerWaiting = true;
+            try {
+                while (t - head.get() >= capacity) {
+                    if (consumer == null) {
+                        return false;
+                    }
+                    scheduleDrain();
+                    roomLock.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                producerWaiting = false;
+            }
+        }
+        return true;
+    }
+
+    private void scheduleDrain() {
+        // Choreographer callbacks can be posted from any thread, they run on the main thread.
+        if (drainScheduled.compareAndSet(false, true)) {
+            choreographer.postFrameCallback(drainCallback);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        Consumer<T> currentConsumer = consumer;
+        if (currentConsumer != null) {
+            deliverQueued(currentConsumer);
+        }
+    }
+
+    // Delivers the events queued so far. Events added meanwhile wait for the next frame.
+    private void deliverQueued(Consumer<T> currentConsumer) {
+        long t = tail.get();
+        long h;
+        while ((h = head.get()) < t) {
+            int index = (int) h & mask;
+            Slot<T> slot = slots.get(index);
+            if (slot == null || slot.index != h) {
+                // The producer dropped the event at h and already queued a newer one in its slot.
+                continue;
+            }
+            int count = slot.take();
+            if (count == Slot.TAKEN) {
+                // The producer dropped it, and moves the head unless this does it first.
+                head.compareAndSet(h, h + 1);
+                continue;
+            }
+            // The producer can't reuse the slot until the head moves.
+            slots.set(index, null);
+            head.set(h + 1);
+            if (producerWaiting) {
+                synchronized (roomLock) {
+                    roomLock.notifyAll();
+                }
+            }
+            currentConsumer.onEvent(slot.event, count);
+        }
+    }
+
+    // A queued event, its index in the queue and the number of events it stands for. Once taken
+    // for delivery or dropped, it can't be coalesced into anymore.
+    private static final class Slot<T> {
+        static final int TAKEN = -1;
+
+        final T event;
+        final long index;
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        Slot(T event, long index) {
+            this.event = event;
+            this.index = index;
+        }
+
+        boolean increment() {
+            while (true) {
+                int current = count.get();
+                if (current == TAKEN) {
+                    return false;
+                }
+                if (count.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        int take() {
+            return count.getAndSet(TAKEN);
+        }
+    }
+}
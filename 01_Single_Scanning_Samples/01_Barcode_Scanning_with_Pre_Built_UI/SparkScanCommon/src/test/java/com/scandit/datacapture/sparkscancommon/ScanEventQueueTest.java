@@ -0,0 +1,286 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.sparkscancommon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+
+import android.view.Choreographer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class ScanEventQueueTest {
+
+    private MockedStatic<Choreographer> choreographers;
+    // The frame callback last posted to the Choreographer.
+    private volatile Choreographer.FrameCallback frameCallback;
+
+    private final List<String> delivered = new ArrayList<>();
+    private final List<Integer> counts = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        Choreographer choreographer = mock(Choreographer.class);
+        doAnswer(invocation -> {
+            frameCallback = invocation.getArgument(0);
+            return null;
+        }).when(choreographer).postFrameCallback(any());
+        choreographers = mockStatic(Choreographer.class);
+        choreographers.when(Choreographer::getInstance).thenReturn(choreographer);
+    }
+
+    @After
+    public void tearDown() {
+        choreographers.close();
+    }
+
+    @Test
+    public void deliversEventsOnTheNextFrame() {
+        ScanEventQueue<String> queue = queue(8, ScanEventQueue.OverflowPolicy.WAIT);
+
+        queue.offer("A");
+        queue.offer("B");
+        queue.offer("A");
+        assertEquals(3, queue.getDepth());
+        assertTrue(delivered.isEmpty());
+
+        runFrame();
+
+        assertEquals(Arrays.asList("A", "B", "A"), delivered);
+        assertEquals(Arrays.asList(1, 1, 1), counts);
+        assertEquals(0, queue.getDepth());
+        assertEquals(3, queue.getMaxDepth());
+    }
+
+    @Test
+    public void coalescesDuplicatesWhenFull() {
+        ScanEventQueue<String> queue =
+            queue(2, ScanEventQueue.OverflowPolicy.COALESCE_DUPLICATES);
+
+        queue.offer("A");
+        queue.offer("B");
+        queue.offer("A");
+        queue.offer("B");
+        queue.offer("A");
+        runFrame();
+
+        assertEquals(Arrays.asList("A", "B"), delivered);
+        assertEquals(Arrays.asList(3, 2), counts);
+        assertEquals(3, queue.getCoalescedCount());
+        assertEquals(0, queue.getWaitCount());
+    }
+
+    @Test
+    public void producerWaitsForRoomInsteadOfDropping() throws Exception {
+        ScanEventQueue<String> queue = queue(2, ScanEventQueue.OverflowPolicy.WAIT);
+        List<String> offered = Arrays.asList("A", "B", "C", "D", "E", "F");
+
+        Thread producer = new Thread(() -> {
+            for (String event : offered) {
+                queue.offer(event);
+            }
+        });
+        producer.start();
+        runFramesUntil(() -> delivered.size() == offered.size());
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertEquals(offered, delivered);
+        assertTrue(queue.getWaitCount() > 0);
+        assertTrue(queue.getMaxDepth() <= 2);
+    }
+
+    @Test
+    public void dropsOldestEventsWhenFull() {
+        ScanEventQueue<String> queue = queue(2, ScanEventQueue.OverflowPolicy.DROP_OLDEST);
+
+        queue.offer("A");
+        queue.offer("B");
+        queue.offer("C");
+        queue.offer("D");
+        runFrame();
+
+        assertEquals(Arrays.asList("C", "D"), delivered);
+        assertEquals(2, queue.getDroppedCount());
+        assertEquals(0, queue.getWaitCount());
+    }
+
+    @Test
+    public void dropOldestNeverWaitsForTheMainThread() throws Exception {
+        ScanEventQueue<String> queue = queue(4, ScanEventQueue.OverflowPolicy.DROP_OLDEST);
+
+        // No frame runs while the producer adds its events.
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 1_000; i++) {
+                queue.offer(Integer.toString(i));
+            }
+        });
+        producer.start();
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertFalse(producer.isAlive());
+        assertEquals(0, queue.getWaitCount());
+        assertEquals(996, queue.getDroppedCount());
+        runFrame();
+        assertEquals(Arrays.asList("996", "997", "998", "999"), delivered);
+    }
+
+    // Every offered event is either delivered once or dropped, in the order it was offered,
+    // while the producer and the consumer run concurrently.
+    @Test
+    public void dropOldestAccountsForEveryEventUnderLoad() throws Exception {
+        int total = 100_000;
+        List<Integer> received = new ArrayList<>();
+        ScanEventQueue<Integer> queue = new ScanEventQueue<>(
+            16,
+            ScanEventQueue.OverflowPolicy.DROP_OLDEST,
+            null,
+            (event, count) -> received.add(event)
+        );
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                queue.offer(i);
+            }
+        });
+        producer.start();
+        runFramesUntil(() -> !producer.isAlive() && queue.getDepth() == 0);
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertEquals(total, received.size() + queue.getDroppedCount());
+        for (int i = 1; i < received.size(); i++) {
+            assertTrue(received.get(i - 1) < received.get(i));
+        }
+        assertEquals(total - 1, (int) received.get(received.size() - 1));
+        assertEquals(0, queue.getWaitCount());
+    }
+
+    @Test
+    public void closeDeliversQueuedEvents() {
+        ScanEventQueue<String> queue = queue(8, ScanEventQueue.OverflowPolicy.WAIT);
+        queue.offer("A");
+        queue.offer("B");
+
+        queue.close();
+
+        assertEquals(Arrays.asList("A", "B"), delivered);
+
+        // Nothing is delivered once closed.
+        queue.offer("C");
+        runFrame();
+        assertEquals(Arrays.asList("A", "B"), delivered);
+    }
+
+    @Test
+    public void closeReleasesWaitingProducer() throws Exception {
+        ScanEventQueue<String> queue = queue(1, ScanEventQueue.OverflowPolicy.WAIT);
+        queue.offer("A");
+
+        Thread producer = new Thread(() -> queue.offer("B"));
+        producer.start();
+        awaitWaiting(queue);
+        queue.close();
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertFalse(producer.isAlive());
+        assertEquals(Arrays.asList("A"), delivered);
+    }
+
+    // Every offered event is delivered exactly once, counted alone or together with duplicates,
+    // while the producer and the consumer run concurrently.
+    @Test
+    public void countsEveryEventUnderLoad() throws Exception {
+        int total = 100_000;
+        int[] countsByKey = new int[10];
+        ScanEventQueue<String> queue = new ScanEventQueue<>(
+            16,
+            ScanEventQueue.OverflowPolicy.COALESCE_DUPLICATES,
+            event -> event,
+            (event, count) -> countsByKey[Integer.parseInt(event)] += count
+        );
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                queue.offer(Integer.toString(i % 10));
+            }
+        });
+        producer.start();
+        runFramesUntil(() -> sum(countsByKey) == total);
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+
+        for (int count : countsByKey) {
+            assertEquals(total / 10, count);
+        }
+    }
+
+    private ScanEventQueue<String> queue(int capacity, ScanEventQueue.OverflowPolicy policy) {
+        return new ScanEventQueue<>(capacity, policy, event -> event, (event, count) -> {
+            delivered.add(event);
+            counts.add(count);
+        });
+    }
+
+    // Runs the frame callback posted since the last frame, if any.
+    private void runFrame() {
+        Choreographer.FrameCallback callback = frameCallback;
+        frameCallback = null;
+        if (callback != null) {
+            callback.doFrame(0);
+        }
+    }
+
+    private void runFramesUntil(Condition condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.isMet()) {
+            assertTrue("Events weren't delivered in time", System.nanoTime() < deadline);
+            runFrame();
+            Thread.yield();
+        }
+    }
+
+    private static void awaitWaiting(ScanEventQueue<String> queue) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queue.getWaitCount() == 0) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+        // Give the producer time to block on the lock.
+        Thread.sleep(50);
+    }
+
+    private static int sum(int[] values) {
+        int sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+}
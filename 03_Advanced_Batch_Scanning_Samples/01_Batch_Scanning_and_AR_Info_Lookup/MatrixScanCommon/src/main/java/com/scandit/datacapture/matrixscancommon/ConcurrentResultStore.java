@@ -0,0 +1,188 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancommon;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Distinct results collected while scanning, in the order they were first added.
+// Adding never takes a lock and never waits for other writers, so the frame thread is never held
+// up by the UI, and taking a snapshot of all results doesn't copy anything.
+// Results are appended to fixed-size segments. A written slot never changes, so a snapshot only
+// needs the segment directory and the number of written slots at its start. clear() starts a new
+// epoch with empty state, and existing snapshots keep the results they covered.
+public final class ConcurrentResultStore<T> {
+
+    private static final int SEGMENT_SHIFT = 8;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    // All the state of an epoch, replaced as a whole by clear().
+    private static final class Epoch<T> {
+        final long number;
+        final Set<T> results = ConcurrentHashMap.newKeySet();
+        // Slots handed out to writers.
+        final AtomicInteger reserved = new AtomicInteger(0);
+        // All slots below this count are known to be written. Only readers advance it, by checking
+        // the slots after it, so writers that finish out of order never wait for each other.
+        final AtomicInteger published = new AtomicInteger(0);
+        // Replaced with a larger copy when a segment is added. Segments are shared between copies.
+        final AtomicReference<Segment[]> segments =
+            new AtomicReference<>(new Segment[]{new Segment()});
+        volatile Snapshot<T> lastSnapshot;
+
+        Epoch(long number) {
+            this.number = number;
+            lastSnapshot = new Snapshot<>(number, segments.get(), 0);
+        }
+    }
+
+    private final AtomicReference<Epoch<T>> current = new AtomicReference<>(new Epoch<>(0));
+
+    // Adds the result unless an equal one was already added in the current epoch.
+    // Returns whether it was added.
+    public boolean add(T result) {
+        Epoch<T> epoch = current.get();
+        if (!epoch.results.add(result)) {
+            return false;
+        }
+
+        // The slot is published by the write itself. Readers only count it once every slot before
+        // it is written too.
+        int slot = epoch.reserved.getAndIncrement();
+        segmentFor(epoch, slot).set(slot & SEGMENT_MASK, result);
+        return true;
+    }
+
+    public boolean contains(T result) {
+        return current.get().results.contains(result);
+    }
+
+    public int size() {
+        return publishedCount(current.get());
+    }
+
+    // Increases with every clear(). Lets writers that keep their own state about the results know
+    // when to drop it.
+    public long getEpoch() {
+        return current.get().number;
+    }
+
+    // Returns the results added so far in the current epoch, in amortized constant time. The
+    // returned list is immutable and isn't affected by later changes to the store.
+    public Snapshot<T> snapshot() {
+        Epoch<T> epoch = current.get();
+        int size = publishedCount(epoch);
+        Snapshot<T> last = epoch.lastSnapshot;
+        if (last.size() == size) {
+            return last;
+        }
+        // The directory is read after the count, so it holds every segment the count covers.
+        Snapshot<T> snapshot = new Snapshot<>(epoch.number, epoch.segments.get(), size);
+        epoch.lastSnapshot = snapshot;
+        return snapshot;
+    }
+
+    // Forgets all results. A result being added at the same time may end up in the epoch that is
+    // being dropped.
+    public void clear() {
+        Epoch<T> epoch = current.get();
+        current.set(new Epoch<>(epoch.number + 1));
+    }
+
+    // Returns the number of slots written without a gap from the start.
+    private static int publishedCount(Epoch<?> epoch) {
+        int published = epoch.published.get();
+        int reserved = epoch.reserved.get();
+        if (published == reserved) {
+            return published;
+        }
+        Segment[] segments = epoch.segments.get();
+        int count = published;
+        while (count < reserved) {
+            int index = count >>> SEGMENT_SHIFT;
+            if (index >= segments.length || segments[index].get(count & SEGMENT_MASK) == null) {
+                break;
+            }
+            count++;
+        }
+        // Other readers may have got further in the meantime.
+        while (published < count && !epoch.published.compareAndSet(published, count)) {
+            published = epoch.published.get();
+        }
+        return Math.max(published, count);
+    }
+
+    private static Segment segmentFor(Epoch<?> epoch, int slot) {
+        int index = slot >>> SEGMENT_SHIFT;
+        while (true) {
+            Segment[] segments = epoch.segments.get();
+            if (index < segments.length) {
+                return segments[index];
+            }
+            Segment[] grown = Arrays.copyOf(segments, Math.max(index + 1, segments.length * 2));
+            for (int i = segments.length; i < grown.length; i++) {
+                grown[i] = new Segment();
+            }
+            // Another writer may have grown the directory first, in which case its copy is used.
+            epoch.segments.compareAndSet(segments, grown);
+        }
+    }
+
+    // Slots of a segment are written and read with volatile semantics, so a reader that sees a
+    // result also sees its fields.
+    private static final class Segment extends AtomicReferenceArray<Object> {
+        Segment() {
+            super(SEGMENT_SIZE);
+        }
+    }
+
+    // Immutable view of the results of one epoch, up to a given count.
+    public static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+        private final long epoch;
+        private final Segment[] segments;
+        private final int size;
+
+        Snapshot(long epoch, Segment[] segments, int size) {
+            this.epoch = epoch;
+            this.segments = segments;
+            this.size = size;
+        }
+
+        public long getEpoch() {
+            return epoch;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+            }
+            return (T) segments[index >>> SEGMENT_SHIFT].get(index & SEGMENT_MASK);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancommon;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hands results over to another screen of the same process.
+// Only the handle returned by register() has to be put in the Intent, so the results are neither
+// copied nor limited by the size of a Binder transaction. The handle is not valid anymore once the
+// process is restarted; see ResultsHandover for results that have to outlive the process.
+public final class ResultRegistry<T> {
+
+    // Never returned by register().
+    public static final long NO_HANDLE = 0;
+
+    private final AtomicLong nextHandle = new AtomicLong(NO_HANDLE + 1);
+    private final ConcurrentHashMap<Long, T> entries = new ConcurrentHashMap<>();
+
+    // Keeps the results until they're released and returns their handle.
+    public long register(T results) {
+        long handle = nextHandle.getAndIncrement();
+        entries.put(handle, results);
+        return handle;
+    }
+
+    // Returns the results registered with the given handle, or null if there are none.
+    public T get(long handle) {
+        return entries.get(handle);
+    }
+
+    public void release(long handle) {
+        entries.remove(handle);
+    }
+}
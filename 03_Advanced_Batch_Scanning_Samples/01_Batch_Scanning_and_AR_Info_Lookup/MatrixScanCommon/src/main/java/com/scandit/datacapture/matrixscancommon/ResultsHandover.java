@@ -0,0 +1,93 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancommon;
+
+import android.content.Intent;
+import android.os.Bundle;
+
+import java.util.function.Function;
+
+// Hands results over to a results screen and keeps them over a restart of the process.
+// The scanning screen registers the results in a registry of the process and only puts their
+// handle in the Intent. The results screen keeps one ResultsHandover: it gets the results back
+// with restore(), writes them to its saved instance state in their compact binary form with save(),
+// and releases them with release() once it finishes.
+public final class ResultsHandover<T> {
+
+    private static final String EXTRA_RESULTS_HANDLE = "scan-results-handle";
+    private static final String STATE_RESULTS = "scan-results";
+
+    // Larger results aren't kept in the saved instance state, to stay well below the Binder
+    // transaction limit. restore() returns null instead if the process is restarted.
+    static final int MAX_SAVED_RESULTS_BYTES = 256 * 1024;
+
+    private final ResultRegistry<T> registry;
+    private final Function<T, byte[]> encoder;
+    private final Function<byte[], T> decoder;
+
+    private long handle = ResultRegistry.NO_HANDLE;
+    private T results;
+
+    // The decoder throws an IllegalArgumentException for bytes that the encoder didn't produce.
+    public ResultsHandover(
+        ResultRegistry<T> registry,
+        Function<T, byte[]> encoder,
+        Function<byte[], T> decoder
+    ) {
+        this.registry = registry;
+        this.encoder = encoder;
+        this.decoder = decoder;
+    }
+
+    // Registers the results and puts their handle in the Intent that starts the results screen.
+    public static <T> Intent putResults(Intent intent, ResultRegistry<T> registry, T results) {
+        intent.putExtra(EXTRA_RESULTS_HANDLE, registry.register(results));
+        return intent;
+    }
+
+    // Returns the results handed over in the Intent or, if the process was restarted, the results
+    // in the saved instance state. Returns null if there are none, or if the saved results are
+    // corrupted or come from another version of the app; the screen should finish then.
+    public T restore(Intent intent, Bundle savedInstanceState) {
+        handle = intent.getLongExtra(EXTRA_RESULTS_HANDLE, ResultRegistry.NO_HANDLE);
+        results = registry.get(handle);
+        if (results == null && savedInstanceState != null) {
+            // The process was restarted, so the handle doesn't point to anything anymore.
+            byte[] savedResults = savedInstanceState.getByteArray(STATE_RESULTS);
+            if (savedResults != null) {
+                try {
+                    results = decoder.apply(savedResults);
+                    handle = registry.register(results);
+                } catch (IllegalArgumentException e) {
+                    // The saved results are corrupted, or come from another version of the app.
+                }
+            }
+        }
+        return results;
+    }
+
+    public void save(Bundle outState) {
+        if (results != null) {
+            byte[] encoded = encoder.apply(results);
+            if (encoded.length <= MAX_SAVED_RESULTS_BYTES) {
+                outState.putByteArray(STATE_RESULTS, encoded);
+            }
+        }
+    }
+
+    public void release() {
+        registry.release(handle);
+    }
+}
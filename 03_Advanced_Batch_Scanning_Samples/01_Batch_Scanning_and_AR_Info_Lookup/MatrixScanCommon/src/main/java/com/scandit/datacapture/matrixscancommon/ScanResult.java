@@ -12,16 +12,15 @@
  * limitations under the License.
  */
 
-package com.scandit.datacapture.matrixscanrejectsample.data;
+package com.scandit.datacapture.matrixscancommon;
 
 import com.scandit.datacapture.barcode.data.Barcode;
 import com.scandit.datacapture.barcode.data.Symbology;
 
-import java.io.Serializable;
 import java.util.Objects;
 
 // Final data class holding basic information about a scanned barcode.
-public final class ScanResult implements Serializable {
+public final class ScanResult {
 
     public final Symbology symbology;
     public final String data;
@@ -31,15 +30,23 @@ public final class ScanResult implements Serializable {
         data = barcode.getData() != null ? barcode.getData() : "";
     }
 
+    public ScanResult(Symbology symbology, String data) {
+        this.symbology = symbology;
+        this.data = data;
+    }
+
     @Override
     public boolean equals(Object obj) {
+        // Compares the fields themselves: different data can share a hash code, e.g. "Aa" and "BB".
         if (obj == null) return false;
         if (obj.getClass() != this.getClass()) return false;
-        return hashCode() == obj.hashCode();
+        ScanResult other = (ScanResult) obj;
+        return symbology == other.symbology && data.equals(other.data);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(symbology, data);
+        // Written out instead of Objects.hash(), which allocates an array on every call.
+        return 31 * Objects.hashCode(symbology) + data.hashCode();
     }
 }
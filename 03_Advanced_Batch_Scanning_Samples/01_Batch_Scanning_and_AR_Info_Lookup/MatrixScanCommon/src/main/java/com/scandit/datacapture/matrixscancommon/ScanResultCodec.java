@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancommon;
+
+import static com.scandit.datacapture.matrixscancommon.CompactEncoding.readLength;
+import static com.scandit.datacapture.matrixscancommon.CompactEncoding.readString;
+import static com.scandit.datacapture.matrixscancommon.CompactEncoding.readVarint;
+import static com.scandit.datacapture.matrixscancommon.CompactEncoding.writeString;
+import static com.scandit.datacapture.matrixscancommon.CompactEncoding.writeVarint;
+
+import com.scandit.datacapture.barcode.data.Symbology;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+// Compact binary form of scan results, for when they have to leave the process, e.g. in the saved
+// instance state of an activity.
+// Layout: a version byte, the symbologies used as a table of names, then every result as the index
+// of its symbology in the table followed by its UTF-8 data. Every count, index and length is a
+// varint, so a typical result takes two bytes plus its data.
+public final class ScanResultCodec {
+
+    private static final int VERSION = 1;
+
+    private ScanResultCodec() {}
+
+    public static byte[] encode(List<ScanResult> scanResults) {
+        HashMap<Symbology, Integer> symbologyIndices = new HashMap<>();
+        List<Symbology> symbologies = new ArrayList<>();
+        for (ScanResult scanResult : scanResults) {
+            if (!symbologyIndices.containsKey(scanResult.symbology)) {
+                symbologyIndices.put(scanResult.symbology, symbologies.size());
+                symbologies.add(scanResult.symbology);
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + scanResults.size() * 16);
+        out.write(VERSION);
+        writeVarint(out, symbologies.size());
+        for (Symbology symbology : symbologies) {
+            writeString(out, symbology.name());
+        }
+        writeVarint(out, scanResults.size());
+        for (ScanResult scanResult : scanResults) {
+            writeVarint(out, symbologyIndices.get(scanResult.symbology));
+            writeString(out, scanResult.data);
+        }
+        return out.toByteArray();
+    }
+
+    // Throws IllegalArgumentException if the bytes weren't produced by encode().
+    public static List<ScanResult> decode(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        try {
+            int version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported scan results version " + version);
+            }
+            Symbology[] symbologies = new Symbology[readLength(in)];
+            for (int i = 0; i < symbologies.length; i++) {
+                symbologies[i] = Symbology.valueOf(readString(in));
+            }
+            ScanResult[] scanResults = new ScanResult[readLength(in)];
+            for (int i = 0; i < scanResults.length; i++) {
+                Symbology symbology = symbologies[readVarint(in)];
+                scanResults[i] = new ScanResult(symbology, readString(in));
+            }
+            return Arrays.asList(scanResults);
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated or corrupted scan results", e);
+        }
+    }
+}
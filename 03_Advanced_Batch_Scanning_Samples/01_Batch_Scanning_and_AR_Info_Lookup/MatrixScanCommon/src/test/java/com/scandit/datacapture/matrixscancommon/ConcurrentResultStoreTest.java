@@ -0,0 +1,165 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancommon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrentResultStoreTest {
+
+    private static final int WRITERS = 4;
+    private static final int DISTINCT_RESULTS = 200_000;
+
+    private final ConcurrentResultStore<String> store = new ConcurrentResultStore<>();
+
+    @Test
+    public void keepsDistinctResultsInOrder() {
+        assertTrue(store.add("A"));
+        assertTrue(store.add("B"));
+        assertFalse(store.add("A"));
+
+        assertEquals(2, store.size());
+        assertTrue(store.contains("B"));
+        List<String> snapshot = store.snapshot();
+        assertEquals(2, snapshot.size());
+        assertEquals("A", snapshot.get(0));
+        assertEquals("B", snapshot.get(1));
+    }
+
+    @Test
+    public void snapshotIsNotAffectedByLaterChanges() {
+        store.add("A");
+        ConcurrentResultStore.Snapshot<String> snapshot = store.snapshot();
+        assertSame(snapshot, store.snapshot());
+
+        store.add("B");
+        store.clear();
+        store.add("C");
+
+        assertEquals(1, snapshot.size());
+        assertEquals("A", snapshot.get(0));
+        assertEquals(0, snapshot.getEpoch());
+        assertEquals(1, store.snapshot().getEpoch());
+        assertEquals("C", store.snapshot().get(0));
+    }
+
+    @Test
+    public void clearStartsNewEpoch() {
+        store.add("A");
+
+        store.clear();
+
+        assertEquals(1, store.getEpoch());
+        assertEquals(0, store.size());
+        assertFalse(store.contains("A"));
+        assertTrue(store.add("A"));
+    }
+
+    @Test
+    public void growsAcrossSegments() {
+        for (int i = 0; i < 10_000; i++) {
+            store.add(Integer.toString(i));
+        }
+
+        List<String> snapshot = store.snapshot();
+        assertEquals(10_000, snapshot.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(Integer.toString(i), snapshot.get(i));
+        }
+    }
+
+    @Test
+    public void concurrentWritersAndReader() throws Exception {
+        // Writers add overlapping ranges, so most results are offered by two writers at once.
+        String[] results = new String[DISTINCT_RESULTS];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = Integer.toString(i);
+        }
+        int range = DISTINCT_RESULTS / WRITERS;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int from = w * range;
+            writers.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 2 * range; i++) {
+                        store.add(results[(from + i) % DISTINCT_RESULTS]);
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+        Thread reader = new Thread(() -> {
+            try {
+                start.await();
+                List<String> previous = store.snapshot();
+                while (writing.get()) {
+                    List<String> snapshot = store.snapshot();
+                    assertTrue(snapshot.size() >= previous.size());
+                    // Earlier snapshots are prefixes of later ones, and no slot is unwritten.
+                    int last = snapshot.size() - 1;
+                    if (last >= 0) {
+                        assertNotNull(snapshot.get(last));
+                    }
+                    if (!previous.isEmpty()) {
+                        assertSame(previous.get(previous.size() - 1),
+                            snapshot.get(previous.size() - 1));
+                    }
+                    previous = snapshot;
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        });
+
+        reader.start();
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        writing.set(false);
+        reader.join();
+
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        List<String> snapshot = store.snapshot();
+        assertEquals(DISTINCT_RESULTS, store.size());
+        assertEquals(DISTINCT_RESULTS, snapshot.size());
+        Set<String> distinct = new HashSet<>(snapshot);
+        assertEquals(DISTINCT_RESULTS, distinct.size());
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancommon;
+
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.scandit.datacapture.barcode.data.Symbology;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+public class ResultRegistryTest {
+
+    private final ResultRegistry<List<ScanResult>> registry = new ResultRegistry<>();
+
+    @Test
+    public void returnsRegisteredResultsUntilReleased() {
+        List<ScanResult> results =
+            Collections.singletonList(new ScanResult(Symbology.QR, "A"));
+
+        long handle = registry.register(results);
+        assertNotEquals(ResultRegistry.NO_HANDLE, handle);
+        assertSame(results, registry.get(handle));
+
+        registry.release(handle);
+        assertNull(registry.get(handle));
+    }
+
+    @Test
+    public void neverReusesHandles() {
+        long first = registry.register(Collections.emptyList());
+        registry.release(first);
+
+        long second = registry.register(Collections.emptyList());
+        registry.release(second);
+
+        assertNotEquals(first, second);
+        assertNull(registry.get(ResultRegistry.NO_HANDLE));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancommon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Intent;
+import android.os.Bundle;
+
+import com.scandit.datacapture.barcode.data.Symbology;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ResultsHandoverTest {
+
+    private final ResultRegistry<List<ScanResult>> registry = new ResultRegistry<>();
+
+    private final List<ScanResult> results = Arrays.asList(
+        new ScanResult(Symbology.EAN13_UPCA, "5901234123457"),
+        new ScanResult(Symbology.QR, "A")
+    );
+
+    @Test
+    public void handsResultsOverThroughTheIntent() {
+        Intent intent = intentOf(registry, results);
+        ResultsHandover<List<ScanResult>> handover = handover(registry);
+
+        assertSame(results, handover.restore(intent, null));
+
+        handover.release();
+        assertNull(handover(registry).restore(intent, null));
+    }
+
+    @Test
+    public void restoresSavedResultsAfterProcessRestart() {
+        Intent intent = intentOf(registry, results);
+        ResultsHandover<List<ScanResult>> handover = handover(registry);
+        handover.restore(intent, null);
+        Bundle savedInstanceState = saveState(handover);
+
+        // After a restart the registry is empty, and the handle in the Intent points to nothing.
+        ResultRegistry<List<ScanResult>> restartedRegistry = new ResultRegistry<>();
+        ResultsHandover<List<ScanResult>> restored = handover(restartedRegistry);
+
+        List<ScanResult> restoredResults = restored.restore(intent, savedInstanceState);
+        assertNotSame(results, restoredResults);
+        assertEquals(results, restoredResults);
+
+    }
+
+    @Test
+    public void returnsNullWithoutResults() {
+        Intent intent = mock(Intent.class);
+        when(intent.getLongExtra(anyString(), anyLong())).thenReturn(ResultRegistry.NO_HANDLE);
+        Bundle savedInstanceState = mock(Bundle.class);
+
+        assertNull(handover(registry).restore(intent, null));
+        assertNull(handover(registry).restore(intent, savedInstanceState));
+    }
+
+    @Test
+    public void returnsNullForCorruptedSavedResults() {
+        Intent intent = mock(Intent.class);
+        when(intent.getLongExtra(anyString(), anyLong())).thenReturn(ResultRegistry.NO_HANDLE);
+        byte[] truncated = Arrays.copyOf(ScanResultCodec.encode(results), 5);
+        Bundle savedInstanceState = mock(Bundle.class);
+        when(savedInstanceState.getByteArray(anyString())).thenReturn(truncated);
+
+        assertNull(handover(registry).restore(intent, savedInstanceState));
+    }
+
+    @Test
+    public void doesNotSaveResultsAboveTheLimit() {
+        List<ScanResult> largeResults = new ArrayList<>();
+        while (ScanResultCodec.encode(largeResults).length
+            <= ResultsHandover.MAX_SAVED_RESULTS_BYTES) {
+            largeResults.add(new ScanResult(Symbology.QR, new String(new char[1000])));
+        }
+        ResultsHandover<List<ScanResult>> handover = handover(registry);
+        handover.restore(intentOf(registry, largeResults), null);
+        Bundle outState = mock(Bundle.class);
+
+        handover.save(outState);
+
+        verify(outState, never()).putByteArray(anyString(), any());
+    }
+
+    private static ResultsHandover<List<ScanResult>> handover(
+        ResultRegistry<List<ScanResult>> registry
+    ) {
+        return new ResultsHandover<>(registry, ScanResultCodec::encode, ScanResultCodec::decode);
+    }
+
+    // Returns an Intent with the handle that ResultsHandover.putResults() put in it.
+    private static Intent intentOf(
+        ResultRegistry<List<ScanResult>> registry,
+        List<ScanResult> results
+    ) {
+        Intent intent = mock(Intent.class);
+        ResultsHandover.putResults(intent, registry, results);
+        ArgumentCaptor<Long> handle = ArgumentCaptor.forClass(Long.class);
+        verify(intent).putExtra(anyString(), handle.capture());
+        when(intent.getLongExtra(anyString(), anyLong())).thenReturn(handle.getValue());
+        return intent;
+    }
+
+    // Returns a saved instance state with what the handover put in it.
+    private static Bundle saveState(ResultsHandover<List<ScanResult>> handover) {
+        Bundle outState = mock(Bundle.class);
+        handover.save(outState);
+        ArgumentCaptor<byte[]> saved = ArgumentCaptor.forClass(byte[].class);
+        verify(outState).putByteArray(anyString(), saved.capture());
+        assertTrue(saved.getValue().length > 0);
+
+        Bundle savedInstanceState = mock(Bundle.class);
+        when(savedInstanceState.getByteArray(anyString())).thenReturn(saved.getValue());
+        return savedInstanceState;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancommon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.scandit.datacapture.barcode.data.Symbology;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ScanResultCodecTest {
+
+    @Test
+    public void roundTripsResults() {
+        List<ScanResult> results = Arrays.asList(
+            new ScanResult(Symbology.EAN13_UPCA, "5901234123457"),
+            new ScanResult(Symbology.QR, "h\u00e9llo, \u4e16\u754c"),
+            new ScanResult(Symbology.EAN13_UPCA, ""),
+            new ScanResult(Symbology.CODE128, "ABC-123")
+        );
+
+        assertEquals(results, ScanResultCodec.decode(ScanResultCodec.encode(results)));
+    }
+
+    @Test
+    public void roundTripsNoResults() {
+        List<ScanResult> results = Collections.emptyList();
+
+        assertEquals(results, ScanResultCodec.decode(ScanResultCodec.encode(results)));
+    }
+
+    @Test
+    public void encodesTypicalResultInTwoBytesPlusData() {
+        List<ScanResult> results = results(1000);
+
+        int dataBytes = 13 * results.size();
+        int headerBytes = 1 + 1 + 1 + "EAN13_UPCA".length() + 2;
+        assertEquals(
+            headerBytes + dataBytes + 2 * results.size(),
+            ScanResultCodec.encode(results).length
+        );
+    }
+
+    @Test
+    public void rejectsTruncatedInput() {
+        byte[] encoded = ScanResultCodec.encode(results(10));
+
+        for (int length = 0; length < encoded.length; length++) {
+            assertRejected(Arrays.copyOf(encoded, length));
+        }
+    }
+
+    @Test
+    public void rejectsUnknownVersion() {
+        byte[] encoded = ScanResultCodec.encode(results(1));
+        encoded[0] = 2;
+
+        assertRejected(encoded);
+    }
+
+    @Test
+    public void rejectsUnknownSymbology() {
+        byte[] name = "NOT_A_SYMBOLOGY".getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(1);
+        out.write(1);
+        out.write(name.length);
+        out.write(name, 0, name.length);
+        out.write(0);
+
+        assertRejected(out.toByteArray());
+    }
+
+    @Test
+    public void rejectsSymbologyIndexOutOfTable() {
+        byte[] encoded = ScanResultCodec.encode(results(1));
+        // Version, table size, name length, name, result count, then the symbology index.
+        encoded[4 + "EAN13_UPCA".length()] = 5;
+
+        assertRejected(encoded);
+    }
+
+    // Compares the codec with the Java serialization the results screens used before, for the
+    // result counts of small, typical and very large sessions. ScanResult isn't Serializable
+    // anymore, so the serialized results are copies of the same shape.
+    @Test
+    public void benchmarkAgainstSerialization() throws Exception {
+        for (int count : new int[] {1_000, 10_000, 50_000}) {
+            List<ScanResult> results = results(count);
+            List<SerializableScanResult> serializable = new ArrayList<>(count);
+            for (ScanResult result : results) {
+                serializable.add(new SerializableScanResult(result.symbology, result.data));
+            }
+
+            long codecEncode = Long.MAX_VALUE;
+            long codecDecode = Long.MAX_VALUE;
+            long serialEncode = Long.MAX_VALUE;
+            long serialDecode = Long.MAX_VALUE;
+            byte[] encoded = null;
+            byte[] serialized = null;
+            for (int run = 0; run < 15; run++) {
+                long start = System.nanoTime();
+                encoded = ScanResultCodec.encode(results);
+                codecEncode = Math.min(codecEncode, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                List<ScanResult> decoded = ScanResultCodec.decode(encoded);
+                codecDecode = Math.min(codecDecode, System.nanoTime() - start);
+                assertEquals(count, decoded.size());
+
+                start = System.nanoTime();
+                serialized = serialize(serializable);
+                serialEncode = Math.min(serialEncode, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                List<?> deserialized = deserialize(serialized);
+                serialDecode = Math.min(serialDecode, System.nanoTime() - start);
+                assertEquals(count, deserialized.size());
+            }
+
+            String measured = String.format(
+                "%d results: codec %d bytes, %d/%d ns, serialization %d bytes, %d/%d ns "
+                    + "(encode/decode, best of 15)",
+                count, encoded.length, codecEncode, codecDecode,
+                serialized.length, serialEncode, serialDecode
+            );
+            // The codec takes about half the space of serialization, and is faster both ways.
+            assertTrue(measured, encoded.length * 3 < serialized.length * 2);
+            assertTrue(measured, codecEncode < serialEncode);
+            assertTrue(measured, codecDecode < serialDecode);
+        }
+    }
+
+    private static List<ScanResult> results(int count) {
+        List<ScanResult> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(new ScanResult(Symbology.EAN13_UPCA, String.format("590123%07d", i)));
+        }
+        return results;
+    }
+
+    private static void assertRejected(byte[] bytes) {
+        try {
+            ScanResultCodec.decode(bytes);
+            fail("Decoded invalid input of " + bytes.length + " bytes");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static byte[] serialize(List<SerializableScanResult> results) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(results);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<?> deserialize(byte[] bytes) throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (List<?>) in.readObject();
+        }
+    }
+
+    // The fields of ScanResult, as it was serialized before.
+    private static final class SerializableScanResult implements Serializable {
+        final Symbology symbology;
+        final String data;
+
+        SerializableScanResult(Symbology symbology, String data) {
+            this.symbology = symbology;
+            this.data = data;
+        }
+    }
+}
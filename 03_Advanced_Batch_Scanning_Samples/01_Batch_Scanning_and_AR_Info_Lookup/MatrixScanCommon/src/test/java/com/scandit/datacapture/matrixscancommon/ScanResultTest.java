@@ -0,0 +1,52 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancommon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.scandit.datacapture.barcode.data.Symbology;
+
+import org.junit.Test;
+
+public class ScanResultTest {
+
+    @Test
+    public void equalsComparesSymbologyAndData() {
+        assertEquals(new ScanResult(Symbology.QR, "A"), new ScanResult(Symbology.QR, "A"));
+        assertEquals(
+            new ScanResult(Symbology.QR, "A").hashCode(),
+            new ScanResult(Symbology.QR, "A").hashCode()
+        );
+        assertNotEquals(new ScanResult(Symbology.QR, "A"), new ScanResult(Symbology.QR, "B"));
+        assertNotEquals(new ScanResult(Symbology.QR, "A"), new ScanResult(Symbology.EAN8, "A"));
+    }
+
+    @Test
+    public void resultsWithCollidingHashCodesAreDifferent() {
+        // "Aa" and "BB" have the same String hash code.
+        ScanResult first = new ScanResult(Symbology.QR, "Aa");
+        ScanResult second = new ScanResult(Symbology.QR, "BB");
+        assertEquals(first.hashCode(), second.hashCode());
+
+        assertNotEquals(first, second);
+
+        ConcurrentResultStore<ScanResult> store = new ConcurrentResultStore<>();
+        assertTrue(store.add(first));
+        assertTrue(store.add(second));
+        assertEquals(2, store.size());
+    }
+}
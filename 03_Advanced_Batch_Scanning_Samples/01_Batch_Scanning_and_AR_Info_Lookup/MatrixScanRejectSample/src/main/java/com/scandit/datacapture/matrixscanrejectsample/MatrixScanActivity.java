@@ -42,9 +42,11 @@ import com.scandit.datacapture.core.source.FrameSourceState;
 import com.scandit.datacapture.core.source.VideoResolution;
 import com.scandit.datacapture.core.ui.DataCaptureView;
 import com.scandit.datacapture.core.ui.style.Brush;
-import com.scandit.datacapture.matrixscanrejectsample.data.ScanResult;
+import com.scandit.datacapture.matrixscancommon.ConcurrentResultStore;
+import com.scandit.datacapture.matrixscancommon.ScanResult;
 
 import java.util.HashSet;
+import java.util.List;
 
 public class MatrixScanActivity extends CameraPermissionActivity implements BarcodeBatchListener {
 
@@ -56,15 +58,14 @@ public class MatrixScanActivity extends CameraPermissionActivity implements Barc
     private BarcodeBatch barcodeBatch;
     private DataCaptureContext dataCaptureContext;
 
-    private final HashSet<ScanResult> scanResults = new HashSet<>();
+    // Written by the frame thread without blocking, and read by the UI through snapshots.
+    private final ConcurrentResultStore<ScanResult> scanResults = new ConcurrentResultStore<>();
 
     private final ActivityResultLauncher<Intent> resultsLauncher = registerForActivityResult(
         new ActivityResultContracts.StartActivityForResult(),
         result -> {
             if (result.getResultCode() == ResultsActivity.RESULT_CODE_CLEAN) {
-                synchronized (scanResults) {
-                    scanResults.clear();
-                }
+                scanResults.clear();
             }
         });
 
@@ -82,16 +83,11 @@ public class MatrixScanActivity extends CameraPermissionActivity implements Barc
         doneButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                synchronized (scanResults) {
-                    // Show new screen displaying a list of all barcodes that have been scanned.
-                    ScanResult[] resultsArray = new ScanResult[scanResults.size()];
-                    int i = 0;
-                    for (ScanResult result : scanResults) {
-                        resultsArray[i++] = result;
-                    }
-                    Intent intent = ResultsActivity.getIntent(MatrixScanActivity.this, resultsArray);
-                    resultsLauncher.launch(intent);
-                }
+                // Show new screen displaying a list of all barcodes that have been scanned.
+                // Taking the snapshot doesn't copy anything, nor hold up the frame thread.
+                List<ScanResult> resultsSnapshot = scanResults.snapshot();
+                Intent intent = ResultsActivity.getIntent(MatrixScanActivity.this, resultsSnapshot);
+                resultsLauncher.launch(intent);
             }
         });
     }
@@ -237,11 +233,9 @@ public class MatrixScanActivity extends CameraPermissionActivity implements Barc
             @NonNull BarcodeBatchSession session,
             @NonNull FrameData data
     ) {
-        synchronized (scanResults) {
-            for (TrackedBarcode trackedBarcode : session.getAddedTrackedBarcodes()) {
-                if (isValidBarcode(trackedBarcode.getBarcode())) {
-                    scanResults.add(new ScanResult(trackedBarcode.getBarcode()));
-                }
+        for (TrackedBarcode trackedBarcode : session.getAddedTrackedBarcodes()) {
+            if (isValidBarcode(trackedBarcode.getBarcode())) {
+                scanResults.add(new ScanResult(trackedBarcode.getBarcode()));
             }
         }
     }
@@ -16,7 +16,6 @@ package com.scandit.datacapture.matrixscanrejectsample;
 
 import android.content.Context;
 import android.content.Intent;
-import android.os.Build;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -29,18 +28,32 @@ import androidx.recyclerview.widget.DividerItemDecoration;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.scandit.datacapture.barcode.data.SymbologyDescription;
-import com.scandit.datacapture.matrixscanrejectsample.data.ScanResult;
+import com.scandit.datacapture.matrixscancommon.ResultRegistry;
+import com.scandit.datacapture.matrixscancommon.ResultsHandover;
+import com.scandit.datacapture.matrixscancommon.ScanResult;
+import com.scandit.datacapture.matrixscancommon.ScanResultCodec;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 
 public class ResultsActivity extends AppCompatActivity {
 
     public static final int RESULT_CODE_CLEAN = 1;
-    private static final String ARG_SCAN_RESULTS = "scan-results";
 
-    public static Intent getIntent(Context context, ScanResult[] scanResults) {
-        return new Intent(context, ResultsActivity.class).putExtra(ARG_SCAN_RESULTS, scanResults);
+    // The results of the open results screens.
+    private static final ResultRegistry<List<ScanResult>> scanResultsRegistry =
+            new ResultRegistry<>();
+
+    private final ResultsHandover<List<ScanResult>> scanResultsHandover = new ResultsHandover<>(
+            scanResultsRegistry, ScanResultCodec::encode, ScanResultCodec::decode
+    );
+
+    // The results are registered in-process and only their handle is put in the Intent.
+    // They're released once the results screen is finished.
+    public static Intent getIntent(Context context, List<ScanResult> scanResults) {
+        return ResultsHandover.putResults(
+                new Intent(context, ResultsActivity.class), scanResultsRegistry, scanResults);
     }
 
     @Override
@@ -55,11 +68,11 @@ public class ResultsActivity extends AppCompatActivity {
                 new DividerItemDecoration(recyclerView.getContext(), LinearLayoutManager.VERTICAL));
 
         // Receive results from previous screen and set recycler view items.
-        ScanResult[] scanResults;
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
-            scanResults = getIntent().getSerializableExtra(ARG_SCAN_RESULTS, ScanResult[].class);
-        } else {
-            scanResults = (ScanResult[]) getIntent().getSerializableExtra(ARG_SCAN_RESULTS);
+        List<ScanResult> scanResults =
+                scanResultsHandover.restore(getIntent(), savedInstanceState);
+        if (scanResults == null) {
+            finish();
+            return;
         }
         recyclerView.setAdapter(new ScanResultsAdapter(this, scanResults));
 
@@ -73,12 +86,26 @@ public class ResultsActivity extends AppCompatActivity {
         });
     }
 
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        scanResultsHandover.save(outState);
+    }
+
+    @Override
+    protected void onDestroy() {
+        if (isFinishing()) {
+            scanResultsHandover.release();
+        }
+        super.onDestroy();
+    }
+
     private static class ScanResultsAdapter extends RecyclerView.Adapter<ViewHolder> {
 
         private final Context context;
-        private final ScanResult[] items;
+        private final List<ScanResult> items;
 
-        ScanResultsAdapter(Context context, ScanResult[] items) {
+        ScanResultsAdapter(Context context, List<ScanResult> items) {
             this.context = context;
             this.items = items;
         }
@@ -92,12 +119,12 @@ public class ResultsActivity extends AppCompatActivity {
 
         @Override
         public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-            holder.update(items[position]);
+            holder.update(items.get(position));
         }
 
         @Override
         public int getItemCount() {
-            return items.length;
+            return items.size();
         }
     }
 
@@ -28,7 +28,6 @@ import com.scandit.datacapture.barcode.batch.capture.BarcodeBatch;
 import com.scandit.datacapture.barcode.batch.capture.BarcodeBatchListener;
 import com.scandit.datacapture.barcode.batch.capture.BarcodeBatchSession;
 import com.scandit.datacapture.barcode.batch.capture.BarcodeBatchSettings;
-import com.scandit.datacapture.barcode.batch.data.TrackedBarcode;
 import com.scandit.datacapture.barcode.batch.ui.overlay.BarcodeBatchBasicOverlay;
 import com.scandit.datacapture.barcode.batch.ui.overlay.BarcodeBatchBasicOverlayStyle;
 import com.scandit.datacapture.core.capture.DataCaptureContext;
@@ -38,9 +37,11 @@ import com.scandit.datacapture.core.source.CameraSettings;
 import com.scandit.datacapture.core.source.FrameSourceState;
 import com.scandit.datacapture.core.source.VideoResolution;
 import com.scandit.datacapture.core.ui.DataCaptureView;
-import com.scandit.datacapture.matrixscansimplesample.data.ScanResult;
+import com.scandit.datacapture.matrixscancommon.ScanResult;
+import com.scandit.datacapture.matrixscansimplesample.data.ScanResultCollector;
 
 import java.util.HashSet;
+import java.util.List;
 
 public class MatrixScanActivity extends CameraPermissionActivity
         implements BarcodeBatchListener {
@@ -53,15 +54,13 @@ public class MatrixScanActivity extends CameraPermissionActivity
     private BarcodeBatch barcodeBatch;
     private DataCaptureContext dataCaptureContext;
 
-    private final HashSet<ScanResult> scanResults = new HashSet<>();
+    private final ScanResultCollector scanResults = new ScanResultCollector();
 
     private final ActivityResultLauncher<Intent> resultsLauncher = registerForActivityResult(
         new ActivityResultContracts.StartActivityForResult(),
         result -> {
             if (result.getResultCode() == ResultsActivity.RESULT_CODE_CLEAN) {
-                synchronized (scanResults) {
-                    scanResults.clear();
-                }
+                scanResults.clear();
             }
         });
 
@@ -77,16 +76,11 @@ public class MatrixScanActivity extends CameraPermissionActivity
         doneButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                synchronized (scanResults) {
-                    // Show new screen displaying a list of all barcodes that have been scanned.
-                    ScanResult[] resultsArray = new ScanResult[scanResults.size()];
-                    int i = 0;
-                    for (ScanResult result : scanResults) {
-                        resultsArray[i++] = result;
-                    }
-                    Intent intent = ResultsActivity.getIntent(MatrixScanActivity.this, resultsArray);
-                    resultsLauncher.launch(intent);
-                }
+                // Show new screen displaying a list of all barcodes that have been scanned.
+                // Taking the snapshot doesn't copy anything, nor hold up the frame thread.
+                List<ScanResult> resultsSnapshot = scanResults.snapshot();
+                Intent intent = ResultsActivity.getIntent(MatrixScanActivity.this, resultsSnapshot);
+                resultsLauncher.launch(intent);
             }
         });
     }
@@ -183,6 +177,8 @@ public class MatrixScanActivity extends CameraPermissionActivity
     private void resumeFrameSource() {
         // Switch camera on to start streaming frames.
         // The camera is started asynchronously and will take some time to completely turn on.
+        // Tracking starts over, so the identifiers of the barcodes tracked before are forgotten.
+        scanResults.forgetTrackedBarcodes();
         barcodeBatch.setEnabled(true);
         camera.switchToDesiredState(FrameSourceState.ON, null);
     }
@@ -205,11 +201,9 @@ public class MatrixScanActivity extends CameraPermissionActivity
             @NonNull BarcodeBatchSession session,
             @NonNull FrameData data
     ) {
-        synchronized (scanResults) {
-            for (TrackedBarcode trackedBarcode : session.getAddedTrackedBarcodes()) {
-                scanResults.add(new ScanResult(trackedBarcode.getBarcode()));
-            }
-        }
+        // Only barcodes that were never seen before create a result.
+        scanResults.update(
+                session.getAddedTrackedBarcodes(), session.getRemovedTrackedBarcodes());
     }
 
     @Override
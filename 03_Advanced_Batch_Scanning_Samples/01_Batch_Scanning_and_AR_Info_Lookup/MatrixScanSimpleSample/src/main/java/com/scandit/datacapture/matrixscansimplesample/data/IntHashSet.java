@@ -0,0 +1,141 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscansimplesample.data;
+
+import java.util.Arrays;
+
+// Set of primitive ints, using open addressing with linear probing.
+// Adding, removing and looking up values never allocates, except when the table grows.
+public final class IntHashSet {
+
+    private static final int EMPTY = 0;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    // EMPTY marks free slots, so whether EMPTY itself is in the set is kept aside.
+    private int[] slots;
+    private boolean containsEmpty = false;
+    private int size = 0;
+    private int resizeThreshold;
+
+    public IntHashSet(int expectedSize) {
+        int minCapacity = Math.max(4, (int) (expectedSize / LOAD_FACTOR));
+        int capacity = Integer.highestOneBit(minCapacity - 1) << 1;
+        slots = new int[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int value) {
+        if (value == EMPTY) return containsEmpty;
+
+        int mask = slots.length - 1;
+        for (int index = hash(value) & mask; slots[index] != EMPTY; index = (index + 1) & mask) {
+            if (slots[index] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns false if the value was already in the set.
+    public boolean add(int value) {
+        if (value == EMPTY) {
+            if (containsEmpty) return false;
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+
+        int mask = slots.length - 1;
+        int index = hash(value) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = value;
+        size++;
+        if (size > resizeThreshold) {
+            resize();
+        }
+        return true;
+    }
+
+    // Returns false if the value wasn't in the set.
+    public boolean remove(int value) {
+        if (value == EMPTY) {
+            if (!containsEmpty) return false;
+            containsEmpty = false;
+            size--;
+            return true;
+        }
+
+        int mask = slots.length - 1;
+        int index = hash(value) & mask;
+        while (slots[index] != value) {
+            if (slots[index] == EMPTY) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = EMPTY;
+        size--;
+
+        // Move back the values that follow in the same run, so lookups don't stop at the hole.
+        int hole = index;
+        for (index = (index + 1) & mask; slots[index] != EMPTY; index = (index + 1) & mask) {
+            int home = hash(slots[index]) & mask;
+            // The value can fill the hole if its home slot isn't cyclically in (hole, index].
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                slots[hole] = slots[index];
+                slots[index] = EMPTY;
+                hole = index;
+            }
+        }
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, EMPTY);
+        containsEmpty = false;
+        size = 0;
+    }
+
+    private void resize() {
+        int[] previous = slots;
+        slots = new int[previous.length * 2];
+        resizeThreshold = (int) (slots.length * LOAD_FACTOR);
+        int mask = slots.length - 1;
+        for (int value : previous) {
+            if (value == EMPTY) continue;
+
+            int index = hash(value) & mask;
+            while (slots[index] != EMPTY) {
+                index = (index + 1) & mask;
+            }
+            slots[index] = value;
+        }
+    }
+
+    // Spreads sequential identifiers across the table.
+    private static int hash(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscansimplesample.data;
+
+import com.scandit.datacapture.barcode.batch.data.TrackedBarcode;
+import com.scandit.datacapture.barcode.data.Barcode;
+import com.scandit.datacapture.barcode.data.Symbology;
+import com.scandit.datacapture.matrixscancommon.ConcurrentResultStore;
+import com.scandit.datacapture.matrixscancommon.ScanResult;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+
+// Collects the distinct barcodes seen while tracking, without allocating anything per frame for
+// barcodes that are already known.
+// Tracked barcodes are first filtered by identifier, so a barcode is only looked at in the frame
+// it starts being tracked. Its data is then looked up per symbology, and a ScanResult is only
+// created the first time a given symbology and data pair is seen.
+// update() must always be called from the same thread, normally the frame thread. It never blocks,
+// and the other methods can be called from any thread.
+public final class ScanResultCollector {
+
+    // Distinct results, in the order they were first seen.
+    private final ConcurrentResultStore<ScanResult> results = new ConcurrentResultStore<>();
+
+    // Only accessed by the thread calling update().
+    // Identifiers of the barcodes currently tracked.
+    private final IntHashSet trackedIdentifiers = new IntHashSet(64);
+    // Data seen so far in the current epoch of the results, per symbology.
+    private final EnumMap<Symbology, HashSet<String>> seenData = new EnumMap<>(Symbology.class);
+    private long seenDataEpoch = 0;
+
+    // Set from other threads, and acted upon by the next update().
+    private volatile boolean forgetTrackedBarcodes = false;
+
+    // To be called with the changes of every session update.
+    // Indexed loops are used on purpose, so not even an iterator is allocated.
+    public void update(
+        List<TrackedBarcode> addedTrackedBarcodes,
+        List<Integer> removedIdentifiers
+    ) {
+        beginUpdate();
+        for (int i = 0; i < removedIdentifiers.size(); i++) {
+            stopTracking(removedIdentifiers.get(i));
+        }
+        for (int i = 0; i < addedTrackedBarcodes.size(); i++) {
+            TrackedBarcode trackedBarcode = addedTrackedBarcodes.get(i);
+            if (startTracking(trackedBarcode.getIdentifier())) {
+                Barcode barcode = trackedBarcode.getBarcode();
+                collect(barcode.getSymbology(), barcode.getData());
+            }
+        }
+    }
+
+    // To be called when tracking restarts, since identifiers may then be reused.
+    public void forgetTrackedBarcodes() {
+        forgetTrackedBarcodes = true;
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    // Returns the results collected so far, in constant time. The list doesn't change afterwards.
+    public List<ScanResult> snapshot() {
+        return results.snapshot();
+    }
+
+    // Forgets the results. Barcodes still tracked won't be collected again.
+    public void clear() {
+        results.clear();
+    }
+
+    // The steps of update(), on plain values so they can be exercised without SDK objects.
+
+    void beginUpdate() {
+        if (forgetTrackedBarcodes) {
+            forgetTrackedBarcodes = false;
+            trackedIdentifiers.clear();
+        }
+        long epoch = results.getEpoch();
+        if (epoch != seenDataEpoch) {
+            // The results were cleared since the last update.
+            seenData.clear();
+            seenDataEpoch = epoch;
+        }
+    }
+
+    void stopTracking(int identifier) {
+        trackedIdentifiers.remove(identifier);
+    }
+
+    // Returns whether the barcode wasn't tracked yet, i.e. whether it has to be collected.
+    boolean startTracking(int identifier) {
+        return trackedIdentifiers.add(identifier);
+    }
+
+    void collect(Symbology symbology, String data) {
+        if (data == null) {
+            data = "";
+        }
+        HashSet<String> dataForSymbology = seenData.get(symbology);
+        if (dataForSymbology == null) {
+            dataForSymbology = new HashSet<>();
+            seenData.put(symbology, dataForSymbology);
+        }
+        if (dataForSymbology.add(data)) {
+            results.add(new ScanResult(symbology, data));
+        }
+    }
+}
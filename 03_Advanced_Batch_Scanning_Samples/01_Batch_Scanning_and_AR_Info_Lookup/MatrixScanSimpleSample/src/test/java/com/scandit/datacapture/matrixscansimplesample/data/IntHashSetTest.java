@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscansimplesample.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class IntHashSetTest {
+
+    @Test
+    public void addsAndRemovesValues() {
+        IntHashSet set = new IntHashSet(4);
+
+        assertTrue(set.add(7));
+        assertFalse(set.add(7));
+        assertTrue(set.contains(7));
+        assertEquals(1, set.size());
+
+        assertTrue(set.remove(7));
+        assertFalse(set.remove(7));
+        assertFalse(set.contains(7));
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    public void holdsZero() {
+        // Zero marks free slots internally.
+        IntHashSet set = new IntHashSet(4);
+
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    public void growsPastExpectedSize() {
+        IntHashSet set = new IntHashSet(2);
+        for (int i = -500; i < 500; i++) {
+            assertTrue(set.add(i));
+        }
+
+        assertEquals(1000, set.size());
+        for (int i = -500; i < 500; i++) {
+            assertTrue(set.contains(i));
+        }
+        assertFalse(set.contains(500));
+    }
+
+    @Test
+    public void clearEmptiesTheSet() {
+        IntHashSet set = new IntHashSet(8);
+        set.add(0);
+        set.add(1);
+        set.add(2);
+
+        set.clear();
+
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(1));
+        assertTrue(set.add(2));
+    }
+
+    @Test
+    public void matchesHashSetUnderRandomOperations() {
+        // A small range of values makes runs of colliding slots and removals inside them common.
+        Random random = new Random(42);
+        IntHashSet set = new IntHashSet(16);
+        Set<Integer> expected = new HashSet<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            int value = random.nextInt(256) - 64;
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.add(value), set.add(value));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(value), set.remove(value));
+                    break;
+                default:
+                    assertEquals(expected.contains(value), set.contains(value));
+                    break;
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        for (int value = -64; value < 192; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+    }
+}
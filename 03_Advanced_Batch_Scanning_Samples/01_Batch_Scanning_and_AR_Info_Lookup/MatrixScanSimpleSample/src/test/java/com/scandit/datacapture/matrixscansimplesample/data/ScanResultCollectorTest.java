@@ -0,0 +1,179 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscansimplesample.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.scandit.datacapture.barcode.data.Barcode;
+import com.scandit.datacapture.barcode.data.Symbology;
+import com.scandit.datacapture.barcode.batch.data.TrackedBarcode;
+import com.scandit.datacapture.matrixscancommon.ScanResult;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ScanResultCollectorTest {
+
+    // 60 codes in view at 30 fps for a minute, with a tenth of them re-acquired every frame.
+    private static final int CODES_IN_VIEW = 60;
+    private static final int FRAMES = 30 * 60;
+    private static final int REACQUIRED_PER_FRAME = 6;
+
+    private final ScanResultCollector collector = new ScanResultCollector();
+
+    @Test
+    public void collectsEachDataOncePerSymbology() {
+        collector.update(
+            Arrays.asList(
+                tracked(1, Symbology.EAN13_UPCA, "A"),
+                tracked(2, Symbology.EAN13_UPCA, "A"),
+                tracked(3, Symbology.QR, "A"),
+                tracked(4, Symbology.QR, null)
+            ),
+            Collections.emptyList()
+        );
+
+        List<ScanResult> results = collector.snapshot();
+        assertEquals(3, results.size());
+        assertEquals(new ScanResult(Symbology.EAN13_UPCA, "A"), results.get(0));
+        assertEquals(new ScanResult(Symbology.QR, "A"), results.get(1));
+        assertEquals(new ScanResult(Symbology.QR, ""), results.get(2));
+    }
+
+    @Test
+    public void ignoresBarcodesThatAreStillTracked() {
+        TrackedBarcode barcode = tracked(1, Symbology.QR, "A");
+        collector.update(Collections.singletonList(barcode), Collections.emptyList());
+        collector.clear();
+
+        // Still the same track, so it isn't collected again after the results were cleared.
+        collector.update(Collections.singletonList(barcode), Collections.emptyList());
+        assertEquals(0, collector.size());
+
+        // A new track of the same code is.
+        collector.update(
+            Collections.singletonList(tracked(2, Symbology.QR, "A")),
+            Collections.singletonList(1)
+        );
+        assertEquals(1, collector.size());
+    }
+
+    @Test
+    public void doesNotCollectSeenDataUnderNewIdentifier() {
+        collector.update(
+            Collections.singletonList(tracked(1, Symbology.QR, "A")),
+            Collections.emptyList()
+        );
+
+        collector.update(
+            Collections.singletonList(tracked(2, Symbology.QR, "A")),
+            Collections.singletonList(1)
+        );
+
+        assertEquals(1, collector.size());
+    }
+
+    @Test
+    public void collectsAgainAfterClear() {
+        collector.update(
+            Collections.singletonList(tracked(1, Symbology.QR, "A")),
+            Collections.emptyList()
+        );
+        collector.clear();
+        assertEquals(0, collector.size());
+
+        collector.update(
+            Collections.singletonList(tracked(2, Symbology.QR, "A")),
+            Collections.singletonList(1)
+        );
+
+        assertEquals(1, collector.size());
+        assertEquals(new ScanResult(Symbology.QR, "A"), collector.snapshot().get(0));
+    }
+
+    @Test
+    public void forgetsTrackedBarcodesWhenTrackingRestarts() {
+        TrackedBarcode barcode = tracked(1, Symbology.QR, "A");
+        collector.update(Collections.singletonList(barcode), Collections.emptyList());
+        collector.clear();
+
+        // Identifiers start over with a new tracking session, so the old ones mean nothing.
+        collector.forgetTrackedBarcodes();
+        collector.update(Collections.singletonList(barcode), Collections.emptyList());
+
+        assertEquals(1, collector.size());
+    }
+
+    @Test
+    public void steadyStateDoesNotAllocate() {
+        // Mocked SDK objects allocate on every call, so this drives the steps update() is made of
+        // with plain values instead.
+        String[] data = new String[CODES_IN_VIEW];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = "59012341" + (10000 + i);
+        }
+        int[] identifiers = new int[CODES_IN_VIEW];
+        int nextIdentifier = 0;
+        for (int i = 0; i < CODES_IN_VIEW; i++) {
+            identifiers[i] = nextIdentifier++;
+            collector.beginUpdate();
+            if (collector.startTracking(identifiers[i])) {
+                collector.collect(Symbology.EAN13_UPCA, data[i]);
+            }
+        }
+
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+
+        for (int frame = 0; frame < FRAMES; frame++) {
+            collector.beginUpdate();
+            for (int i = 0; i < REACQUIRED_PER_FRAME; i++) {
+                int code = (frame * REACQUIRED_PER_FRAME + i) % CODES_IN_VIEW;
+                collector.stopTracking(identifiers[code]);
+                identifiers[code] = nextIdentifier++;
+                if (collector.startTracking(identifiers[code])) {
+                    collector.collect(Symbology.EAN13_UPCA, data[code]);
+                }
+            }
+        }
+
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        assertEquals(CODES_IN_VIEW, collector.size());
+        // Some slack for the measurement itself.
+        assertTrue(
+            "allocated " + allocated + " bytes for " + FRAMES + " frames",
+            allocated < 1024
+        );
+    }
+
+    private static TrackedBarcode tracked(int identifier, Symbology symbology, String data) {
+        Barcode barcode = mock(Barcode.class);
+        when(barcode.getSymbology()).thenReturn(symbology);
+        when(barcode.getData()).thenReturn(data);
+        TrackedBarcode trackedBarcode = mock(TrackedBarcode.class);
+        when(trackedBarcode.getIdentifier()).thenReturn(identifier);
+        when(trackedBarcode.getBarcode()).thenReturn(barcode);
+        return trackedBarcode;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.countingcommon;
+
+import com.scandit.datacapture.barcode.data.Barcode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Barcodes grouped by their data, in the order each data was first added.
+// Looking up, adding or removing all barcodes with a given data doesn't depend on the size of
+// the collection.
+public class BarcodeMultiset {
+
+    // Notified of the changes applied by syncWith().
+    public interface ChangeListener {
+        void onAdded(Barcode barcode);
+
+        void onRemoved(String data, int count);
+    }
+
+    // Visits the barcodes of one data.
+    public interface GroupVisitor {
+        void visit(String data, List<Barcode> barcodes);
+    }
+
+    // The barcodes of one data. seen is only used while syncWith() runs, and is 0 otherwise.
+    private static class Group {
+        final ArrayList<Barcode> barcodes = new ArrayList<>(1);
+        int seen = 0;
+    }
+
+    private final LinkedHashMap<String, Group> groupsByData = new LinkedHashMap<>();
+    private int size = 0;
+
+    public int size() {
+        return size;
+    }
+
+    // Returns how many different data the collection holds.
+    public int groupCount() {
+        return groupsByData.size();
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Returns how many barcodes with the given data are in the collection.
+    public int count(String data) {
+        Group group = groupsByData.get(data);
+        return group != null ? group.barcodes.size() : 0;
+    }
+
+    // Returns the first barcode added with the given data, or null if there is none.
+    public Barcode first(String data) {
+        Group group = groupsByData.get(data);
+        return group != null ? group.barcodes.get(0) : null;
+    }
+
+    public void add(Barcode barcode) {
+        groupFor(barcode.getData()).barcodes.add(barcode);
+        size++;
+    }
+
+    // Removes all barcodes with the given data and returns how many were removed.
+    public int removeAll(String data) {
+        Group removed = groupsByData.remove(data);
+        if (removed == null) {
+            return 0;
+        }
+        size -= removed.barcodes.size();
+        return removed.barcodes.size();
+    }
+
+    public void clear() {
+        groupsByData.clear();
+        size = 0;
+    }
+
+    // Appends all barcodes to the given list.
+    public void addAllTo(List<Barcode> target) {
+        for (Group group : groupsByData.values()) {
+            target.addAll(group.barcodes);
+        }
+    }
+
+    // Visits the barcodes grouped by data, in the order each data was first added.
+    public void forEachGroup(GroupVisitor visitor) {
+        for (Map.Entry<String, Group> entry : groupsByData.entrySet()) {
+            visitor.visit(entry.getKey(), entry.getValue().barcodes);
+        }
+    }
+
+    // Returns the data held, in the order each data was first added. Unlike forEachGroup(), the
+    // caller can stop and resume between data. The iterator fails if a data is added or removed
+    // in the meantime.
+    public Iterator<String> dataIterator() {
+        return Collections.unmodifiableSet(groupsByData.keySet()).iterator();
+    }
+
+    // Makes the collection hold the same number of barcodes per data as the given list.
+    // Only the differences are applied: barcodes already held for a data are kept, extra ones
+    // are appended and missing ones are dropped. Returns whether anything changed.
+    // The listener, if any, is told about every barcode added and removed.
+    // The barcodes are counted in the groups themselves, so an update that only sees data that
+    // is already held doesn't allocate anything.
+    public boolean syncWith(List<Barcode> barcodes, ChangeListener listener) {
+        boolean changed = false;
+
+        // Count the barcodes per data, appending the ones beyond what we already hold.
+        for (int i = 0, count = barcodes.size(); i < count; i++) {
+            Barcode barcode = barcodes.get(i);
+            Group group = groupFor(barcode.getData());
+            group.seen++;
+            if (group.seen > group.barcodes.size()) {
+                group.barcodes.add(barcode);
+                size++;
+                changed = true;
+                if (listener != null) {
+                    listener.onAdded(barcode);
+                }
+            }
+        }
+
+        // Drop the data that disappeared, or of which there are now fewer barcodes.
+        Iterator<Map.Entry<String, Group>> iterator = groupsByData.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Group> entry = iterator.next();
+            Group group = entry.getValue();
+            int target = group.seen;
+            group.seen = 0;
+            ArrayList<Barcode> held = group.barcodes;
+            int removed = held.size() - target;
+            if (removed <= 0) {
+                continue;
+            }
+            size -= removed;
+            if (target == 0) {
+                iterator.remove();
+            } else {
+                held.subList(target, held.size()).clear();
+            }
+            changed = true;
+            if (listener != null) {
+                listener.onRemoved(entry.getKey(), removed);
+            }
+        }
+
+        return changed;
+    }
+
+    private Group groupFor(String data) {
+        Group group = groupsByData.get(data);
+        if (group == null) {
+            group = new Group();
+            groupsByData.put(data, group);
+        }
+        return group;
+    }
+}
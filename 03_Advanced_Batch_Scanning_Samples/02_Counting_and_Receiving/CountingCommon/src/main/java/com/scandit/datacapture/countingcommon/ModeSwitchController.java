@@ -0,0 +1,111 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.countingcommon;
+
+// Switches between the SparkScan and BarcodeCount modes.
+// Both modes and their views are kept for the lifetime of the activity, so a switch only detaches
+// one mode from the data capture context and attaches the other one.
+public class ModeSwitchController {
+
+    // A scanning mode together with its view, as driven by the controller.
+    public interface Mode {
+
+        // Attaches the mode to the data capture context and adds its view to the container.
+        void enable();
+
+        // Detaches the mode from the data capture context and removes its view from the container.
+        void disable();
+
+        void onPause();
+
+        void onResume();
+
+        // Releases the mode and its view. The mode is already disabled when this is called.
+        void release();
+    }
+
+    private final Mode sparkScan;
+    private final Mode barcodeCount;
+
+    private boolean inBarcodeCountMode = false;
+
+    // Time spent on the main thread by the switches so far.
+    private long totalSwitchNanos = 0;
+    private int switchCount = 0;
+
+    public ModeSwitchController(Mode sparkScan, Mode barcodeCount) {
+        this.sparkScan = sparkScan;
+        this.barcodeCount = barcodeCount;
+    }
+
+    public boolean isInBarcodeCountMode() {
+        return inBarcodeCountMode;
+    }
+
+    public void switchToBarcodeCount() {
+        if (inBarcodeCountMode) {
+            return;
+        }
+        long start = System.nanoTime();
+        sparkScan.disable();
+        sparkScan.onPause();
+        barcodeCount.enable();
+        inBarcodeCountMode = true;
+        recordSwitch(System.nanoTime() - start);
+    }
+
+    public void switchToSparkScan() {
+        if (!inBarcodeCountMode) {
+            return;
+        }
+        long start = System.nanoTime();
+        barcodeCount.disable();
+        sparkScan.enable();
+        sparkScan.onResume();
+        inBarcodeCountMode = false;
+        recordSwitch(System.nanoTime() - start);
+    }
+
+    public void onPause() {
+        currentMode().onPause();
+    }
+
+    public void onResume() {
+        currentMode().onResume();
+    }
+
+    public void onDestroy() {
+        // Only the current mode is attached to the context and shown in the container. The other
+        // one was disabled by the last switch, and disabling it again would detach the current one.
+        currentMode().disable();
+        sparkScan.release();
+        barcodeCount.release();
+    }
+
+    // Returns how long a switch kept the main thread busy on average, in nanoseconds,
+    // or -1 if the mode was never switched.
+    public long getAverageSwitchNanos() {
+        return switchCount == 0 ? -1 : totalSwitchNanos / switchCount;
+    }
+
+    private Mode currentMode() {
+        return inBarcodeCountMode ? barcodeCount : sparkScan;
+    }
+
+    private void recordSwitch(long durationNanos) {
+        totalSwitchNanos += durationNanos;
+        switchCount++;
+    }
+}
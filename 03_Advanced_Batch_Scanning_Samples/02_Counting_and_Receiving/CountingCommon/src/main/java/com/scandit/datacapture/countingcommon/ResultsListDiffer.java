@@ -0,0 +1,315 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.scandit.datacapture.countingcommon;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+// The results shown by a results list, one item per barcode data with its quantity.
+// Single results are added and removed in place. A bulk submission replaces the whole list: the
+// new results and their difference with the current ones are computed on a background executor,
+// and only that difference is applied on the main thread.
+// All methods must be called on the main thread.
+public final class ResultsListDiffer<T> {
+
+    // How the differ reads and updates the result items.
+    public interface ItemType<T> {
+        // The barcode data the item stands for. Each data appears once in the list.
+        String dataOf(T item);
+
+        int quantityOf(T item);
+
+        // Counts one more barcode for an item of the list.
+        void increaseQuantity(T item);
+
+        // Whether the new item looks the same as the old item did with the given quantity.
+        boolean areContentsTheSame(T oldItem, int oldQuantity, T newItem);
+    }
+
+    // Shared by all differs to group barcodes and compute list differences off the main thread.
+    private static final ExecutorService diffExecutor = Executors.newSingleThreadExecutor();
+
+    private final ItemType<T> itemType;
+    private final ListUpdateCallback updates;
+    private final Executor backgroundExecutor;
+    private final Executor mainThreadExecutor;
+
+    private List<T> results = new ArrayList<>();
+
+    // Position of each barcode data in the results, and the sum of all quantities.
+    private final Map<String, Integer> positions = new HashMap<>();
+    private int totalQuantity = 0;
+
+    // While a bulk submission is computed in the background, single changes are held back and
+    // applied once the submission is in, so the computed difference stays valid. A newer
+    // submission already contains them, so it drops them.
+    private int submissionGeneration = 0;
+    private boolean submitting = false;
+    private final List<Runnable> deferredChanges = new ArrayList<>();
+
+    // The snapshots of the last submission, so that submitting them again is a no-op.
+    private Object[] submittedSnapshots = null;
+
+    // Time spent on the main thread by the last bulk submission.
+    private long lastSubmitMainThreadNanos = 0;
+
+    // Reports the changes to updates, usually an AdapterListUpdateCallback, on the main looper.
+    public ResultsListDiffer(ItemType<T> itemType, ListUpdateCallback updates) {
+        this(itemType, updates, diffExecutor, new Handler(Looper.getMainLooper())::post);
+    }
+
+    // mainThreadExecutor must run the tasks on the thread calling the differ's methods.
+    public ResultsListDiffer(
+        ItemType<T> itemType,
+        ListUpdateCallback updates,
+        Executor backgroundExecutor,
+        Executor mainThreadExecutor
+    ) {
+        this.itemType = itemType;
+        this.updates = updates;
+        this.backgroundExecutor = backgroundExecutor;
+        this.mainThreadExecutor = mainThreadExecutor;
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    public T get(int index) {
+        return results.get(index);
+    }
+
+    public int getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public String getDataAtIndex(int index) {
+        if (index < results.size()) {
+            return itemType.dataOf(results.get(index));
+        }
+        return null;
+    }
+
+    // Adds the item, or counts one more barcode if its data is already in the list.
+    public void add(T item) {
+        submittedSnapshots = null;
+        if (submitting) {
+            deferredChanges.add(() -> add(item));
+            return;
+        }
+
+        String data = itemType.dataOf(item);
+        Integer index = positions.get(data);
+        if (index == null) {
+            results.add(item);
+            positions.put(data, results.size() - 1);
+            totalQuantity += itemType.quantityOf(item);
+            updates.onInserted(results.size() - 1, 1);
+        } else {
+            itemType.increaseQuantity(results.get(index));
+            totalQuantity++;
+            updates.onChanged(index, 1, null);
+        }
+    }
+
+    public void removeAt(int index) {
+        if (index >= results.size()) {
+            return;
+        }
+        submittedSnapshots = null;
+        if (submitting) {
+            String data = itemType.dataOf(results.get(index));
+            deferredChanges.add(() -> removeData(data));
+            return;
+        }
+
+        T removed = results.remove(index);
+        positions.remove(itemType.dataOf(removed));
+        totalQuantity -= itemType.quantityOf(removed);
+        for (int i = index; i < results.size(); i++) {
+            positions.put(itemType.dataOf(results.get(i)), i);
+        }
+        updates.onRemoved(index, 1);
+    }
+
+    private void removeData(String data) {
+        Integer index = positions.get(data);
+        if (index != null) {
+            removeAt(index);
+        }
+    }
+
+    public void clear() {
+        // Drop any submission still being computed.
+        submissionGeneration++;
+        submitting = false;
+        deferredChanges.clear();
+        submittedSnapshots = null;
+
+        int count = results.size();
+        results.clear();
+        positions.clear();
+        totalQuantity = 0;
+        if (count > 0) {
+            updates.onRemoved(0, count);
+        }
+    }
+
+    // Replaces the whole list with the results of grouping, which runs on the background
+    // executor and must only read the given snapshots. The snapshots must be immutable, and
+    // taken after the changes passed to add() and removeAt() were made to the session; submitting
+    // the same snapshots again is a no-op. The results must not be shared with the caller.
+    // onApplied is called on the main thread once the list is updated, unless the list was
+    // cleared or resubmitted in the meantime.
+    public void submit(Supplier<List<T>> grouping, Runnable onApplied, Object... snapshots) {
+        if (isSubmitted(snapshots)) {
+            // Nothing changed since the last submission.
+            if (!submitting && onApplied != null) {
+                onApplied.run();
+            }
+            return;
+        }
+        long start = System.nanoTime();
+        submittedSnapshots = snapshots;
+        final int generation = ++submissionGeneration;
+        submitting = true;
+        // The snapshots are newer than the held back changes, replaying them would count them
+        // twice.
+        deferredChanges.clear();
+
+        final List<T> oldResults = new ArrayList<>(results);
+        final int[] oldQuantities = new int[oldResults.size()];
+        for (int i = 0; i < oldQuantities.length; i++) {
+            oldQuantities[i] = itemType.quantityOf(oldResults.get(i));
+        }
+        final long prepareNanos = System.nanoTime() - start;
+
+        backgroundExecutor.execute(() -> {
+            List<T> newResults = grouping.get();
+            DiffUtil.DiffResult diff = DiffUtil.calculateDiff(
+                new Callback<>(itemType, oldResults, oldQuantities, newResults), false
+            );
+            mainThreadExecutor.execute(() -> {
+                if (generation != submissionGeneration) {
+                    return;
+                }
+                long applyStart = System.nanoTime();
+                applySubmission(newResults, diff);
+                lastSubmitMainThreadNanos = prepareNanos + System.nanoTime() - applyStart;
+                if (onApplied != null) {
+                    onApplied.run();
+                }
+            });
+        });
+    }
+
+    private boolean isSubmitted(Object[] snapshots) {
+        if (submittedSnapshots == null || submittedSnapshots.length != snapshots.length) {
+            return false;
+        }
+        for (int i = 0; i < snapshots.length; i++) {
+            if (snapshots[i] != submittedSnapshots[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Returns how long the last bulk submission kept the main thread busy, in nanoseconds.
+    // The grouping and the difference computed in the background are not included.
+    public long getLastSubmitMainThreadNanos() {
+        return lastSubmitMainThreadNanos;
+    }
+
+    private void applySubmission(List<T> newResults, DiffUtil.DiffResult diff) {
+        results = newResults;
+        positions.clear();
+        totalQuantity = 0;
+        for (int i = 0; i < newResults.size(); i++) {
+            T result = newResults.get(i);
+            positions.put(itemType.dataOf(result), i);
+            totalQuantity += itemType.quantityOf(result);
+        }
+        submitting = false;
+        diff.dispatchUpdatesTo(updates);
+
+        List<Runnable> changes = new ArrayList<>(deferredChanges);
+        deferredChanges.clear();
+        for (Runnable change : changes) {
+            change.run();
+        }
+    }
+
+    // Differences between the results shown and the results of a bulk submission, by barcode
+    // data. The old quantities are captured separately, because the shown results are updated in
+    // place.
+    static class Callback<T> extends DiffUtil.Callback {
+        private final ItemType<T> itemType;
+        private final List<T> oldResults;
+        private final int[] oldQuantities;
+        private final List<T> newResults;
+
+        Callback(
+            ItemType<T> itemType,
+            List<T> oldResults,
+            int[] oldQuantities,
+            List<T> newResults
+        ) {
+            this.itemType = itemType;
+            this.oldResults = oldResults;
+            this.oldQuantities = oldQuantities;
+            this.newResults = newResults;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldResults.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newResults.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return Objects.equals(
+                itemType.dataOf(oldResults.get(oldItemPosition)),
+                itemType.dataOf(newResults.get(newItemPosition))
+            );
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            return itemType.areContentsTheSame(
+                oldResults.get(oldItemPosition),
+                oldQuantities[oldItemPosition],
+                newResults.get(newItemPosition)
+            );
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.countingcommon;
+
+import static com.scandit.datacapture.countingcommon.TestBarcodes.barcode;
+import static com.scandit.datacapture.countingcommon.TestBarcodes.barcodes;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.scandit.datacapture.barcode.data.Barcode;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+
+public class BarcodeMultisetTest {
+
+    private final BarcodeMultiset multiset = new BarcodeMultiset();
+    private final RecordingListener listener = new RecordingListener();
+
+    @Test
+    public void syncAddsNewBarcodes() {
+        assertTrue(multiset.syncWith(barcodes("A", "B", "A"), listener));
+
+        assertEquals(3, multiset.size());
+        assertEquals(2, multiset.count("A"));
+        assertEquals(1, multiset.count("B"));
+        assertEquals(Arrays.asList("+A", "+B", "+A"), listener.events);
+    }
+
+    @Test
+    public void syncKeepsBarcodesAlreadyHeld() {
+        Barcode first = barcode("A");
+        multiset.syncWith(Collections.singletonList(first), null);
+
+        assertFalse(multiset.syncWith(barcodes("A"), listener));
+
+        List<Barcode> held = new ArrayList<>();
+        multiset.addAllTo(held);
+        assertSame(first, held.get(0));
+        assertTrue(listener.events.isEmpty());
+    }
+
+    @Test
+    public void syncDropsDataThatDisappeared() {
+        multiset.syncWith(barcodes("A", "B", "B", "C"), null);
+
+        assertTrue(multiset.syncWith(barcodes("B"), listener));
+
+        assertEquals(1, multiset.size());
+        assertEquals(0, multiset.count("A"));
+        assertEquals(1, multiset.count("B"));
+        assertEquals(Arrays.asList("-A1", "-B1", "-C1"), listener.events);
+    }
+
+    @Test
+    public void repeatedSyncsStartCountingFromZero() {
+        List<Barcode> session = barcodes("A", "A", "B");
+        for (int i = 0; i < 5; i++) {
+            multiset.syncWith(session, null);
+        }
+
+        assertEquals(3, multiset.size());
+        assertEquals(2, multiset.count("A"));
+    }
+
+    @Test
+    public void syncWithEmptyListEmptiesTheCollection() {
+        multiset.syncWith(barcodes("A", "B"), null);
+
+        assertTrue(multiset.syncWith(Collections.emptyList(), null));
+
+        assertTrue(multiset.isEmpty());
+    }
+
+    @Test
+    public void keepsDataInFirstAddedOrder() {
+        multiset.add(barcode("B"));
+        multiset.add(barcode("A"));
+        multiset.add(barcode("B"));
+
+        List<String> order = new ArrayList<>();
+        multiset.forEachGroup((data, group) -> order.add(data + group.size()));
+        assertEquals(Arrays.asList("B2", "A1"), order);
+
+        List<Barcode> held = new ArrayList<>();
+        multiset.addAllTo(held);
+        assertEquals("B", held.get(0).getData());
+        assertEquals("B", held.get(1).getData());
+        assertEquals("A", held.get(2).getData());
+    }
+
+    @Test
+    public void iteratesDataAndFindsFirstBarcode() {
+        Barcode first = barcode("B");
+        multiset.add(first);
+        multiset.add(barcode("A"));
+        multiset.add(barcode("B"));
+
+        Iterator<String> data = multiset.dataIterator();
+        assertEquals("B", data.next());
+        assertEquals("A", data.next());
+        assertFalse(data.hasNext());
+        assertSame(first, multiset.first("B"));
+        assertNull(multiset.first("C"));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void dataIteratorFailsWhenDataIsAdded() {
+        multiset.add(barcode("A"));
+        Iterator<String> data = multiset.dataIterator();
+
+        multiset.add(barcode("B"));
+        data.next();
+    }
+
+    @Test
+    public void removeAllReturnsRemovedCount() {
+        multiset.syncWith(barcodes("A", "A", "B"), null);
+
+        assertEquals(2, multiset.removeAll("A"));
+        assertEquals(0, multiset.count("A"));
+        assertEquals(0, multiset.removeAll("A"));
+        assertEquals(1, multiset.size());
+    }
+
+    private static class RecordingListener implements BarcodeMultiset.ChangeListener {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onAdded(Barcode barcode) {
+            events.add("+" + barcode.getData());
+        }
+
+        @Override
+        public void onRemoved(String data, int count) {
+            events.add("-" + data + count);
+        }
+    }
+}
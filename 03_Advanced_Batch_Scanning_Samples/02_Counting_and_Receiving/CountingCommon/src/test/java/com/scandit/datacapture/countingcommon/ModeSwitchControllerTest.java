@@ -0,0 +1,121 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.countingcommon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+public class ModeSwitchControllerTest {
+
+    private ModeSwitchController.Mode sparkScan;
+    private ModeSwitchController.Mode barcodeCount;
+    private ModeSwitchController controller;
+
+    @Before
+    public void setUp() {
+        sparkScan = mock(ModeSwitchController.Mode.class);
+        barcodeCount = mock(ModeSwitchController.Mode.class);
+        controller = new ModeSwitchController(sparkScan, barcodeCount);
+    }
+
+    @Test
+    public void switchDetachesOneModeAndAttachesTheOther() {
+        controller.switchToBarcodeCount();
+
+        InOrder order = inOrder(sparkScan, barcodeCount);
+        order.verify(sparkScan).disable();
+        order.verify(sparkScan).onPause();
+        order.verify(barcodeCount).enable();
+        assertTrue(controller.isInBarcodeCountMode());
+
+        controller.switchToSparkScan();
+
+        order.verify(barcodeCount).disable();
+        order.verify(sparkScan).enable();
+        order.verify(sparkScan).onResume();
+        assertFalse(controller.isInBarcodeCountMode());
+    }
+
+    @Test
+    public void switchToCurrentModeDoesNothing() {
+        controller.switchToSparkScan();
+
+        verifyNoInteractions(sparkScan, barcodeCount);
+        assertEquals(-1, controller.getAverageSwitchNanos());
+    }
+
+    @Test
+    public void lifecycleGoesToCurrentModeOnly() {
+        controller.onPause();
+        controller.onResume();
+        verify(sparkScan).onPause();
+        verify(sparkScan).onResume();
+        verifyNoInteractions(barcodeCount);
+
+        controller.switchToBarcodeCount();
+        controller.onPause();
+        controller.onResume();
+        verify(barcodeCount).onPause();
+        verify(barcodeCount).onResume();
+    }
+
+    // BarcodeCount is detached while SparkScan is shown, so destroying the activity must not
+    // detach it again: that would remove the SparkScan view and mode instead.
+    @Test
+    public void destroyInSparkScanModeOnlyDisablesSparkScan() {
+        controller.switchToBarcodeCount();
+        controller.switchToSparkScan();
+
+        controller.onDestroy();
+
+        // Once by the switches, once by the destroy.
+        verify(sparkScan, times(2)).disable();
+        // Only once, by the switch back to SparkScan.
+        verify(barcodeCount, times(1)).disable();
+        verify(sparkScan).release();
+        verify(barcodeCount).release();
+    }
+
+    @Test
+    public void destroyInBarcodeCountModeOnlyDisablesBarcodeCount() {
+        controller.switchToBarcodeCount();
+
+        controller.onDestroy();
+
+        verify(barcodeCount).disable();
+        // Only once, by the switch to BarcodeCount.
+        verify(sparkScan, times(1)).disable();
+        verify(sparkScan).release();
+        verify(barcodeCount).release();
+    }
+
+    @Test
+    public void averageSwitchTimeIsRecorded() {
+        controller.switchToBarcodeCount();
+        controller.switchToSparkScan();
+
+        assertTrue(controller.getAverageSwitchNanos() >= 0);
+    }
+}
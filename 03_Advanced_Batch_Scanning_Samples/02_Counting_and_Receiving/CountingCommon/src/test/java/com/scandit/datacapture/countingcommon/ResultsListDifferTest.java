@@ -0,0 +1,260 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.scandit.datacapture.countingcommon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class ResultsListDifferTest {
+
+    private static final int LIST_SIZE = 10_000;
+
+    private final RecordingUpdates updates = new RecordingUpdates();
+
+    // Tasks posted to the main thread, run when the test drains them. The background work runs
+    // right away on the calling thread.
+    private final Queue<Runnable> mainThread = new ArrayDeque<>();
+
+    private final ResultsListDiffer<Item> differ =
+        new ResultsListDiffer<>(new ItemType(), updates, Runnable::run, mainThread::add);
+
+    @Test
+    public void addCountsSameDataOnce() {
+        differ.add(new Item("A", 1));
+        differ.add(new Item("B", 1));
+        differ.add(new Item("A", 1));
+
+        assertEquals(2, differ.size());
+        assertEquals(2, differ.get(0).quantity);
+        assertEquals(3, differ.getTotalQuantity());
+        assertEquals(Arrays.asList("+0x1", "+1x1", "~0"), updates.events);
+    }
+
+    @Test
+    public void removeAtUpdatesPositions() {
+        differ.add(new Item("A", 2));
+        differ.add(new Item("B", 1));
+        differ.add(new Item("C", 1));
+        updates.events.clear();
+
+        differ.removeAt(0);
+        differ.add(new Item("C", 1));
+
+        assertEquals("B", differ.getDataAtIndex(0));
+        assertEquals(2, differ.get(1).quantity);
+        assertEquals(3, differ.getTotalQuantity());
+        assertNull(differ.getDataAtIndex(2));
+        assertEquals(Arrays.asList("-0x1", "~1"), updates.events);
+    }
+
+    @Test
+    public void submissionIsAppliedOnTheMainThread() {
+        differ.add(new Item("A", 1));
+        updates.events.clear();
+        List<Item> snapshot = items("A", "B");
+        int[] applied = {0};
+
+        differ.submit(copyOf(snapshot), () -> applied[0]++, snapshot);
+
+        assertEquals(1, differ.size());
+        assertTrue(updates.events.isEmpty());
+        drainMainThread();
+        assertEquals(2, differ.size());
+        assertEquals("B", differ.getDataAtIndex(1));
+        assertEquals(1, applied[0]);
+        assertEquals(Collections.singletonList("+1x1"), updates.events);
+    }
+
+    @Test
+    public void resubmittingSameSnapshotsIsANoOp() {
+        List<Item> snapshot = items("A");
+        differ.submit(copyOf(snapshot), null, snapshot);
+        drainMainThread();
+        int[] applied = {0};
+
+        differ.submit(() -> {
+            throw new AssertionError("grouped again");
+        }, () -> applied[0]++, snapshot);
+
+        assertEquals(1, applied[0]);
+        assertTrue(mainThread.isEmpty());
+    }
+
+    @Test
+    public void changesDuringSubmissionAreAppliedAfterIt() {
+        List<Item> snapshot = items("A");
+        differ.submit(copyOf(snapshot), null, snapshot);
+
+        differ.add(new Item("B", 1));
+        assertEquals(0, differ.size());
+        drainMainThread();
+
+        assertEquals(2, differ.size());
+        assertEquals("B", differ.getDataAtIndex(1));
+    }
+
+    @Test
+    public void newerSubmissionDropsHeldBackChanges() {
+        List<Item> first = items("A");
+        differ.submit(copyOf(first), null, first);
+        differ.add(new Item("B", 1));
+        // The newer snapshot already holds B.
+        List<Item> second = items("A", "B");
+        differ.submit(copyOf(second), null, second);
+
+        drainMainThread();
+
+        assertEquals(2, differ.size());
+        assertEquals(1, differ.get(1).quantity);
+        assertEquals(2, differ.getTotalQuantity());
+    }
+
+    @Test
+    public void clearDropsPendingSubmission() {
+        List<Item> snapshot = items("A");
+        int[] applied = {0};
+        differ.submit(copyOf(snapshot), () -> applied[0]++, snapshot);
+
+        differ.clear();
+        drainMainThread();
+
+        assertEquals(0, differ.size());
+        assertEquals(0, applied[0]);
+    }
+
+    @Test
+    public void refreshOfLargeListKeepsMainThreadShort() {
+        // Two snapshots of the same 10k items, with 1% of the quantities different.
+        List<Item> even = new ArrayList<>(LIST_SIZE);
+        List<Item> odd = new ArrayList<>(LIST_SIZE);
+        for (int i = 0; i < LIST_SIZE; i++) {
+            even.add(new Item(String.valueOf(i), 1));
+            odd.add(new Item(String.valueOf(i), i % 100 == 0 ? 2 : 1));
+        }
+        differ.submit(copyOf(even), null, even);
+        drainMainThread();
+
+        long best = Long.MAX_VALUE;
+        for (int refresh = 0; refresh < 20; refresh++) {
+            List<Item> snapshot = refresh % 2 == 0 ? odd : even;
+            updates.events.clear();
+            differ.submit(copyOf(snapshot), null, snapshot);
+            drainMainThread();
+            best = Math.min(best, differ.getLastSubmitMainThreadNanos());
+
+            // Only the changed items are reported to the list.
+            assertEquals(LIST_SIZE / 100, updates.events.size());
+        }
+
+        assertEquals(LIST_SIZE, differ.size());
+        // Well within a single frame.
+        assertTrue("took " + best + " ns", best < TimeUnit.MILLISECONDS.toNanos(8));
+    }
+
+    private void drainMainThread() {
+        Runnable task;
+        while ((task = mainThread.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static List<Item> items(String... data) {
+        List<Item> items = new ArrayList<>();
+        for (String value : data) {
+            items.add(new Item(value, 1));
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    // Groups the snapshot into new items, as the shown items are updated in place.
+    private static Supplier<List<Item>> copyOf(List<Item> snapshot) {
+        return () -> {
+            List<Item> copies = new ArrayList<>(snapshot.size());
+            for (Item item : snapshot) {
+                copies.add(new Item(item.data, item.quantity));
+            }
+            return copies;
+        };
+    }
+
+    private static class Item {
+        final String data;
+        int quantity;
+
+        Item(String data, int quantity) {
+            this.data = data;
+            this.quantity = quantity;
+        }
+    }
+
+    private static class ItemType implements ResultsListDiffer.ItemType<Item> {
+        @Override
+        public String dataOf(Item item) {
+            return item.data;
+        }
+
+        @Override
+        public int quantityOf(Item item) {
+            return item.quantity;
+        }
+
+        @Override
+        public void increaseQuantity(Item item) {
+            item.quantity++;
+        }
+
+        @Override
+        public boolean areContentsTheSame(Item oldItem, int oldQuantity, Item newItem) {
+            return oldQuantity == newItem.quantity;
+        }
+    }
+
+    private static class RecordingUpdates implements ListUpdateCallback {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onInserted(int position, int count) {
+            events.add("+" + position + "x" + count);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            events.add("-" + position + "x" + count);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            events.add(fromPosition + ">" + toPosition);
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            events.add("~" + position);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.countingcommon;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.scandit.datacapture.barcode.data.Barcode;
+import com.scandit.datacapture.barcode.data.Symbology;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Barcodes for JVM tests. The SDK creates barcodes itself, so they are mocked here.
+public final class TestBarcodes {
+
+    private TestBarcodes() {
+    }
+
+    public static Barcode barcode(String data) {
+        return barcode(data, Symbology.EAN13_UPCA);
+    }
+
+    public static Barcode barcode(String data, Symbology symbology) {
+        Barcode barcode = mock(Barcode.class);
+        when(barcode.getData()).thenReturn(data);
+        when(barcode.getSymbology()).thenReturn(symbology);
+        return barcode;
+    }
+
+    // Returns one new barcode per given data, in order.
+    public static List<Barcode> barcodes(String... data) {
+        List<Barcode> barcodes = new ArrayList<>(data.length);
+        for (String value : data) {
+            barcodes.add(barcode(value));
+        }
+        return barcodes;
+    }
+}
@@ -22,6 +22,7 @@ import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 
 import com.scandit.datacapture.core.capture.DataCaptureContext;
+import com.scandit.datacapture.countingcommon.ModeSwitchController;
 import com.scandit.datacapture.expirymanagementsample.barcodecount.BarcodeCountPresenter;
 import com.scandit.datacapture.expirymanagementsample.barcodecount.BarcodeCountPresenterView;
 import com.scandit.datacapture.expirymanagementsample.managers.BarcodeCountCameraManager;
@@ -40,8 +41,7 @@ public class MainActivity extends CameraPermissionActivity
 
     private BarcodeCountPresenter barcodeCountPresenter;
     private SparkScanPresenter sparkScanPresenter;
-
-    private boolean inBarcodeCountMode = false;
+    private ModeSwitchController modeSwitchController;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -71,29 +71,22 @@ public class MainActivity extends CameraPermissionActivity
             new SparkScanPresenter(this, dataCaptureContext, container, this);
         barcodeCountPresenter =
             new BarcodeCountPresenter(this, dataCaptureContext, container, this);
+        modeSwitchController = new ModeSwitchController(sparkScanPresenter, barcodeCountPresenter);
 
         // Enable SparkScan initially.
-        sparkScanPresenter.enableSparkScan();
+        sparkScanPresenter.enable();
     }
 
     @Override
     protected void onPause() {
-        if (inBarcodeCountMode) {
-            barcodeCountPresenter.onPause();
-        } else {
-            sparkScanPresenter.onPause();
-        }
+        modeSwitchController.onPause();
         super.onPause();
     }
 
     @Override
     protected void onResume() {
         super.onResume();
-        if (inBarcodeCountMode) {
-            barcodeCountPresenter.onResume();
-        } else {
-            sparkScanPresenter.onResume();
-        }
+        modeSwitchController.onResume();
 
         // Check for camera permission and request it, if it hasn't yet been granted.
         // Once we have the permission the onCameraPermissionGranted() method will be called.
@@ -102,8 +95,7 @@ public class MainActivity extends CameraPermissionActivity
 
     @Override
     protected void onDestroy() {
-        sparkScanPresenter.onDestroy();
-        barcodeCountPresenter.onDestroy();
+        modeSwitchController.onDestroy();
         super.onDestroy();
     }
 
@@ -117,25 +109,14 @@ public class MainActivity extends CameraPermissionActivity
         super.requestCameraPermission();
     }
 
-    @Override
-    public void runOnMainThread(Runnable action) {
-        runOnUiThread(action);
-    }
-
     @Override
     public void switchToBarcodeCount() {
-        sparkScanPresenter.disableSparkScan();
-        sparkScanPresenter.onPause();
-        barcodeCountPresenter.enableBarcodeCount();
-        inBarcodeCountMode = true;
+        modeSwitchController.switchToBarcodeCount();
     }
 
     @Override
     public void switchToSparkScan() {
-        barcodeCountPresenter.disableBarcodeCount();
-        sparkScanPresenter.enableSparkScan();
-        sparkScanPresenter.onResume();
-        inBarcodeCountMode = false;
+        modeSwitchController.switchToSparkScan();
     }
 
     @Override
@@ -30,13 +30,18 @@ import com.scandit.datacapture.barcode.data.Barcode;
 import com.scandit.datacapture.barcode.data.Symbology;
 import com.scandit.datacapture.core.capture.DataCaptureContext;
 import com.scandit.datacapture.core.data.FrameData;
+import com.scandit.datacapture.countingcommon.ModeSwitchController;
 import com.scandit.datacapture.expirymanagementsample.managers.BarcodeCountCameraManager;
 import com.scandit.datacapture.expirymanagementsample.managers.BarcodeManager;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 
-public class BarcodeCountPresenter implements BarcodeCountListener, BarcodeCountViewUiListener {
+public class BarcodeCountPresenter implements
+    BarcodeCountListener,
+    BarcodeCountViewUiListener,
+    ModeSwitchController.Mode {
 
     private final Context context;
     private final DataCaptureContext dataCaptureContext;
@@ -45,6 +50,10 @@ public class BarcodeCountPresenter implements BarcodeCountListener, BarcodeCount
 
     private BarcodeCount barcodeCount;
     private BarcodeCountView barcodeCountView;
+    private StatusProvider statusProvider;
+
+    // The barcodes last set as additional barcodes of the BarcodeCount session.
+    private final List<Barcode> additionalBarcodes = new ArrayList<>();
 
     private boolean navigatingInternally = false;
 
@@ -94,23 +103,36 @@ public class BarcodeCountPresenter implements BarcodeCountListener, BarcodeCount
         barcodeCountView.setShouldShowStatusIconsOnScan(true);
 
         // Set a status provider for the status mode.
-        barcodeCountView.setStatusProvider(new StatusProvider(context));
+        statusProvider = new StatusProvider(context);
+        barcodeCountView.setStatusProvider(statusProvider);
     }
 
-    public void disableBarcodeCount() {
+    @Override
+    public void disable() {
+        if (barcodeCount == null) {
+            return;
+        }
+
         // When disabling BarcodeCount before switching to SparkScan,
         // remove all views from the container, all listeners,
         // and detach the mode from the context.
+        // The mode and its view are kept, so that switching back only attaches them again.
         container.removeAllViews();
         barcodeCountView.setUiListener(null);
         barcodeCount.removeListener(this);
         dataCaptureContext.removeCurrentMode();
 
-        release();
+        // Drop any status request still in flight while the view is detached.
+        statusProvider.cancel();
     }
 
-    public void enableBarcodeCount() {
-        initialize();
+    @Override
+    public void enable() {
+        // The mode and its view are only created the first time BarcodeCount is enabled.
+        boolean created = barcodeCount == null;
+        if (created) {
+            initialize();
+        }
 
         // Reset camera settings to the default settings for BarcodeCount.
         BarcodeCountCameraManager.getInstance().resetDefaultSettings();
@@ -130,24 +152,38 @@ public class BarcodeCountPresenter implements BarcodeCountListener, BarcodeCount
         // Register self as a listener to get informed of UI events.
         barcodeCountView.setUiListener(this);
 
-        // Load already scanned barcodes into the session as additional barcodes.
-        loadAllBarcodesAsAdditionalBarcodes();
+        // Load the barcodes scanned while BarcodeCount was detached into the session as additional
+        // barcodes. A new session gets all the barcodes scanned so far.
+        if (created) {
+            loadAllBarcodesAsAdditionalBarcodes();
+        } else {
+            loadSavedBarcodesAsAdditionalBarcodes();
+        }
 
         // Add the BarcodeCountView to the container.
         container.addView(barcodeCountView);
     }
 
-    private void release() {
+    @Override
+    public void release() {
+        // Drop any status request still in flight for the released view.
+        if (statusProvider != null) {
+            statusProvider.cancel();
+            statusProvider = null;
+        }
         barcodeCountView = null;
         barcodeCount = null;
     }
 
     public void resetSession() {
         BarcodeManager.getInstance().reset();
+        BarcodeManager.getInstance().takeSavedBarcodes();
+        additionalBarcodes.clear();
         barcodeCount.clearAdditionalBarcodes();
         barcodeCount.reset();
     }
 
+    @Override
     public void onPause() {
         // Pause camera if the app is going to background,
         // but keep it on if it goes to result screen.
@@ -160,6 +196,7 @@ public class BarcodeCountPresenter implements BarcodeCountListener, BarcodeCount
         barcodeCount.removeListener(this);
     }
 
+    @Override
     public void onResume() {
         // Load already scanned barcodes into the session as additional barcodes.
         if (!navigatingInternally) {
@@ -175,18 +212,24 @@ public class BarcodeCountPresenter implements BarcodeCountListener, BarcodeCount
     }
 
     private void loadAllBarcodesAsAdditionalBarcodes() {
-        List<Barcode> allBarcodes = BarcodeManager.getInstance().getAllBarcodes();
-        barcodeCount.setAdditionalBarcodes(allBarcodes);
-    }
-
-    public void onDestroy() {
-        cleanupBarcodeCount();
+        // Everything saved so far is part of the full list, so there is nothing left to take.
+        BarcodeManager.getInstance().takeSavedBarcodes();
+        additionalBarcodes.clear();
+        additionalBarcodes.addAll(BarcodeManager.getInstance().getAllBarcodes());
+        barcodeCount.setAdditionalBarcodes(additionalBarcodes);
     }
 
-    public void cleanupBarcodeCount() {
-        disableBarcodeCount();
-        barcodeCountView = null;
-        barcodeCount = null;
+    // Add the barcodes saved since the last switch to the additional barcodes of the session.
+    // If barcodes were removed in the meantime, the session is reloaded from scratch instead.
+    private void loadSavedBarcodesAsAdditionalBarcodes() {
+        List<Barcode> savedBarcodes = BarcodeManager.getInstance().takeSavedBarcodes();
+        if (savedBarcodes == null) {
+            barcodeCount.reset();
+            loadAllBarcodesAsAdditionalBarcodes();
+        } else if (!savedBarcodes.isEmpty()) {
+            additionalBarcodes.addAll(savedBarcodes);
+            barcodeCount.setAdditionalBarcodes(additionalBarcodes);
+        }
     }
 
     @Override
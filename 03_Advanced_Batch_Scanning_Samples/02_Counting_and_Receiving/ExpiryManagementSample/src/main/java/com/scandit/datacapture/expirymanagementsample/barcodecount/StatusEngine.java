@@ -0,0 +1,195 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.expirymanagementsample.barcodecount;
+
+import com.scandit.datacapture.expirymanagementsample.rules.ExpiryStatus;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Computes the expiry status of barcodes, off the main thread.
+// Large lists are split across cores, and a request is dropped as soon as a newer one comes in.
+// Every request ends exactly once: either its statuses are computed or it is dropped.
+public class StatusEngine {
+
+    // Decides the expiry status of barcode data. Called concurrently from several threads.
+    public interface ExpiryEvaluator {
+        ExpiryStatus getExpiryStatus(String data);
+    }
+
+    // Receives the outcome of a request.
+    public interface Listener {
+        // statuses[i] is the status of data.get(i). Called on a worker thread.
+        void onStatusComputed(ExpiryStatus[] statuses);
+
+        // The request was superseded by a newer one or cancelled before its statuses were
+        // computed. Called on the thread that superseded or cancelled it.
+        void onStatusDropped();
+    }
+
+    // Lists at most this long are evaluated by a single task.
+    private static final int SPLIT_THRESHOLD = 64;
+
+    // Shared by all engines, so switching modes doesn't create new threads.
+    private static final ForkJoinPool evaluationPool = new ForkJoinPool(
+        Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()))
+    );
+    private static final ScheduledExecutorService scheduler =
+        Executors.newSingleThreadScheduledExecutor();
+
+    private final ExpiryEvaluator evaluator;
+
+    private final AtomicLong latestRequest = new AtomicLong();
+
+    // The latest request, until it is superseded or cancelled. Guarded by this.
+    private Request pendingRequest;
+
+    private volatile long lastComputationNanos = -1;
+
+    public StatusEngine(ExpiryEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    // Evaluates the given data after the given delay, dropping any request still in flight.
+    public void request(List<String> data, long delayMillis, Listener listener) {
+        Request dropped;
+        synchronized (this) {
+            dropped = pendingRequest;
+            Request request = new Request(latestRequest.incrementAndGet(), listener);
+            request.future = scheduler.schedule(
+                () -> evaluationPool.execute(() -> compute(request, data)),
+                delayMillis,
+                TimeUnit.MILLISECONDS
+            );
+            pendingRequest = request;
+        }
+        drop(dropped);
+    }
+
+    // Drops the request in flight, if any.
+    public void cancel() {
+        Request dropped;
+        synchronized (this) {
+            latestRequest.incrementAndGet();
+            dropped = pendingRequest;
+            pendingRequest = null;
+        }
+        drop(dropped);
+    }
+
+    // Returns how long the last completed evaluation took, in nanoseconds, or -1 if none did.
+    public long getLastComputationNanos() {
+        return lastComputationNanos;
+    }
+
+    // Evaluates the data on the calling thread, splitting large lists across the pool.
+    // Returns null if the request was superseded in the meantime.
+    ExpiryStatus[] evaluate(long requestId, List<String> data) {
+        ExpiryStatus[] statuses = new ExpiryStatus[data.size()];
+        new EvaluateTask(requestId, data, statuses, 0, data.size()).invoke();
+        return isCurrent(requestId) ? statuses : null;
+    }
+
+    private void compute(Request request, List<String> data) {
+        if (!isCurrent(request.id)) {
+            return;
+        }
+        long start = System.nanoTime();
+        ExpiryStatus[] statuses = evaluate(request.id, data);
+        if (statuses == null || !request.finish()) {
+            // Superseded or cancelled in the meantime, and told so by drop().
+            return;
+        }
+        lastComputationNanos = System.nanoTime() - start;
+        request.listener.onStatusComputed(statuses);
+    }
+
+    private static void drop(Request request) {
+        if (request == null) {
+            return;
+        }
+        request.future.cancel(false);
+        if (request.finish()) {
+            request.listener.onStatusDropped();
+        }
+    }
+
+    private boolean isCurrent(long requestId) {
+        return latestRequest.get() == requestId;
+    }
+
+    private static class Request {
+        final long id;
+        final Listener listener;
+        final AtomicBoolean finished = new AtomicBoolean();
+        ScheduledFuture<?> future;
+
+        Request(long id, Listener listener) {
+            this.id = id;
+            this.listener = listener;
+        }
+
+        // Returns true for the first caller only, which then tells the listener.
+        boolean finish() {
+            return finished.compareAndSet(false, true);
+        }
+    }
+
+    private class EvaluateTask extends RecursiveAction {
+        private final long requestId;
+        private final List<String> data;
+        private final ExpiryStatus[] statuses;
+        private final int from;
+        private final int to;
+
+        EvaluateTask(
+            long requestId, List<String> data, ExpiryStatus[] statuses, int from, int to
+        ) {
+            this.requestId = requestId;
+            this.data = data;
+            this.statuses = statuses;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (!isCurrent(requestId)) {
+                return;
+            }
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    String barcodeData = data.get(i);
+                    statuses[i] = barcodeData != null
+                        ? evaluator.getExpiryStatus(barcodeData)
+                        : ExpiryStatus.NONE;
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                new EvaluateTask(requestId, data, statuses, from, middle),
+                new EvaluateTask(requestId, data, statuses, middle, to)
+            );
+        }
+    }
+}
@@ -16,6 +16,7 @@ package com.scandit.datacapture.expirymanagementsample.barcodecount;
 
 import android.content.Context;
 import android.os.Handler;
+import android.os.Looper;
 
 import androidx.annotation.NonNull;
 
@@ -24,10 +25,12 @@ import com.scandit.datacapture.barcode.count.ui.view.status.BarcodeCountStatusIt
 import com.scandit.datacapture.barcode.count.ui.view.status.BarcodeCountStatusProvider;
 import com.scandit.datacapture.barcode.count.ui.view.status.BarcodeCountStatusProviderCallback;
 import com.scandit.datacapture.barcode.count.ui.view.status.BarcodeCountStatusResult;
+import com.scandit.datacapture.barcode.count.ui.view.status.BarcodeCountStatusResultAbort;
 import com.scandit.datacapture.barcode.count.ui.view.status.BarcodeCountStatusResultSuccess;
 import com.scandit.datacapture.barcode.batch.data.TrackedBarcode;
 import com.scandit.datacapture.expirymanagementsample.R;
 import com.scandit.datacapture.expirymanagementsample.managers.BarcodeManager;
+import com.scandit.datacapture.expirymanagementsample.rules.ExpiryStatus;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -36,14 +39,20 @@ public class StatusProvider implements BarcodeCountStatusProvider {
 
     private static final long STATUS_DELAY = 500L;
 
-    private final Handler handler = new Handler();
+    private final Handler handler = new Handler(Looper.getMainLooper());
 
     private final String modeEnableMessage;
     private final String modeDisableMessage;
+    private final String requestAbortedMessage;
+
+    // Evaluates the expiry status of the barcodes off the main thread.
+    private final StatusEngine statusEngine =
+        new StatusEngine(BarcodeManager.getInstance()::getExpiryStatus);
 
     public StatusProvider(Context context) {
         this.modeEnableMessage = context.getString(R.string.status_mode_enable_message);
         this.modeDisableMessage = context.getString(R.string.status_mode_disable_message);
+        this.requestAbortedMessage = context.getString(R.string.status_request_aborted_message);
     }
 
     @Override
@@ -51,40 +60,62 @@ public class StatusProvider implements BarcodeCountStatusProvider {
         @NonNull List<TrackedBarcode> barcodes,
         @NonNull BarcodeCountStatusProviderCallback callback
     ) {
-        new Thread(new Runnable() {
+        List<String> data = new ArrayList<>(barcodes.size());
+        for (TrackedBarcode barcode : barcodes) {
+            data.add(barcode.getBarcode().getData());
+        }
+
+        // Add a delay to simulate fetching the data. A newer request replaces this one.
+        statusEngine.request(data, STATUS_DELAY, new StatusEngine.Listener() {
             @Override
-            public void run() {
-                try {
-                    // Add a delay to simulate fetching the data
-                    Thread.sleep(STATUS_DELAY);
-
-                    handler.post(new Runnable() {
-                        @Override
-                        public void run() {
-                            // If we have information that the item is expired
-                            // add a BarcodeCountStatusItem with status EXPIRED to the result.
-                            List<BarcodeCountStatusItem> statusList = new ArrayList<>();
-                            for (TrackedBarcode barcode : barcodes) {
-                                boolean isExpired = BarcodeManager.getInstance()
-                                    .isBarcodeDataExpired(barcode.getBarcode().getData());
-                                statusList.add(BarcodeCountStatusItem.create(
-                                    barcode,
-                                    isExpired ? BarcodeCountStatus.EXPIRED : BarcodeCountStatus.NONE
-                                ));
-                            }
-
-                            BarcodeCountStatusResult result = BarcodeCountStatusResultSuccess.create(
-                                statusList,
-                                modeEnableMessage,
-                                modeDisableMessage
-                            );
-                            callback.onStatusReady(result);
-                        }
-                    });
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
+            public void onStatusComputed(ExpiryStatus[] statuses) {
+                // If we have information that the item is expired or close to expiry
+                // add a BarcodeCountStatusItem with status EXPIRED or EXPIRING_SOON to the result.
+                List<BarcodeCountStatusItem> statusList = new ArrayList<>(barcodes.size());
+                for (int i = 0; i < barcodes.size(); i++) {
+                    statusList.add(BarcodeCountStatusItem.create(
+                        barcodes.get(i), toBarcodeCountStatus(statuses[i])
+                    ));
                 }
+
+                BarcodeCountStatusResult result = BarcodeCountStatusResultSuccess.create(
+                    statusList,
+                    modeEnableMessage,
+                    modeDisableMessage
+                );
+
+                // Only hand the result over on the main thread.
+                handler.post(() -> callback.onStatusReady(result));
+            }
+
+            @Override
+            public void onStatusDropped() {
+                // BarcodeCount waits for an answer to every request, so abort this one.
+                handler.post(() -> callback.onStatusReady(
+                    BarcodeCountStatusResultAbort.create(requestAbortedMessage)
+                ));
             }
-        }).start();
+        });
+    }
+
+    private static BarcodeCountStatus toBarcodeCountStatus(ExpiryStatus status) {
+        switch (status) {
+            case EXPIRED:
+                return BarcodeCountStatus.EXPIRED;
+            case NEAR_EXPIRY:
+                return BarcodeCountStatus.EXPIRING_SOON;
+            default:
+                return BarcodeCountStatus.NONE;
+        }
+    }
+
+    // Returns how long the last status evaluation took, in nanoseconds, or -1 if none did.
+    public long getLastComputationNanos() {
+        return statusEngine.getLastComputationNanos();
+    }
+
+    // Drops the status request in flight, if any. Its callback receives an abort result.
+    public void cancel() {
+        statusEngine.cancel();
     }
 }
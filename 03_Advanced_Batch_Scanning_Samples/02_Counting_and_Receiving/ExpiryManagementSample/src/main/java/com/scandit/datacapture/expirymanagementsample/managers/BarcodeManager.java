@@ -17,20 +17,29 @@ package com.scandit.datacapture.expirymanagementsample.managers;
 import com.scandit.datacapture.barcode.count.capture.BarcodeCountSession;
 import com.scandit.datacapture.barcode.data.Barcode;
 import com.scandit.datacapture.core.capture.DataCaptureContext;
+import com.scandit.datacapture.countingcommon.BarcodeMultiset;
+import com.scandit.datacapture.expirymanagementsample.rules.ExpiryPolicy;
+import com.scandit.datacapture.expirymanagementsample.rules.ExpiryRuleEngine;
+import com.scandit.datacapture.expirymanagementsample.rules.ExpiryStatus;
+import com.scandit.datacapture.expirymanagementsample.rules.ExpiryThresholds;
 import com.scandit.datacapture.parser.ParsedData;
+import com.scandit.datacapture.parser.ParsedField;
 import com.scandit.datacapture.parser.Parser;
 import com.scandit.datacapture.parser.ParserDataFormat;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 // Singleton object that centralises barcode management.
 public class BarcodeManager {
 
+    // Number of barcode data whose expiry date is remembered.
+    private static final int EXPIRY_CACHE_CAPACITY = 1024;
+
     // Shared instance in singleton should only be available through getInstance() method.
     private static BarcodeManager sharedInstance = null;
 
@@ -42,77 +51,140 @@ public class BarcodeManager {
         return sharedInstance;
     }
 
-    private final ArrayList<Barcode> scannedBarcodes = new ArrayList<>();
-    private final ArrayList<Barcode> additionalBarcodes = new ArrayList<>();
+    private final BarcodeMultiset scannedBarcodes = new BarcodeMultiset();
+    private final BarcodeMultiset additionalBarcodes = new BarcodeMultiset();
+
+    // Read-only view of all barcodes, rebuilt on demand after a change.
+    private List<Barcode> allBarcodes = Collections.emptyList();
+    private boolean allBarcodesStale = false;
+
+    // Barcodes saved one by one since they were last taken, and whether any barcode was removed
+    // in the meantime, so that BarcodeCount can pick up only what changed while it was detached.
+    private final List<Barcode> savedSinceTaken = new ArrayList<>();
+    private boolean removedSinceTaken = false;
 
     private Parser parser;
-    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+    private ExpiryRuleEngine expiryRuleEngine;
+    private ExpiryDateCache expiryDateCache;
 
     private BarcodeManager() {
     }
 
     public void initialize(DataCaptureContext dataCaptureContext) {
         this.parser = Parser.forFormat(dataCaptureContext, ParserDataFormat.GS1_AI);
+
+        // By default a product is expired from its expiry date on. Add rules for the GTINs or
+        // GS1 company prefixes that follow other policies, for example:
+        //   .addRule("40123", new ExpiryPolicy(3, 0))     // dairy: sell-by minus 3 days
+        //   .addRule("0312345", new ExpiryPolicy(0, 30))  // pharma: close to expiry for 30 days
+        this.expiryRuleEngine = new ExpiryRuleEngine.Builder()
+            .setDefaultPolicy(ExpiryPolicy.DEFAULT)
+            .build();
+        this.expiryDateCache = new ExpiryDateCache(EXPIRY_CACHE_CAPACITY, this::resolveExpiry);
     }
 
-    // Use the G1 parser to check if the barcode is expired.
+    // Check if the barcode is expired. The expiry of each barcode data is resolved once and
+    // then served from the cache.
     public boolean isBarcodeDataExpired(String data) {
+        return getExpiryStatus(data) == ExpiryStatus.EXPIRED;
+    }
+
+    // Returns whether the barcode is expired or close to expiry, according to its policy.
+    public ExpiryStatus getExpiryStatus(String data) {
+        if (expiryDateCache == null || data == null) {
+            return ExpiryStatus.NONE;
+        }
+        return expiryDateCache.getStatus(data);
+    }
+
+    // Use the GS1 parser to read the GTIN (AI 01) and expiry date (AI 17) of the barcode data,
+    // and apply the policy that matches the GTIN.
+    private ExpiryThresholds resolveExpiry(String data) {
         try {
-            ParsedData parsedData = parser.parseString(data);
-            Map<String, Integer> expiryDate =
-                (Map<String, Integer>) parsedData.getFieldsByName().get("17").getParsed();
+            ParsedData parsedData;
+            synchronized (parser) {
+                parsedData = parser.parseString(data);
+            }
+            Map<String, ParsedField> fields = parsedData.getFieldsByName();
+            Map<String, Integer> expiryDate = (Map<String, Integer>) fields.get("17").getParsed();
             int year = expiryDate.get("year");
             int month = expiryDate.get("month");
             int day = expiryDate.get("day");
-            Date expirationDate = dateFormat.parse(String.format("%d-%d-%d", year, month, day));
-            Date today = new Date();
-            return today.compareTo(expirationDate) > 0;
-        } catch (RuntimeException | ParseException e) {
-            return false;
+
+            // In GS1, a day of 00 stands for the last day of the month.
+            LocalDate expirationDate = day == 0
+                ? YearMonth.of(year, month).atEndOfMonth()
+                : LocalDate.of(year, month, day);
+
+            ParsedField gtinField = fields.get("01");
+            String gtin = gtinField != null ? gtinField.getRawString() : null;
+            return expiryRuleEngine.thresholdsFor(gtin, (int) expirationDate.toEpochDay());
+        } catch (RuntimeException e) {
+            return ExpiryThresholds.NEVER;
         }
     }
 
     // Adds a single scanned barcode to the list.
-    public void saveBarcode(Barcode barcode) {
+    public synchronized void saveBarcode(Barcode barcode) {
         scannedBarcodes.add(barcode);
+        savedSinceTaken.add(barcode);
+        allBarcodesStale = true;
     }
 
     // Update lists of barcodes with the contents of the current session.
-    public void updateWithSession(BarcodeCountSession session) {
-        scannedBarcodes.clear();
-        scannedBarcodes.addAll(session.getRecognizedBarcodes());
-
-        additionalBarcodes.clear();
-        additionalBarcodes.addAll(session.getAdditionalBarcodes());
+    // Only the barcodes that were added or removed since the last update are applied.
+    public synchronized void updateWithSession(BarcodeCountSession session) {
+        boolean scannedChanged =
+            scannedBarcodes.syncWith(session.getRecognizedBarcodes(), null);
+        boolean additionalChanged =
+            additionalBarcodes.syncWith(session.getAdditionalBarcodes(), null);
+        if (scannedChanged || additionalChanged) {
+            allBarcodesStale = true;
+        }
     }
 
-    // Returns all scanned barcodes.
-    public List<Barcode> getAllBarcodes() {
-        List<Barcode> allBarcodes = new ArrayList<>();
-        allBarcodes.addAll(scannedBarcodes);
-        allBarcodes.addAll(additionalBarcodes);
+    // Returns an immutable snapshot of all scanned barcodes. The same snapshot is returned until
+    // the barcodes change, so callers can skip work when they get the snapshot they already have.
+    public synchronized List<Barcode> getAllBarcodes() {
+        if (allBarcodesStale) {
+            List<Barcode> barcodes =
+                new ArrayList<>(scannedBarcodes.size() + additionalBarcodes.size());
+            scannedBarcodes.addAllTo(barcodes);
+            additionalBarcodes.addAllTo(barcodes);
+            allBarcodes = Collections.unmodifiableList(barcodes);
+            allBarcodesStale = false;
+        }
         return allBarcodes;
     }
 
+    // Returns the barcodes saved through saveBarcode() since the last call, or null if barcodes
+    // were removed in the meantime and the whole list has to be reloaded instead.
+    public synchronized List<Barcode> takeSavedBarcodes() {
+        List<Barcode> saved = removedSinceTaken ? null : new ArrayList<>(savedSinceTaken);
+        savedSinceTaken.clear();
+        removedSinceTaken = false;
+        return saved;
+    }
+
     // Reset the barcodes lists.
-    public void reset() {
+    public synchronized void reset() {
         scannedBarcodes.clear();
         additionalBarcodes.clear();
+        allBarcodesStale = true;
+        savedSinceTaken.clear();
+        removedSinceTaken = true;
     }
 
     // Remove all instances of a barcode from the list.
-    public void removeBarcodesWithData(String data) {
-        removeBarcodesFromArray(scannedBarcodes, data);
-        removeBarcodesFromArray(additionalBarcodes, data);
+    public synchronized void removeBarcodesWithData(String data) {
+        removeBarcodesFrom(scannedBarcodes, data);
+        removeBarcodesFrom(additionalBarcodes, data);
     }
 
-    private void removeBarcodesFromArray(ArrayList<Barcode> list, String data) {
-        ArrayList<Barcode> barcodesToRemove = new ArrayList<>();
-        for (Barcode barcode : list) {
-            if (barcode.getData() != null && barcode.getData().equals(data)) {
-                barcodesToRemove.add(barcode);
-            }
+    private void removeBarcodesFrom(BarcodeMultiset barcodes, String data) {
+        if (barcodes.removeAll(data) > 0) {
+            allBarcodesStale = true;
+            removedSinceTaken = true;
         }
-        list.removeAll(barcodesToRemove);
     }
 }
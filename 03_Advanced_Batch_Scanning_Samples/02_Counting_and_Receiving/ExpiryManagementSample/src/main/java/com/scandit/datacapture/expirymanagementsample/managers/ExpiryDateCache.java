@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.expirymanagementsample.managers;
+
+import com.scandit.datacapture.expirymanagementsample.rules.ExpiryStatus;
+import com.scandit.datacapture.expirymanagementsample.rules.ExpiryThresholds;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Remembers the expiry thresholds of recently seen barcode data, so that checking the expiry
+// status of a barcode doesn't parse its data or look up its policy again.
+// Thresholds are kept as epoch days, and today's epoch day is only recomputed after midnight, so
+// checking a barcode that is already in the cache doesn't allocate.
+public class ExpiryDateCache {
+
+    // Computes the expiry thresholds of barcode data.
+    public interface ExpiryResolver {
+        // Returns the thresholds, or ExpiryThresholds.NEVER if the data has no expiry date.
+        ExpiryThresholds resolve(String data);
+    }
+
+    private final ExpiryResolver resolver;
+    private final LruMap thresholds;
+
+    private int todayEpochDay;
+    private long nextMidnightMillis = Long.MIN_VALUE;
+
+    public ExpiryDateCache(int capacity, ExpiryResolver resolver) {
+        this.resolver = resolver;
+        this.thresholds = new LruMap(capacity);
+    }
+
+    // Returns whether the barcode data is expired today.
+    public boolean isExpired(String data) {
+        return getStatus(data) == ExpiryStatus.EXPIRED;
+    }
+
+    // Returns the expiry status of the barcode data today.
+    public ExpiryStatus getStatus(String data) {
+        return getThresholds(data).statusOn(getTodayEpochDay());
+    }
+
+    public ExpiryThresholds getThresholds(String data) {
+        synchronized (thresholds) {
+            ExpiryThresholds cached = thresholds.get(data);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Resolve outside of the lock, so that cache hits from other threads aren't held up.
+        ExpiryThresholds resolved = resolver.resolve(data);
+        synchronized (thresholds) {
+            thresholds.put(data, resolved);
+        }
+        return resolved;
+    }
+
+    public void clear() {
+        synchronized (thresholds) {
+            thresholds.clear();
+        }
+    }
+
+    private synchronized int getTodayEpochDay() {
+        long now = System.currentTimeMillis();
+        if (now >= nextMidnightMillis) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate today = LocalDate.now(zone);
+            todayEpochDay = (int) today.toEpochDay();
+            nextMidnightMillis =
+                today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+        return todayEpochDay;
+    }
+
+    // Map evicting the least recently accessed entry once it holds more than its capacity.
+    private static class LruMap extends LinkedHashMap<String, ExpiryThresholds> {
+        private final int capacity;
+
+        LruMap(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ExpiryThresholds> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -21,17 +21,21 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.scandit.datacapture.barcode.data.Barcode;
+import com.scandit.datacapture.countingcommon.ResultsListDiffer;
 import com.scandit.datacapture.expirymanagementsample.R;
 import com.scandit.datacapture.expirymanagementsample.data.ScanResult;
+import com.scandit.datacapture.expirymanagementsample.managers.BarcodeManager;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class ResultListAdapter extends RecyclerView.Adapter<ResultListAdapter.ViewHolder> {
 
-    private final List<ScanResult> results = new ArrayList<>();
+    private final ResultsListDiffer<ScanResult> results =
+        new ResultsListDiffer<>(ResultsDiff.ITEM_TYPE, new AdapterListUpdateCallback(this));
 
     @NonNull
     @Override
@@ -57,50 +61,43 @@ public class ResultListAdapter extends RecyclerView.Adapter<ResultListAdapter.Vi
     }
 
     public int getTotalBarcodeCount() {
-        int count = 0;
-        for (ScanResult result : results) {
-            count += result.quantity;
-        }
-        return count;
+        return results.getTotalQuantity();
     }
 
     public void addResult(ScanResult result) {
-        int index = getIndexForAlreadyScannedResult(result);
-        if (index == -1) {
-            results.add(result);
-            notifyItemInserted(getItemCount() - 1);
-        } else {
-            results.get(index).increaseQuantity();
-            notifyItemChanged(index);
-        }
+        results.add(result);
     }
 
     public String getDataAtIndex(int index) {
-        if (index < results.size()) {
-            return results.get(index).barcodeData;
-        }
-        return null;
+        return results.getDataAtIndex(index);
     }
 
     public void removeResultAtIndex(int index) {
-        if (index < results.size()) {
-            results.remove(index);
-            notifyItemRemoved(index);
-        }
-    }
-
-    private int getIndexForAlreadyScannedResult(ScanResult result) {
-        for (int i = 0; i < results.size(); i++) {
-            if (results.get(i).barcodeData.equals(result.barcodeData)) {
-                return i;
-            }
-        }
-        return -1;
+        results.removeAt(index);
     }
 
     public void clearResults() {
         results.clear();
-        notifyDataSetChanged();
+    }
+
+    // Replace the whole list with the given barcodes, grouped by data. The barcodes must be an
+    // immutable snapshot, as returned by BarcodeManager.getAllBarcodes().
+    // The grouping, the expiry check and the difference with the current list are computed off
+    // the main thread, then applied in a single pass. onApplied is called on the main thread once
+    // the list is updated, unless the list was cleared or resubmitted in the meantime.
+    public void submitAll(List<Barcode> barcodes, Runnable onApplied) {
+        results.submit(
+            () -> ResultsDiff.groupByData(
+                barcodes, BarcodeManager.getInstance()::isBarcodeDataExpired
+            ),
+            onApplied,
+            barcodes
+        );
+    }
+
+    // Returns how long the last bulk submission kept the main thread busy, in nanoseconds.
+    public long getLastSubmitMainThreadNanos() {
+        return results.getLastSubmitMainThreadNanos();
     }
 
     public static class ViewHolder extends RecyclerView.ViewHolder {
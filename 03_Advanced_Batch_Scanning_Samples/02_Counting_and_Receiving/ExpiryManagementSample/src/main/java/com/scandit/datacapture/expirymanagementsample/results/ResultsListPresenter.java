@@ -174,11 +174,9 @@ public class ResultsListPresenter {
     }
 
     // Get latest contests of the BarcodeManager and refresh the whole recycler view with them.
+    // The new list is computed in the background and only the differences are applied.
     public void refresh() {
-        clearList();
         List<Barcode> barcodes = BarcodeManager.getInstance().getAllBarcodes();
-        for (Barcode barcode : barcodes) {
-            addToList(barcode);
-        }
+        resultListAdapter.submitAll(barcodes, this::updateListItemCount);
     }
 }
@@ -0,0 +1,45 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.expirymanagementsample.rules;
+
+// Describes when products are considered expired or close to expiry, relative to the expiry date
+// printed on them (GS1 AI 17).
+public final class ExpiryPolicy {
+
+    // Products are expired from their expiry date on, and never reported as close to expiry.
+    public static final ExpiryPolicy DEFAULT = new ExpiryPolicy(0, 0);
+
+    // How many days before the expiry date the product must leave the shelf, e.g. the
+    // "sell-by minus N days" rule for dairy.
+    public final int sellByOffsetDays;
+
+    // How many days before it must leave the shelf the product is reported as close to expiry,
+    // e.g. the "close to expiry" window for pharma.
+    public final int nearExpiryWindowDays;
+
+    public ExpiryPolicy(int sellByOffsetDays, int nearExpiryWindowDays) {
+        if (sellByOffsetDays < 0 || nearExpiryWindowDays < 0) {
+            throw new IllegalArgumentException("Policy offsets can't be negative");
+        }
+        this.sellByOffsetDays = sellByOffsetDays;
+        this.nearExpiryWindowDays = nearExpiryWindowDays;
+    }
+
+    // Applies the policy to an expiry date.
+    public ExpiryThresholds thresholdsFor(int expiryEpochDay) {
+        int expiredFrom = expiryEpochDay - sellByOffsetDays;
+        return new ExpiryThresholds(expiredFrom - nearExpiryWindowDays, expiredFrom);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.expirymanagementsample.rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Finds the expiry policy that applies to a GTIN.
+// Rules are keyed by a digit prefix, either a full GTIN or a GS1 company prefix, and the rule
+// with the longest matching prefix wins. The rules are compiled into a digit trie stored in flat
+// arrays, so a lookup walks at most one node per digit of the GTIN and doesn't allocate.
+public final class ExpiryRuleEngine {
+
+    private static final int RADIX = 10;
+    private static final int NO_CHILD = 0;
+
+    // children[node * RADIX + digit] is the index of the child node, or NO_CHILD.
+    // The root is node 0, which is never a child.
+    private final int[] children;
+
+    // The policy of the rule ending at each node, or null.
+    private final ExpiryPolicy[] policies;
+
+    private final ExpiryPolicy defaultPolicy;
+
+    private ExpiryRuleEngine(int[] children, ExpiryPolicy[] policies, ExpiryPolicy defaultPolicy) {
+        this.children = children;
+        this.policies = policies;
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    // Returns the policy of the longest rule prefix matching the GTIN, or the default policy.
+    public ExpiryPolicy policyFor(String gtin) {
+        if (gtin == null) {
+            return defaultPolicy;
+        }
+        ExpiryPolicy match = policies[0] != null ? policies[0] : defaultPolicy;
+        int node = 0;
+        for (int i = 0; i < gtin.length(); i++) {
+            int digit = gtin.charAt(i) - '0';
+            if (digit < 0 || digit >= RADIX) {
+                break;
+            }
+            node = children[node * RADIX + digit];
+            if (node == NO_CHILD) {
+                break;
+            }
+            if (policies[node] != null) {
+                match = policies[node];
+            }
+        }
+        return match;
+    }
+
+    // Returns the thresholds for a product with the given GTIN and expiry date.
+    public ExpiryThresholds thresholdsFor(String gtin, int expiryEpochDay) {
+        return policyFor(gtin).thresholdsFor(expiryEpochDay);
+    }
+
+    public static class Builder {
+        private final List<String> prefixes = new ArrayList<>();
+        private final List<ExpiryPolicy> prefixPolicies = new ArrayList<>();
+        private ExpiryPolicy defaultPolicy = ExpiryPolicy.DEFAULT;
+
+        // Sets the policy used when no rule matches.
+        public Builder setDefaultPolicy(ExpiryPolicy policy) {
+            defaultPolicy = policy;
+            return this;
+        }
+
+        // Adds a rule for all GTINs starting with the given digits. A later rule for the same
+        // prefix replaces the earlier one.
+        public Builder addRule(String prefix, ExpiryPolicy policy) {
+            for (int i = 0; i < prefix.length(); i++) {
+                char c = prefix.charAt(i);
+                if (c < '0' || c > '9') {
+                    throw new IllegalArgumentException(
+                        "Rule prefix must only contain digits: " + prefix
+                    );
+                }
+            }
+            prefixes.add(prefix);
+            prefixPolicies.add(policy);
+            return this;
+        }
+
+        public ExpiryRuleEngine build() {
+            int maxNodes = 1;
+            for (String prefix : prefixes) {
+                maxNodes += prefix.length();
+            }
+            int[] children = new int[maxNodes * RADIX];
+            ExpiryPolicy[] policies = new ExpiryPolicy[maxNodes];
+            int nodeCount = 1;
+
+            for (int i = 0; i < prefixes.size(); i++) {
+                String prefix = prefixes.get(i);
+                int node = 0;
+                for (int j = 0; j < prefix.length(); j++) {
+                    int slot = node * RADIX + (prefix.charAt(j) - '0');
+                    if (children[slot] == NO_CHILD) {
+                        children[slot] = nodeCount++;
+                    }
+                    node = children[slot];
+                }
+                policies[node] = prefixPolicies.get(i);
+            }
+
+            return new ExpiryRuleEngine(
+                Arrays.copyOf(children, nodeCount * RADIX),
+                Arrays.copyOf(policies, nodeCount),
+                defaultPolicy
+            );
+        }
+    }
+}
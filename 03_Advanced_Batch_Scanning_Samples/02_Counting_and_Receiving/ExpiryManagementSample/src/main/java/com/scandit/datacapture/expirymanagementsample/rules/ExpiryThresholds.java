@@ -0,0 +1,42 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.expirymanagementsample.rules;
+
+// The days, as epoch days, from which a product is close to expiry and expired.
+// Computed once per barcode data, so that checking a barcode only compares two numbers.
+public final class ExpiryThresholds {
+
+    // For barcodes without an expiry date, which are never expired.
+    public static final ExpiryThresholds NEVER =
+        new ExpiryThresholds(Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    public final int nearExpiryFromEpochDay;
+    public final int expiredFromEpochDay;
+
+    public ExpiryThresholds(int nearExpiryFromEpochDay, int expiredFromEpochDay) {
+        this.nearExpiryFromEpochDay = nearExpiryFromEpochDay;
+        this.expiredFromEpochDay = expiredFromEpochDay;
+    }
+
+    public ExpiryStatus statusOn(int epochDay) {
+        if (epochDay >= expiredFromEpochDay) {
+            return ExpiryStatus.EXPIRED;
+        }
+        if (epochDay >= nearExpiryFromEpochDay) {
+            return ExpiryStatus.NEAR_EXPIRY;
+        }
+        return ExpiryStatus.NONE;
+    }
+}
@@ -39,10 +39,12 @@ import com.scandit.datacapture.barcode.spark.ui.SparkScanViewState;
 import com.scandit.datacapture.core.capture.DataCaptureContext;
 import com.scandit.datacapture.core.data.FrameData;
 import com.scandit.datacapture.core.time.TimeInterval;
+import com.scandit.datacapture.countingcommon.ModeSwitchController;
 import com.scandit.datacapture.expirymanagementsample.R;
 import com.scandit.datacapture.expirymanagementsample.managers.BarcodeManager;
 import com.scandit.datacapture.expirymanagementsample.results.ExtraButtonStyle;
 import com.scandit.datacapture.expirymanagementsample.results.ResultsListPresenter;
+import com.scandit.datacapture.sparkscancommon.ScanEventQueue;
 
 import java.util.HashSet;
 import java.util.List;
@@ -50,7 +52,10 @@ import java.util.List;
 public class SparkScanPresenter implements
     SparkScanListener,
     SparkScanViewUiListener,
-    SparkScanFeedbackDelegate {
+    SparkScanFeedbackDelegate,
+    ModeSwitchController.Mode {
+
+    private static final int SCAN_QUEUE_CAPACITY = 256;
 
     private final FrameLayout container;
     private final SparkScanPresenterView sparkScanPresenterView;
@@ -61,6 +66,14 @@ public class SparkScanPresenter implements
 
     private final ResultsListPresenter resultsListPresenter;
 
+    // Hands the scanned barcodes over to the main thread, once per frame.
+    private final ScanEventQueue<Barcode> scanEvents = new ScanEventQueue<>(
+        SCAN_QUEUE_CAPACITY,
+        ScanEventQueue.OverflowPolicy.COALESCE_DUPLICATES,
+        Barcode::getData,
+        this::addScannedBarcode
+    );
+
     public SparkScanPresenter(
         Context context,
         DataCaptureContext dataCaptureContext,
@@ -122,7 +135,8 @@ public class SparkScanPresenter implements
         sparkScanView.setFeedbackDelegate(this);
     }
 
-    public void disableSparkScan() {
+    @Override
+    public void disable() {
         // When disabling SparkScan before switching to BarcodeCount,
         // remove all views from the container and all listeners.
         container.removeAllViews();
@@ -131,7 +145,8 @@ public class SparkScanPresenter implements
         sparkScanView.setFeedbackDelegate(null);
     }
 
-    public void enableSparkScan() {
+    @Override
+    public void enable() {
         // Check for camera permission every time the mode is enabled.
         // This also turns on the camera, which gets disabled while switching modes.
         sparkScanPresenterView.requestCameraPermission();
@@ -152,20 +167,20 @@ public class SparkScanPresenter implements
         resultsListPresenter.refresh();
     }
 
+    @Override
     public void onPause() {
         sparkScanView.onPause();
     }
 
+    @Override
     public void onResume() {
         sparkScanView.onResume();
     }
 
-    public void onDestroy() {
-        cleanupSparkScan();
-    }
-
-    public void cleanupSparkScan() {
-        disableSparkScan();
+    @Override
+    public void release() {
+        // Deliver the scans still queued before the list goes away.
+        scanEvents.close();
         sparkScanLayout.removeAllViews();
         sparkScanLayout = null;
         sparkScanView = null;
@@ -210,11 +225,15 @@ public class SparkScanPresenter implements
     }
 
     private void validBarcodeScanned(Barcode barcode) {
-        // Add a new valid barcode to the BarcodeManager and to the list presenter.
-        sparkScanPresenterView.runOnMainThread(() -> {
+        scanEvents.offer(barcode);
+    }
+
+    // Add a new valid barcode to the BarcodeManager and to the list presenter.
+    private void addScannedBarcode(Barcode barcode, int count) {
+        for (int i = 0; i < count; i++) {
             BarcodeManager.getInstance().saveBarcode(barcode);
             resultsListPresenter.addToList(barcode);
-        });
+        }
     }
 
     @Override
@@ -18,7 +18,5 @@ public interface SparkScanPresenterView {
 
     void requestCameraPermission();
 
-    void runOnMainThread(Runnable action);
-
     void switchToBarcodeCount();
 }
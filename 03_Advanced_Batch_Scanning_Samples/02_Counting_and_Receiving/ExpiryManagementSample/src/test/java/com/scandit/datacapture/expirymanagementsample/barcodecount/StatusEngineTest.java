@@ -0,0 +1,177 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.expirymanagementsample.barcodecount;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.scandit.datacapture.expirymanagementsample.rules.ExpiryStatus;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StatusEngineTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final StatusEngine engine = new StatusEngine(
+        data -> data.startsWith("x") ? ExpiryStatus.EXPIRED : ExpiryStatus.NONE
+    );
+
+    @Test
+    public void computesStatusOfEachData() throws Exception {
+        Outcome outcome = new Outcome();
+
+        engine.request(Arrays.asList("a", "x1", "b"), 0, outcome);
+
+        assertArrayEquals(
+            new ExpiryStatus[]{ExpiryStatus.NONE, ExpiryStatus.EXPIRED, ExpiryStatus.NONE},
+            outcome.await()
+        );
+        assertTrue(engine.getLastComputationNanos() >= 0);
+    }
+
+    @Test
+    public void splitsLargeListsWithoutMissingItems() throws Exception {
+        List<String> data = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            data.add(i % 3 == 0 ? "x" + i : "a" + i);
+        }
+        Outcome outcome = new Outcome();
+
+        engine.request(data, 0, outcome);
+
+        ExpiryStatus[] statuses = outcome.await();
+        for (int i = 0; i < data.size(); i++) {
+            assertEquals(i % 3 == 0 ? ExpiryStatus.EXPIRED : ExpiryStatus.NONE, statuses[i]);
+        }
+    }
+
+    @Test
+    public void supersededRequestIsDropped() throws Exception {
+        Outcome first = new Outcome();
+        Outcome second = new Outcome();
+
+        engine.request(Collections.singletonList("a"), 10_000, first);
+        engine.request(Collections.singletonList("x"), 0, second);
+
+        assertNull(first.await());
+        assertArrayEquals(new ExpiryStatus[]{ExpiryStatus.EXPIRED}, second.await());
+    }
+
+    @Test
+    public void cancelledRequestIsDropped() throws Exception {
+        Outcome outcome = new Outcome();
+
+        engine.request(Collections.singletonList("a"), 10_000, outcome);
+        engine.cancel();
+
+        assertNull(outcome.await());
+    }
+
+    @Test
+    public void requestDroppedWhileEvaluatingEndsOnce() throws Exception {
+        CountDownLatch evaluating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StatusEngine slowEngine = new StatusEngine(data -> {
+            evaluating.countDown();
+            try {
+                release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ExpiryStatus.NONE;
+        });
+        Outcome outcome = new Outcome();
+
+        slowEngine.request(Collections.singletonList("a"), 0, outcome);
+        assertTrue(evaluating.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        slowEngine.cancel();
+        release.countDown();
+
+        assertNull(outcome.await());
+        // Give a late computation the chance to report, which it must not do.
+        Thread.sleep(100);
+        assertEquals(1, outcome.endings());
+    }
+
+    @Test
+    public void cancelWithoutRequestDoesNothing() {
+        engine.cancel();
+    }
+
+    // Rough benchmark: the evaluation of a large session should stay well within a frame budget
+    // once warm. The limit is loose so the test doesn't depend on the machine.
+    @Test
+    public void evaluatesLargeSessionQuickly() throws Exception {
+        List<String> data = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            data.add((i % 7 == 0 ? "x" : "a") + i);
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 20; run++) {
+            Outcome outcome = new Outcome();
+            engine.request(data, 0, outcome);
+            outcome.await();
+            best = Math.min(best, engine.getLastComputationNanos());
+        }
+
+        assertTrue(
+            "10k items took " + best + " ns (best of 20)",
+            best < TimeUnit.MILLISECONDS.toNanos(50)
+        );
+    }
+
+    // Records how a request ended: its statuses, or null once dropped.
+    private static class Outcome implements StatusEngine.Listener {
+        private final CountDownLatch ended = new CountDownLatch(1);
+        private final AtomicInteger endings = new AtomicInteger();
+        private volatile ExpiryStatus[] statuses;
+
+        @Override
+        public void onStatusComputed(ExpiryStatus[] statuses) {
+            this.statuses = statuses;
+            endings.incrementAndGet();
+            ended.countDown();
+        }
+
+        @Override
+        public void onStatusDropped() {
+            endings.incrementAndGet();
+            ended.countDown();
+        }
+
+        ExpiryStatus[] await() throws InterruptedException {
+            if (!ended.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new AssertionError("The request never ended");
+            }
+            return statuses;
+        }
+
+        int endings() {
+            return endings.get();
+        }
+    }
+}
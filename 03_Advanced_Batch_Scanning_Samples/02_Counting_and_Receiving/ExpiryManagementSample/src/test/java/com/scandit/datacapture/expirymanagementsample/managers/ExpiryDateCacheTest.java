@@ -0,0 +1,154 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.expirymanagementsample.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.scandit.datacapture.expirymanagementsample.rules.ExpiryStatus;
+import com.scandit.datacapture.expirymanagementsample.rules.ExpiryThresholds;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ExpiryDateCacheTest {
+
+    // A full BarcodeCount session, refreshed as often as the status provider would in a minute.
+    private static final int SESSION_SIZE = 1_000;
+    private static final int REFRESHES = 30 * 60;
+
+    private final int today = (int) LocalDate.now().toEpochDay();
+    private final Map<String, Integer> resolutions = new HashMap<>();
+
+    // Expired yesterday, close to expiry from yesterday and expiring tomorrow, or never.
+    private final ExpiryDateCache.ExpiryResolver resolver = data -> {
+        resolutions.merge(data, 1, Integer::sum);
+        switch (data) {
+            case "expired":
+                return new ExpiryThresholds(today - 1, today - 1);
+            case "near":
+                return new ExpiryThresholds(today - 1, today + 1);
+            default:
+                return ExpiryThresholds.NEVER;
+        }
+    };
+
+    @Test
+    public void resolvesEachDataOnce() {
+        ExpiryDateCache cache = new ExpiryDateCache(16, resolver);
+
+        for (int i = 0; i < 10; i++) {
+            cache.getStatus("expired");
+        }
+
+        assertEquals(Integer.valueOf(1), resolutions.get("expired"));
+    }
+
+    @Test
+    public void reportsStatusForToday() {
+        ExpiryDateCache cache = new ExpiryDateCache(16, resolver);
+
+        assertEquals(ExpiryStatus.EXPIRED, cache.getStatus("expired"));
+        assertEquals(ExpiryStatus.NEAR_EXPIRY, cache.getStatus("near"));
+        assertEquals(ExpiryStatus.NONE, cache.getStatus("no date"));
+        assertTrue(cache.isExpired("expired"));
+        assertFalse(cache.isExpired("near"));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedDataBeyondCapacity() {
+        ExpiryDateCache cache = new ExpiryDateCache(2, resolver);
+
+        cache.getThresholds("a");
+        cache.getThresholds("b");
+        cache.getThresholds("a");
+        cache.getThresholds("c");
+        cache.getThresholds("a");
+        cache.getThresholds("b");
+
+        assertEquals(Integer.valueOf(1), resolutions.get("a"));
+        assertEquals(Integer.valueOf(2), resolutions.get("b"));
+    }
+
+    @Test
+    public void returnsCachedThresholdsInstance() {
+        ExpiryDateCache cache = new ExpiryDateCache(16, resolver);
+
+        assertSame(cache.getThresholds("near"), cache.getThresholds("near"));
+    }
+
+    @Test
+    public void resolvesAgainAfterClear() {
+        ExpiryDateCache cache = new ExpiryDateCache(16, resolver);
+        cache.getThresholds("near");
+
+        cache.clear();
+        cache.getThresholds("near");
+
+        assertEquals(Integer.valueOf(2), resolutions.get("near"));
+    }
+
+    @Test
+    public void refreshingCachedStatusesDoesNotAllocate() {
+        // A third of the data is expired, a third close to expiry and a third fine.
+        String[] data = new String[SESSION_SIZE];
+        Map<String, ExpiryThresholds> thresholds = new HashMap<>();
+        for (int i = 0; i < data.length; i++) {
+            data[i] = "0109501101530003" + i;
+            thresholds.put(data[i], new ExpiryThresholds(today + i % 3 - 1, today + i % 3));
+        }
+        ExpiryDateCache cache = new ExpiryDateCache(SESSION_SIZE, value -> {
+            resolutions.merge(value, 1, Integer::sum);
+            return thresholds.get(value);
+        });
+        // Fills the cache, and lets the JIT compile the lookups before measuring.
+        for (int refresh = 0; refresh < 100; refresh++) {
+            refreshAll(cache, data);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+
+        int expired = 0;
+        for (int refresh = 0; refresh < REFRESHES; refresh++) {
+            expired += refreshAll(cache, data);
+        }
+
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        assertEquals(REFRESHES * ((SESSION_SIZE + 2) / 3), expired);
+        assertEquals(SESSION_SIZE, resolutions.size());
+        // Some slack for the measurement itself.
+        assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    // Returns how many of the data are expired.
+    private static int refreshAll(ExpiryDateCache cache, String[] data) {
+        int expired = 0;
+        for (String value : data) {
+            if (cache.getStatus(value) == ExpiryStatus.EXPIRED) {
+                expired++;
+            }
+        }
+        return expired;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.expirymanagementsample.results;
+
+import static com.scandit.datacapture.countingcommon.TestBarcodes.barcode;
+import static com.scandit.datacapture.countingcommon.TestBarcodes.barcodes;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.scandit.datacapture.barcode.data.Barcode;
+import com.scandit.datacapture.expirymanagementsample.data.ScanResult;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ResultsDiffTest {
+
+    @Test
+    public void groupsBarcodesByDataInFirstSeenOrder() {
+        List<ScanResult> results =
+            ResultsDiff.groupByData(barcodes("B", "A", "B", "B"), data -> false);
+
+        assertEquals(2, results.size());
+        assertEquals("B", results.get(0).barcodeData);
+        assertEquals(3, results.get(0).quantity);
+        assertEquals("A", results.get(1).barcodeData);
+        assertEquals(1, results.get(1).quantity);
+    }
+
+    @Test
+    public void checksExpiryOncePerData() {
+        AtomicInteger checks = new AtomicInteger();
+
+        List<ScanResult> results = ResultsDiff.groupByData(
+            barcodes("old", "new", "old"),
+            data -> {
+                checks.incrementAndGet();
+                return data.equals("old");
+            }
+        );
+
+        assertTrue(results.get(0).isExpired);
+        assertFalse(results.get(1).isExpired);
+        assertEquals(2, checks.get());
+    }
+
+    @Test
+    public void contentsDifferWhenExpiryOrQuantityChanges() {
+        ScanResult fresh = new ScanResult("A", "EAN13_UPCA", false);
+        ScanResult expired = new ScanResult("A", "EAN13_UPCA", true);
+        ScanResult twice = new ScanResult("A", "EAN13_UPCA", false);
+        twice.increaseQuantity();
+
+        assertEquals("A", ResultsDiff.ITEM_TYPE.dataOf(expired));
+        assertFalse(ResultsDiff.ITEM_TYPE.areContentsTheSame(fresh, 1, expired));
+        assertFalse(ResultsDiff.ITEM_TYPE.areContentsTheSame(fresh, 1, twice));
+    }
+
+    @Test
+    public void unchangedResultsHaveSameContents() {
+        List<ScanResult> oldResults = ResultsDiff.groupByData(barcodes("A", "A"), data -> false);
+        List<ScanResult> newResults = ResultsDiff.groupByData(barcodes("A", "A"), data -> false);
+
+        assertTrue(
+            ResultsDiff.ITEM_TYPE.areContentsTheSame(oldResults.get(0), 2, newResults.get(0))
+        );
+    }
+
+    @Test
+    public void groupsLargeSession() {
+        List<Barcode> distinct = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            distinct.add(barcode(String.valueOf(i)));
+        }
+        List<Barcode> session = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            session.add(distinct.get(i % distinct.size()));
+        }
+
+        List<ScanResult> results = ResultsDiff.groupByData(session, data -> false);
+
+        assertEquals(2_000, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(String.valueOf(i), results.get(i).barcodeData);
+            assertEquals(5, results.get(i).quantity);
+        }
+    }
+}
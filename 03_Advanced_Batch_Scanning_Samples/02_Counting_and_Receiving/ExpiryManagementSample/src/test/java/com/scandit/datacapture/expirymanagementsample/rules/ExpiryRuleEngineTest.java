@@ -0,0 +1,231 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.expirymanagementsample.rules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+public class ExpiryRuleEngineTest {
+
+    private static final int RULE_COUNT = 10_000;
+    private static final int LOOKUP_COUNT = 100_000;
+
+    private final ExpiryPolicy dairy = new ExpiryPolicy(3, 0);
+    private final ExpiryPolicy pharma = new ExpiryPolicy(0, 30);
+    private final ExpiryPolicy oneProduct = new ExpiryPolicy(1, 1);
+
+    private final ExpiryRuleEngine engine = new ExpiryRuleEngine.Builder()
+        .addRule("40123", dairy)
+        .addRule("0312345", pharma)
+        .addRule("04012345678901", oneProduct)
+        .build();
+
+    @Test
+    public void usesDefaultPolicyWhenNoRuleMatches() {
+        assertSame(ExpiryPolicy.DEFAULT, engine.policyFor("09999999999999"));
+        assertSame(ExpiryPolicy.DEFAULT, engine.policyFor(null));
+        assertSame(ExpiryPolicy.DEFAULT, engine.policyFor(""));
+    }
+
+    @Test
+    public void matchesCompanyPrefix() {
+        assertSame(dairy, engine.policyFor("40123000000001"));
+        assertSame(pharma, engine.policyFor("03123450000007"));
+    }
+
+    @Test
+    public void longestPrefixWins() {
+        ExpiryRuleEngine nested = new ExpiryRuleEngine.Builder()
+            .addRule("0401", dairy)
+            .addRule("04012345678901", oneProduct)
+            .build();
+
+        assertSame(oneProduct, nested.policyFor("04012345678901"));
+        assertSame(dairy, nested.policyFor("04012345678902"));
+    }
+
+    @Test
+    public void partialPrefixDoesNotMatch() {
+        assertSame(ExpiryPolicy.DEFAULT, engine.policyFor("4012"));
+    }
+
+    @Test
+    public void stopsAtFirstNonDigit() {
+        assertSame(ExpiryPolicy.DEFAULT, engine.policyFor("40-123"));
+    }
+
+    @Test
+    public void laterRuleForSamePrefixReplacesEarlierOne() {
+        ExpiryRuleEngine replaced = new ExpiryRuleEngine.Builder()
+            .addRule("123", dairy)
+            .addRule("123", pharma)
+            .build();
+
+        assertSame(pharma, replaced.policyFor("1234"));
+    }
+
+    @Test
+    public void emptyPrefixReplacesDefaultPolicy() {
+        ExpiryRuleEngine everything = new ExpiryRuleEngine.Builder()
+            .addRule("", pharma)
+            .build();
+
+        assertSame(pharma, everything.policyFor("99"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonDigitPrefix() {
+        new ExpiryRuleEngine.Builder().addRule("12a", dairy);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeOffsets() {
+        new ExpiryPolicy(-1, 0);
+    }
+
+    @Test
+    public void thresholdsFollowThePolicy() {
+        int expiryDay = 20_000;
+
+        ExpiryThresholds thresholds = engine.thresholdsFor("03123450000007", expiryDay);
+
+        assertEquals(expiryDay, thresholds.expiredFromEpochDay);
+        assertEquals(expiryDay - 30, thresholds.nearExpiryFromEpochDay);
+        assertEquals(ExpiryStatus.NONE, thresholds.statusOn(expiryDay - 31));
+        assertEquals(ExpiryStatus.NEAR_EXPIRY, thresholds.statusOn(expiryDay - 30));
+        assertEquals(ExpiryStatus.EXPIRED, thresholds.statusOn(expiryDay));
+    }
+
+    @Test
+    public void sellByOffsetMovesExpiryEarlier() {
+        ExpiryThresholds thresholds = engine.thresholdsFor("40123000000001", 100);
+
+        assertEquals(ExpiryStatus.NONE, thresholds.statusOn(96));
+        assertEquals(ExpiryStatus.EXPIRED, thresholds.statusOn(97));
+    }
+
+    @Test
+    public void neverThresholdsNeverExpire() {
+        assertEquals(ExpiryStatus.NONE, ExpiryThresholds.NEVER.statusOn(Integer.MAX_VALUE - 1));
+    }
+
+    @Test
+    public void lookupsRunAtScanningSpeed() {
+        Random random = new Random(42);
+        String[] prefixes = new String[RULE_COUNT];
+        ExpiryPolicy[] rulePolicies = new ExpiryPolicy[RULE_COUNT];
+        ExpiryRuleEngine.Builder builder = new ExpiryRuleEngine.Builder();
+        for (int i = 0; i < RULE_COUNT; i++) {
+            // GS1 company prefixes are 6 to 10 digits long.
+            prefixes[i] = randomDigits(random, 6 + random.nextInt(5));
+            rulePolicies[i] = new ExpiryPolicy(i % 7, i % 31);
+            builder.addRule(prefixes[i], rulePolicies[i]);
+        }
+        ExpiryRuleEngine manyRules = builder.build();
+
+        // Half of the GTINs start with a rule prefix, the other half are random.
+        String[] gtins = new String[LOOKUP_COUNT];
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            String start = i % 2 == 0 ? prefixes[random.nextInt(RULE_COUNT)] : "";
+            gtins[i] = start + randomDigits(random, 14 - start.length());
+        }
+
+        // Lets the JIT compile both lookups before measuring, and checks they agree.
+        for (int i = 0; i < 1_000; i++) {
+            assertSame(
+                linearLookup(prefixes, rulePolicies, gtins[i]),
+                manyRules.policyFor(gtins[i])
+            );
+        }
+        for (int run = 0; run < 5; run++) {
+            lookUpAll(manyRules, gtins);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long bestTrieNanos = Long.MAX_VALUE;
+        for (int run = 0; run < 10; run++) {
+            long start = System.nanoTime();
+            lookUpAll(manyRules, gtins);
+            bestTrieNanos = Math.min(bestTrieNanos, System.nanoTime() - start);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        // A linear scan over the rules is what checking each rule in turn would cost. Only a
+        // slice of the lookups is timed, as a full scan of 10k rules per GTIN is slow.
+        int linearCount = LOOKUP_COUNT / 100;
+        long bestLinearNanos = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < linearCount; i++) {
+                linearLookup(prefixes, rulePolicies, gtins[i]);
+            }
+            bestLinearNanos = Math.min(bestLinearNanos, System.nanoTime() - start);
+        }
+
+        long trieNanosPerLookup = bestTrieNanos / LOOKUP_COUNT;
+        long linearNanosPerLookup = bestLinearNanos / linearCount;
+        // Some slack for the measurement itself.
+        assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+        // A lookup walks at most 14 trie nodes, whatever the number of rules.
+        assertTrue("lookup took " + trieNanosPerLookup + " ns", trieNanosPerLookup < 2_000);
+        assertTrue(
+            "lookup took " + trieNanosPerLookup + " ns, scan " + linearNanosPerLookup + " ns",
+            trieNanosPerLookup * 20 < linearNanosPerLookup
+        );
+    }
+
+    private static void lookUpAll(ExpiryRuleEngine engine, String[] gtins) {
+        for (String gtin : gtins) {
+            if (engine.policyFor(gtin) == null) {
+                throw new AssertionError(gtin);
+            }
+        }
+    }
+
+    // The longest matching prefix, found by checking every rule. Like the builder, a later rule
+    // for the same prefix wins.
+    private static ExpiryPolicy linearLookup(
+        String[] prefixes,
+        ExpiryPolicy[] rulePolicies,
+        String gtin
+    ) {
+        ExpiryPolicy match = ExpiryPolicy.DEFAULT;
+        int matchLength = -1;
+        for (int i = 0; i < prefixes.length; i++) {
+            if (prefixes[i].length() >= matchLength && gtin.startsWith(prefixes[i])) {
+                match = rulePolicies[i];
+                matchLength = prefixes[i].length();
+            }
+        }
+        return match;
+    }
+
+    private static String randomDigits(Random random, int length) {
+        char[] digits = new char[length];
+        for (int i = 0; i < length; i++) {
+            digits[i] = (char) ('0' + random.nextInt(10));
+        }
+        return new String(digits);
+    }
+}
@@ -17,15 +17,17 @@ package com.scandit.datacapture.matrixscancountsimplesample;
 import com.scandit.datacapture.barcode.count.capture.BarcodeCount;
 import com.scandit.datacapture.barcode.count.capture.BarcodeCountSession;
 import com.scandit.datacapture.barcode.data.Barcode;
-import com.scandit.datacapture.matrixscancountsimplesample.data.ScanDetails;
+import com.scandit.datacapture.matrixscancountsimplesample.data.ScanResults;
+import com.scandit.datacapture.matrixscancountsimplesample.data.ScanTally;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 
 // Singleton object that centralises barcode management.
+// Sessions are handed over on the SDK thread while the results are read on the main thread, so the
+// methods are synchronized.
 public class BarcodeManager {
 
     // Shared instance in singleton should only be available through getInstance() method.
@@ -42,21 +44,24 @@ public class BarcodeManager {
     private Collection<Barcode> scannedBarcodes = new ArrayList<>();
     private Collection<Barcode> additionalBarcodes = new ArrayList<>();
 
+    private final ScanTally tally = new ScanTally();
+
     private WeakReference<BarcodeCount> barcodeCount;
 
-    public void initialize(BarcodeCount barcodeCount) {
+    public synchronized void initialize(BarcodeCount barcodeCount) {
         this.barcodeCount = new WeakReference<>(barcodeCount);
     }
 
     // Update lists of barcodes with the contents of the current session.
-    public void updateWithSession(BarcodeCountSession session) {
+    public synchronized void updateWithSession(BarcodeCountSession session) {
         scannedBarcodes = session.getRecognizedBarcodes();
         additionalBarcodes = session.getAdditionalBarcodes();
+        tally.update(scannedBarcodes, additionalBarcodes);
     }
 
     // Load all scanned barcodes as additional barcodes, so they're still scanned
     // after a configuration change or coming back from background.
-    public void loadAllBarcodesAsAdditionalBarcodes() {
+    public synchronized void loadAllBarcodesAsAdditionalBarcodes() {
         List<Barcode> barcodesToLoad = new ArrayList<>();
 
         barcodesToLoad.addAll(scannedBarcodes);
@@ -66,40 +71,16 @@ public class BarcodeManager {
         }
     }
 
-    // Create a map of barcodes to be passed to the scan results screen.
-    public HashMap<String, ScanDetails> getScanResults() {
-        HashMap<String, ScanDetails> scanResults = new HashMap<>();
-
-        // Add the scanned Barcode objects to the results map.
-        for (Barcode barcode : scannedBarcodes) {
-            addBarcodeToResultsMap(barcode, scanResults);
-        }
-
-        // Add the previously saved Barcode objects to the results map.
-        for (Barcode barcode : additionalBarcodes) {
-            addBarcodeToResultsMap(barcode, scanResults);
-        }
-
-        return scanResults;
-    }
-
-    private void addBarcodeToResultsMap(Barcode barcode, HashMap<String, ScanDetails> scanResults) {
-        String barcodeData = barcode.getData();
-        String symbology = barcode.getSymbology().name();
-        if (barcodeData == null) return;
-
-        ScanDetails scanDetails = scanResults.get(barcodeData);
-        if (scanDetails != null) {
-            scanDetails.increaseQuantity();
-            scanResults.put(barcodeData, scanDetails);
-        } else {
-            scanResults.put(barcodeData, new ScanDetails(barcodeData, symbology));
-        }
+    // Results to be passed to the scan results screen. The quantities are kept up to date as the
+    // session changes, so this only copies them if they changed since the last call.
+    public synchronized ScanResults getScanResults() {
+        return tally.getResults();
     }
 
     // Reset the barcodes lists.
-    public void reset() {
+    public synchronized void reset() {
         scannedBarcodes.clear();
         additionalBarcodes.clear();
+        tally.clear();
     }
 }
@@ -16,9 +16,7 @@ package com.scandit.datacapture.matrixscancountsimplesample;
 
 import android.content.Context;
 import android.content.Intent;
-import android.os.Build;
 import android.os.Bundle;
-import android.util.Pair;
 import android.view.LayoutInflater;
 import android.view.MenuItem;
 import android.view.View;
@@ -33,28 +31,35 @@ import androidx.recyclerview.widget.DividerItemDecoration;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.scandit.datacapture.matrixscancommon.ResultRegistry;
+import com.scandit.datacapture.matrixscancommon.ResultsHandover;
 import com.scandit.datacapture.matrixscancountsimplesample.data.ScanDetails;
-
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
+import com.scandit.datacapture.matrixscancountsimplesample.data.ScanResults;
+import com.scandit.datacapture.matrixscancountsimplesample.data.ScanResultsCodec;
 
 public class ResultsActivity extends AppCompatActivity {
 
     public static final int CLEAR_SESSION = 1;
 
-    private static final String ARG_SCAN_RESULTS = "scan-results";
     private static final String ARG_DONE_BUTTON_STYLE = "done-button-style";
+
+    // The results of the open results screens.
+    private static final ResultRegistry<ScanResults> scanResultsRegistry = new ResultRegistry<>();
+
     private DoneButtonStyle doneButtonStyle = DoneButtonStyle.RESUME;
+    private final ResultsHandover<ScanResults> scanResultsHandover = new ResultsHandover<>(
+        scanResultsRegistry, ScanResultsCodec::encode, ScanResultsCodec::decode
+    );
 
+    // The results are registered in-process and only their handle is put in the Intent.
+    // They're released once the results screen is finished.
     public static Intent getIntent(
-        Context context, HashMap<String, ScanDetails> scanResults,
+        Context context, ScanResults scanResults,
         DoneButtonStyle doneButtonStyle
     ) {
-        return new Intent(context, ResultsActivity.class)
-            .putExtra(ARG_SCAN_RESULTS, scanResults.values().toArray(new ScanDetails[0]))
+        Intent intent = new Intent(context, ResultsActivity.class)
             .putExtra(ARG_DONE_BUTTON_STYLE, doneButtonStyle.mode);
+        return ResultsHandover.putResults(intent, scanResultsRegistry, scanResults);
     }
 
     @Override
@@ -73,11 +78,10 @@ public class ResultsActivity extends AppCompatActivity {
         );
 
         // Receive results from previous screen and set recycler view items.
-        ScanDetails[] scanResults;
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
-            scanResults = getIntent().getSerializableExtra(ARG_SCAN_RESULTS, ScanDetails[].class);
-        } else {
-            scanResults = (ScanDetails[]) getIntent().getSerializableExtra(ARG_SCAN_RESULTS);
+        ScanResults scanResults = scanResultsHandover.restore(getIntent(), savedInstanceState);
+        if (scanResults == null) {
+            finish();
+            return;
         }
 
         recyclerView.setAdapter(new ScanResultsAdapter(this, scanResults));
@@ -99,9 +103,7 @@ public class ResultsActivity extends AppCompatActivity {
         });
 
         TextView resultsAmount = findViewById(R.id.result_items_count);
-        if (scanResults != null) {
-            resultsAmount.setText(getString(R.string.results_amount, getScanResultsCount(scanResults)));
-        }
+        resultsAmount.setText(getString(R.string.results_amount, scanResults.getTotalQuantity()));
 
         ActionBar actionBar = getSupportActionBar();
         if (actionBar != null) {
@@ -110,14 +112,18 @@ public class ResultsActivity extends AppCompatActivity {
         }
     }
 
-    private int getScanResultsCount(ScanDetails[] scanResults) {
-        int count = 0;
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        scanResultsHandover.save(outState);
+    }
 
-        for (ScanDetails detail : scanResults) {
-            count += detail.quantity;
+    @Override
+    protected void onDestroy() {
+        if (isFinishing()) {
+            scanResultsHandover.release();
         }
-
-        return count;
+        super.onDestroy();
     }
 
     @Override
@@ -142,19 +148,11 @@ public class ResultsActivity extends AppCompatActivity {
 
     private static class ScanResultsAdapter extends RecyclerView.Adapter<ViewHolder> {
         private final Context context;
-        private final List<ScanDetails> nonUniqueItems = new ArrayList<>();
-        private final List<ScanDetails> uniqueItems = new ArrayList<>();
+        private final ScanResults items;
 
-        ScanResultsAdapter(Context context, ScanDetails[] items) {
+        ScanResultsAdapter(Context context, ScanResults items) {
             this.context = context;
-
-            for (ScanDetails item : items) {
-                if (item.quantity == 1) {
-                    uniqueItems.add(item);
-                } else {
-                    nonUniqueItems.add(item);
-                }
-            }
+            this.items = items;
         }
 
         @NonNull
@@ -167,58 +165,16 @@ public class ResultsActivity extends AppCompatActivity {
 
         @Override
         public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-            Pair<Integer, Integer> positionInSection = getPositionInSection(position);
             holder.update(
-                positionInSection.first,
-                positionInSection.second,
-                getItemForPositionInSection(positionInSection.first, positionInSection.second)
+                items.getSection(position),
+                items.getPositionInSection(position),
+                items.getItem(position)
             );
         }
 
-        private Pair<Integer, Integer> getPositionInSection(int position) {
-            int accumulatedItemCount = 0;
-            for (int i = 0; i < getSectionCount(); i++) {
-                if (position < accumulatedItemCount + getItemCountForSection(i)) {
-                    return new Pair<>(i, position - accumulatedItemCount);
-                }
-                accumulatedItemCount += getItemCountForSection(i);
-            }
-            return new Pair<>(-1, 0);
-        }
-
-        private ScanDetails getItemForPositionInSection(int section, int position) {
-            switch (section) {
-                case 0:
-                    return nonUniqueItems.get(position);
-                case 1:
-                    return uniqueItems.get(position);
-                default:
-                    return null;
-            }
-        }
-
         @Override
         public int getItemCount() {
-            int total = 0;
-            for (int i = 0; i < getSectionCount(); i++) {
-                total += getItemCountForSection(i);
-            }
-            return total;
-        }
-
-        private int getSectionCount() {
-            return 2;
-        }
-
-        private int getItemCountForSection(int section) {
-            switch (section) {
-                case 0:
-                    return nonUniqueItems.size();
-                case 1:
-                    return uniqueItems.size();
-                default:
-                    return 0;
-            }
+            return items.getItemCount();
         }
     }
 
@@ -236,7 +192,7 @@ public class ResultsActivity extends AppCompatActivity {
 
         void update(int section, int position, ScanDetails scanDetails) {
             switch (section) {
-                case 0: {
+                case ScanResults.SECTION_NON_UNIQUE: {
                     productDescriptionTextView.setText(
                         itemView.getContext().getString(
                             R.string.multiple_quantity_product_description, position + 1
@@ -250,7 +206,7 @@ public class ResultsActivity extends AppCompatActivity {
                     );
                 }
                 break;
-                case 1: {
+                case ScanResults.SECTION_UNIQUE: {
                     quantityTextView.setVisibility(View.GONE);
                     productDescriptionTextView.setText(
                         itemView.getContext().getString(
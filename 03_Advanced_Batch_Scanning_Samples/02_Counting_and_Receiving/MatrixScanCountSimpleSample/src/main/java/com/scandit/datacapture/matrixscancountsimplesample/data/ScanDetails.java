@@ -14,21 +14,23 @@
 
 package com.scandit.datacapture.matrixscancountsimplesample.data;
 
-import java.io.Serializable;
-
 /**
  * Final data class holding basic information about a scanned barcode.
  */
-public final class ScanDetails implements Serializable {
+public final class ScanDetails {
 
     public final String barcodeData;
     public final String symbology;
     public int quantity;
 
     public ScanDetails(String barcodeData, String symbology) {
+        this(barcodeData, symbology, 1);
+    }
+
+    public ScanDetails(String barcodeData, String symbology, int quantity) {
         this.barcodeData = barcodeData;
         this.symbology = symbology;
-        this.quantity = 1;
+        this.quantity = quantity;
     }
 
     public void increaseQuantity() {
@@ -0,0 +1,64 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancountsimplesample.data;
+
+/**
+ * Immutable results of a scanning session, ready to be displayed.
+ * The items scanned more than once come first, followed by the items scanned only once, so the
+ * section and the position in the section of any row are known without looking at other rows.
+ */
+public final class ScanResults {
+
+    public static final int SECTION_NON_UNIQUE = 0;
+    public static final int SECTION_UNIQUE = 1;
+
+    public static final ScanResults EMPTY = new ScanResults(new ScanDetails[0], 0, 0);
+
+    private final ScanDetails[] items;
+    private final int nonUniqueCount;
+    private final int totalQuantity;
+
+    ScanResults(ScanDetails[] items, int nonUniqueCount, int totalQuantity) {
+        this.items = items;
+        this.nonUniqueCount = nonUniqueCount;
+        this.totalQuantity = totalQuantity;
+    }
+
+    /**
+     * @return The number of rows, i.e. of distinct barcode data.
+     */
+    public int getItemCount() {
+        return items.length;
+    }
+
+    /**
+     * @return The number of barcodes scanned, counting every copy of the same data.
+     */
+    public int getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public ScanDetails getItem(int position) {
+        return items[position];
+    }
+
+    public int getSection(int position) {
+        return position < nonUniqueCount ? SECTION_NON_UNIQUE : SECTION_UNIQUE;
+    }
+
+    public int getPositionInSection(int position) {
+        return position < nonUniqueCount ? position : position - nonUniqueCount;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancountsimplesample.data;
+
+import static com.scandit.datacapture.matrixscancommon.CompactEncoding.readLength;
+import static com.scandit.datacapture.matrixscancommon.CompactEncoding.readString;
+import static com.scandit.datacapture.matrixscancommon.CompactEncoding.readVarint;
+import static com.scandit.datacapture.matrixscancommon.CompactEncoding.writeString;
+import static com.scandit.datacapture.matrixscancommon.CompactEncoding.writeVarint;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Compact binary form of {@link ScanResults}, for when they have to leave the process, e.g. in
+ * the saved instance state of an activity.
+ * <p>
+ * Layout: a version byte, the symbologies used as a table of names, then every item in display
+ * order as the index of its symbology in the table, its UTF-8 data and its quantity. Every count,
+ * index, length and quantity is a varint, so a typical item takes three bytes plus its data.
+ */
+public final class ScanResultsCodec {
+
+    private static final int VERSION = 1;
+
+    private ScanResultsCodec() {}
+
+    public static byte[] encode(ScanResults scanResults) {
+        int itemCount = scanResults.getItemCount();
+        HashMap<String, Integer> symbologyIndices = new HashMap<>();
+        List<String> symbologies = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            String symbology = scanResults.getItem(i).symbology;
+            if (!symbologyIndices.containsKey(symbology)) {
+                symbologyIndices.put(symbology, symbologies.size());
+                symbologies.add(symbology);
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + itemCount * 20);
+        out.write(VERSION);
+        writeVarint(out, symbologies.size());
+        for (String symbology : symbologies) {
+            writeString(out, symbology);
+        }
+        writeVarint(out, itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            ScanDetails item = scanResults.getItem(i);
+            writeVarint(out, symbologyIndices.get(item.symbology));
+            writeString(out, item.barcodeData);
+            writeVarint(out, item.quantity);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException If the bytes weren't produced by {@link #encode}.
+     */
+    public static ScanResults decode(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        try {
+            int version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported scan results version " + version);
+            }
+            String[] symbologies = new String[readLength(in)];
+            for (int i = 0; i < symbologies.length; i++) {
+                symbologies[i] = readString(in);
+            }
+
+            // The items were encoded in display order, so the non-unique ones come first.
+            ScanDetails[] items = new ScanDetails[readLength(in)];
+            int nonUniqueCount = 0;
+            int totalQuantity = 0;
+            for (int i = 0; i < items.length; i++) {
+                String symbology = symbologies[readVarint(in)];
+                String barcodeData = readString(in);
+                int quantity = readVarint(in);
+                items[i] = new ScanDetails(barcodeData, symbology, quantity);
+                if (quantity > 1) nonUniqueCount++;
+                totalQuantity += quantity;
+            }
+            return new ScanResults(items, nonUniqueCount, totalQuantity);
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated or corrupted scan results", e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancountsimplesample.data;
+
+import com.scandit.datacapture.barcode.data.Barcode;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the quantity of every barcode data up to date as the session changes.
+ * Each update only touches the entries whose quantity changed, and the totals used by the results
+ * screen are adjusted along the way. The partitioned {@link ScanResults} are built when first
+ * requested after a change and reused until the next one.
+ * The session updates come from the SDK thread while the results are read from the main thread,
+ * so all methods are synchronized.
+ */
+public final class ScanTally {
+
+    // The quantity of one data. seen is only used while update() runs, and is 0 otherwise.
+    private static final class Entry {
+        final String symbology;
+        int quantity = 0;
+        int seen = 0;
+
+        Entry(String symbology) {
+            this.symbology = symbology;
+        }
+    }
+
+    // Entries in the order their data was first scanned.
+    private final LinkedHashMap<String, Entry> entriesByData = new LinkedHashMap<>();
+
+    private int totalQuantity = 0;
+    private int nonUniqueCount = 0;
+
+    private ScanResults results = ScanResults.EMPTY;
+    private boolean resultsStale = false;
+
+    /**
+     * Makes the tally hold the same quantity per data as the given barcodes.
+     * The barcodes are counted in the entries themselves, so an update that only sees data that
+     * is already held doesn't allocate anything.
+     *
+     * @return Whether any quantity changed.
+     */
+    public synchronized boolean update(
+        Collection<Barcode> scanned,
+        Collection<Barcode> additional
+    ) {
+        countInto(scanned);
+        countInto(additional);
+
+        boolean changed = false;
+        Iterator<Map.Entry<String, Entry>> iterator = entriesByData.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            int quantity = entry.seen;
+            entry.seen = 0;
+            if (quantity == entry.quantity) {
+                continue;
+            }
+            setQuantity(entry, quantity);
+            if (quantity == 0) {
+                // The data is no longer in the session.
+                iterator.remove();
+            }
+            changed = true;
+        }
+
+        if (changed) {
+            resultsStale = true;
+        }
+        return changed;
+    }
+
+    public synchronized int getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    /**
+     * @return The current results. Doesn't copy anything if nothing changed since the last call.
+     */
+    public synchronized ScanResults getResults() {
+        if (resultsStale) {
+            results = buildResults();
+            resultsStale = false;
+        }
+        return results;
+    }
+
+    public synchronized void clear() {
+        entriesByData.clear();
+        totalQuantity = 0;
+        nonUniqueCount = 0;
+        results = ScanResults.EMPTY;
+        resultsStale = false;
+    }
+
+    private void countInto(Collection<Barcode> barcodes) {
+        for (Barcode barcode : barcodes) {
+            String data = barcode.getData();
+            if (data == null) continue;
+
+            Entry entry = entriesByData.get(data);
+            if (entry == null) {
+                entry = new Entry(barcode.getSymbology().name());
+                entriesByData.put(data, entry);
+            }
+            entry.seen++;
+        }
+    }
+
+    private void setQuantity(Entry entry, int quantity) {
+        totalQuantity += quantity - entry.quantity;
+        if (entry.quantity > 1) nonUniqueCount--;
+        if (quantity > 1) nonUniqueCount++;
+        entry.quantity = quantity;
+    }
+
+    private ScanResults buildResults() {
+        // The results get their own entries so they don't change with later updates.
+        ScanDetails[] items = new ScanDetails[entriesByData.size()];
+        int nonUnique = 0;
+        int unique = nonUniqueCount;
+        for (Map.Entry<String, Entry> mapEntry : entriesByData.entrySet()) {
+            Entry entry = mapEntry.getValue();
+            ScanDetails details =
+                new ScanDetails(mapEntry.getKey(), entry.symbology, entry.quantity);
+            if (entry.quantity > 1) {
+                items[nonUnique++] = details;
+            } else {
+                items[unique++] = details;
+            }
+        }
+        return new ScanResults(items, nonUniqueCount, totalQuantity);
+    }
+}
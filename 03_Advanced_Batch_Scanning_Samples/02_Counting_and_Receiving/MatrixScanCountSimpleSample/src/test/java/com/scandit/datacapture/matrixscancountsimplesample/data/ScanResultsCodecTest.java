@@ -0,0 +1,73 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancountsimplesample.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class ScanResultsCodecTest {
+
+    @Test
+    public void roundTripsItemsSectionsAndTotal() {
+        ScanResults results = new ScanResults(
+            new ScanDetails[] {
+                new ScanDetails("B", "CODE128", 3),
+                new ScanDetails("A", "EAN13_UPCA", 1),
+                new ScanDetails("C", "EAN13_UPCA", 1)
+            },
+            1,
+            5
+        );
+
+        ScanResults decoded = ScanResultsCodec.decode(ScanResultsCodec.encode(results));
+
+        assertEquals(3, decoded.getItemCount());
+        assertEquals(5, decoded.getTotalQuantity());
+        for (int i = 0; i < results.getItemCount(); i++) {
+            assertEquals(results.getItem(i).barcodeData, decoded.getItem(i).barcodeData);
+            assertEquals(results.getItem(i).symbology, decoded.getItem(i).symbology);
+            assertEquals(results.getItem(i).quantity, decoded.getItem(i).quantity);
+            assertEquals(results.getSection(i), decoded.getSection(i));
+        }
+    }
+
+    @Test
+    public void rejectsTruncatedInput() {
+        ScanResults results = new ScanResults(
+            new ScanDetails[] {new ScanDetails("A", "EAN13_UPCA", 2)}, 1, 2
+        );
+        byte[] encoded = ScanResultsCodec.encode(results);
+
+        for (int length = 0; length < encoded.length; length++) {
+            try {
+                ScanResultsCodec.decode(Arrays.copyOf(encoded, length));
+                fail("Decoded " + length + " of " + encoded.length + " bytes");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownVersion() {
+        byte[] encoded = ScanResultsCodec.encode(ScanResults.EMPTY);
+        encoded[0] = 2;
+
+        ScanResultsCodec.decode(encoded);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancountsimplesample.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.scandit.datacapture.barcode.data.Barcode;
+import com.scandit.datacapture.barcode.data.Symbology;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ScanTallyTest {
+
+    private final ScanTally tally = new ScanTally();
+
+    @Test
+    public void countsBarcodesPerData() {
+        assertTrue(tally.update(barcodes("A", "B", "A"), barcodes("A")));
+
+        ScanResults results = tally.getResults();
+        assertEquals(2, results.getItemCount());
+        assertEquals(4, results.getTotalQuantity());
+        assertEquals("A", results.getItem(0).barcodeData);
+        assertEquals(3, results.getItem(0).quantity);
+        assertEquals("B", results.getItem(1).barcodeData);
+        assertEquals(1, results.getItem(1).quantity);
+    }
+
+    @Test
+    public void putsNonUniqueItemsFirst() {
+        tally.update(barcodes("A", "B", "C", "B"), Collections.emptyList());
+
+        ScanResults results = tally.getResults();
+        assertEquals("B", results.getItem(0).barcodeData);
+        assertEquals(ScanResults.SECTION_NON_UNIQUE, results.getSection(0));
+        assertEquals("A", results.getItem(1).barcodeData);
+        assertEquals(ScanResults.SECTION_UNIQUE, results.getSection(1));
+        assertEquals(0, results.getPositionInSection(1));
+        assertEquals("C", results.getItem(2).barcodeData);
+        assertEquals(1, results.getPositionInSection(2));
+    }
+
+    @Test
+    public void dropsDataNoLongerInSession() {
+        tally.update(barcodes("A", "B", "B"), Collections.emptyList());
+
+        assertTrue(tally.update(barcodes("A"), Collections.emptyList()));
+
+        ScanResults results = tally.getResults();
+        assertEquals(1, results.getItemCount());
+        assertEquals("A", results.getItem(0).barcodeData);
+        assertEquals(1, tally.getTotalQuantity());
+    }
+
+    @Test
+    public void reusesResultsWhileNothingChanges() {
+        tally.update(barcodes("A", "B"), Collections.emptyList());
+        ScanResults results = tally.getResults();
+
+        assertFalse(tally.update(barcodes("B", "A"), Collections.emptyList()));
+
+        assertSame(results, tally.getResults());
+    }
+
+    @Test
+    public void resultsDontChangeWithLaterUpdates() {
+        tally.update(barcodes("A"), Collections.emptyList());
+        ScanResults results = tally.getResults();
+
+        tally.update(barcodes("A", "A"), Collections.emptyList());
+
+        assertEquals(1, results.getItem(0).quantity);
+        assertEquals(1, results.getTotalQuantity());
+        assertEquals(2, tally.getResults().getItem(0).quantity);
+    }
+
+    @Test
+    public void clearDropsEverything() {
+        tally.update(barcodes("A", "A"), Collections.emptyList());
+
+        tally.clear();
+
+        assertSame(ScanResults.EMPTY, tally.getResults());
+        assertEquals(0, tally.getTotalQuantity());
+    }
+
+    @Test
+    public void resultsReadWhileUpdatingAreConsistent() throws Exception {
+        List<List<Barcode>> sessions = new ArrayList<>();
+        for (int size = 1; size <= 50; size++) {
+            List<Barcode> session = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                session.add(barcode(String.valueOf(i % 20)));
+            }
+            sessions.add(session);
+        }
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        Thread updater = new Thread(() -> {
+            for (int i = 0; i < 5_000; i++) {
+                tally.update(sessions.get(i % sessions.size()), Collections.emptyList());
+                if (i % 500 == 0) {
+                    tally.clear();
+                }
+            }
+            done.set(true);
+        });
+        updater.start();
+
+        while (!done.get()) {
+            ScanResults results = tally.getResults();
+            int total = 0;
+            int nonUnique = 0;
+            for (int i = 0; i < results.getItemCount(); i++) {
+                int quantity = results.getItem(i).quantity;
+                assertTrue(quantity > 0);
+                total += quantity;
+                if (results.getSection(i) == ScanResults.SECTION_NON_UNIQUE) {
+                    assertTrue(quantity > 1);
+                    nonUnique++;
+                } else {
+                    assertEquals(1, quantity);
+                }
+            }
+            assertEquals(results.getTotalQuantity(), total);
+            assertTrue(nonUnique <= results.getItemCount());
+        }
+        updater.join();
+    }
+
+    private static List<Barcode> barcodes(String... data) {
+        List<Barcode> barcodes = new ArrayList<>(data.length);
+        for (String value : data) {
+            barcodes.add(barcode(value));
+        }
+        return barcodes;
+    }
+
+    private static Barcode barcode(String data) {
+        Barcode barcode = mock(Barcode.class);
+        when(barcode.getData()).thenReturn(data);
+        when(barcode.getSymbology()).thenReturn(Symbology.EAN13_UPCA);
+        return barcode;
+    }
+}
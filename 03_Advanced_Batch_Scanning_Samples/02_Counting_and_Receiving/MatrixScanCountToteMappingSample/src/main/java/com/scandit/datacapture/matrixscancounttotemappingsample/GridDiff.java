@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancounttotemappingsample;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+// The cells whose barcode data differs between two grids.
+// When the grids don't have the same dimensions, cells that only exist in one of them are compared
+// to an empty cell.
+public final class GridDiff {
+
+    // A cell whose data changed. Either data is null when the cell is empty in that grid.
+    public static final class CellChange {
+        public final int row;
+        public final int column;
+        public final String previousData;
+        public final String currentData;
+
+        CellChange(int row, int column, String previousData, String currentData) {
+            this.row = row;
+            this.column = column;
+            this.previousData = previousData;
+            this.currentData = currentData;
+        }
+    }
+
+    public final long fromVersion;
+    public final long toVersion;
+    public final boolean dimensionsChanged;
+    // The number of cells compared, i.e. of the grid spanning both grids. Never less than the
+    // number of changes.
+    public final int comparedCellCount;
+
+    private final List<CellChange> changes;
+
+    private GridDiff(
+        long fromVersion,
+        long toVersion,
+        boolean dimensionsChanged,
+        int comparedCellCount,
+        List<CellChange> changes
+    ) {
+        this.fromVersion = fromVersion;
+        this.toVersion = toVersion;
+        this.dimensionsChanged = dimensionsChanged;
+        this.comparedCellCount = comparedCellCount;
+        this.changes = changes;
+    }
+
+    public static GridDiff between(GridSnapshot from, GridSnapshot to) {
+        boolean dimensionsChanged = from.rows != to.rows || from.columns != to.columns;
+        int rows = Math.max(from.rows, to.rows);
+        int columns = Math.max(from.columns, to.columns);
+
+        List<CellChange> changes = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                String previousData = from.getData(row, column);
+                String currentData = to.getData(row, column);
+                if (!Objects.equals(previousData, currentData)) {
+                    changes.add(new CellChange(row, column, previousData, currentData));
+                }
+            }
+        }
+        return new GridDiff(
+            from.version,
+            to.version,
+            dimensionsChanged,
+            rows * columns,
+            Collections.unmodifiableList(changes)
+        );
+    }
+
+    public List<CellChange> getChanges() {
+        return changes;
+    }
+
+    public boolean isEmpty() {
+        return !dimensionsChanged && changes.isEmpty();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancounttotemappingsample;
+
+import java.util.Arrays;
+
+// Immutable copy of the barcode data found in every cell of a spatial grid, so grids can be kept
+// and compared after the session that produced them is gone.
+public final class GridSnapshot {
+
+    // Increases with every grid stored by SpatialGridManager.
+    public final long version;
+    // The wave the grid was mapped in, starting at 1.
+    public final int wave;
+    public final int rows;
+    public final int columns;
+
+    // Row-major cell data, null for empty cells.
+    private final String[] cells;
+
+    GridSnapshot(long version, int wave, int rows, int columns, String[] cells) {
+        if (cells.length != rows * columns) {
+            throw new IllegalArgumentException(
+                "Expected " + rows * columns + " cells, got " + cells.length
+            );
+        }
+        this.version = version;
+        this.wave = wave;
+        this.rows = rows;
+        this.columns = columns;
+        this.cells = cells;
+    }
+
+    // Returns the barcode data in the given cell, or null if the cell is empty or outside the grid.
+    public String getData(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return null;
+        }
+        return cells[row * columns + column];
+    }
+
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    // Whether both grids have the same dimensions and the same data in every cell, regardless of
+    // their version and wave.
+    public boolean hasSameCells(GridSnapshot other) {
+        return rows == other.rows && columns == other.columns && Arrays.equals(cells, other.cells);
+    }
+}
@@ -27,7 +27,6 @@ import com.scandit.datacapture.barcode.count.capture.BarcodeCountListener;
 import com.scandit.datacapture.barcode.count.capture.BarcodeCountSession;
 import com.scandit.datacapture.barcode.count.capture.BarcodeCountSettings;
 import com.scandit.datacapture.barcode.count.capture.map.BarcodeCountMappingFlowSettings;
-import com.scandit.datacapture.barcode.count.capture.map.BarcodeSpatialGrid;
 import com.scandit.datacapture.barcode.count.ui.view.BarcodeCountView;
 import com.scandit.datacapture.barcode.count.ui.view.BarcodeCountViewStyle;
 import com.scandit.datacapture.barcode.count.ui.view.BarcodeCountViewUiListener;
@@ -36,7 +35,6 @@ import com.scandit.datacapture.core.capture.DataCaptureContext;
 import com.scandit.datacapture.core.data.FrameData;
 
 import java.util.HashSet;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MainActivity extends CameraPermissionActivity
     implements BarcodeCountListener, BarcodeCountViewUiListener {
@@ -49,7 +47,14 @@ public class MainActivity extends CameraPermissionActivity
     private DataCaptureContext dataCaptureContext;
     private FrameLayout container;
 
-    private AtomicBoolean generateMapOnNextFrame = new AtomicBoolean(false);
+    // Size of the grid of totes to map.
+    private static final int GRID_ROWS = 4;
+    private static final int GRID_COLUMNS = 2;
+
+    // Time after which mapping is given up, counted from the exit button tap.
+    private static final long MAP_DEADLINE_MILLIS = 3000;
+
+    private SpatialMapJob spatialMapJob;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -93,6 +98,29 @@ public class MainActivity extends CameraPermissionActivity
         barcodeCount = BarcodeCount.forDataCaptureContext(dataCaptureContext, barcodeCountSettings);
 
         container = findViewById(R.id.data_capture_view_container);
+
+        spatialMapJob = new SpatialMapJob(
+            GRID_ROWS,
+            GRID_COLUMNS,
+            MAP_DEADLINE_MILLIS,
+            new SpatialMapJob.Listener() {
+                @Override
+                public void onMapReady(@NonNull GridSnapshot snapshot, long durationNanos) {
+                    // Navigate to map grid activity, which will get the spatial map from the
+                    // singleton.
+                    Intent intent = new Intent(MainActivity.this, MapGridActivity.class);
+                    startActivity(intent);
+                }
+
+                @Override
+                public void onMapFailed(
+                    @NonNull SpatialMapJob.Failure failure,
+                    long durationNanos
+                ) {
+                    showErrorDialog();
+                }
+            }
+        );
     }
 
     private BarcodeCountView createBarcodeCountView() {
@@ -136,6 +164,9 @@ public class MainActivity extends CameraPermissionActivity
         // Unregister self as listener.
         barcodeCount.removeListener(this);
 
+        // No more frames will arrive, and the result would come too late to be shown.
+        spatialMapJob.cancel();
+
         super.onPause();
     }
 
@@ -181,26 +212,9 @@ public class MainActivity extends CameraPermissionActivity
         @NonNull BarcodeCountSession session,
         @NonNull FrameData data
     ) {
-        if (generateMapOnNextFrame.compareAndSet(true, false)) {
-            if (session.getRecognizedBarcodes().isEmpty()) {
-                runOnUiThread(this::showErrorDialog);
-                return;
-            }
-
-            // Retrieve the spatial map.
-            BarcodeSpatialGrid spatialMap = session.getSpatialMap(4, 2);
-            if (spatialMap == null) {
-                runOnUiThread(this::showErrorDialog);
-                return;
-            }
-
-            // Store the spatial map in a shared singleton object.
-            SpatialGridManager.getInstance().setBarcodeSpatialGrid(spatialMap);
-
-            // Navigate to map grid activity, which will get the spatial map from the singleton.
-            Intent intent = new Intent(this, MapGridActivity.class);
-            startActivity(intent);
-        }
+        // Generate the spatial map, if requested. Only the frame that takes the request does
+        // any work.
+        spatialMapJob.onSessionUpdated(session);
     }
 
     @Override
@@ -225,7 +239,7 @@ public class MainActivity extends CameraPermissionActivity
     ) {
         // Trigger grid map creation on the next frame.
         // This is important because we need the session for creating the map.
-        generateMapOnNextFrame.set(true);
+        spatialMapJob.start();
     }
 
     @Override
@@ -235,6 +249,7 @@ public class MainActivity extends CameraPermissionActivity
 
     @Override
     protected void onDestroy() {
+        spatialMapJob.cancel();
         dataCaptureContext.removeCurrentMode();
         super.onDestroy();
     }
@@ -248,7 +263,9 @@ public class MainActivity extends CameraPermissionActivity
                 R.string.error_dialog_button_confirm,
                 (dialog, which) -> {
                     dialog.dismiss();
-                    recreate();// Recreate the activity to restart the flow.
+                    // Try again with the next frame. The scanning state is kept, so the totes
+                    // can be adjusted in the meantime.
+                    spatialMapJob.start();
                 }
             )
             .show();
@@ -53,6 +53,9 @@ public class MapGridActivity extends AppCompatActivity {
                 Toast.LENGTH_SHORT
             ).show();
         } else {
+            // Tell the picker how much the totes moved since the previous wave, if any.
+            showChangesSincePreviousWave();
+
             // Set a listener to the editorView, so we get notified
             // when any of the buttons is tapped.
             editorView.setListener(new BarcodeSpatialGridEditorViewListener() {
@@ -67,6 +70,8 @@ public class MapGridActivity extends AppCompatActivity {
                     @NonNull BarcodeSpatialGrid spatialGrid
                 ) {
                     // At this point, the BarcodeSpatialGrid instance can be used.
+                    // Keep it as the reference grid the next wave will be compared with.
+                    SpatialGridManager.getInstance().finishWave(spatialGrid);
                     Toast.makeText(
                         MapGridActivity.this,
                         R.string.editor_view_success,
@@ -84,6 +89,23 @@ public class MapGridActivity extends AppCompatActivity {
         }
     }
 
+    private void showChangesSincePreviousWave() {
+        GridDiff diff = SpatialGridManager.getInstance().diffWithPreviousWave();
+        if (diff == null) {
+            return;
+        }
+        // If the grid got smaller or larger, the slots of both grids are counted.
+        Toast.makeText(
+            MapGridActivity.this,
+            getString(
+                R.string.grid_changes_since_previous_wave,
+                diff.getChanges().size(),
+                diff.comparedCellCount
+            ),
+            Toast.LENGTH_SHORT
+        ).show();
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         if (item.getItemId() == android.R.id.home) {
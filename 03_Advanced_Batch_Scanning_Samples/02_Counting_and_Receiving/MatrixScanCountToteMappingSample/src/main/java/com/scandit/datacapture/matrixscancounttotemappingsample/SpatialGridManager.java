@@ -19,8 +19,18 @@ import android.content.Context;
 import com.scandit.datacapture.barcode.count.capture.map.BarcodeSpatialGrid;
 import com.scandit.datacapture.barcode.count.capture.map.BarcodeSpatialGridEditorView;
 import com.scandit.datacapture.barcode.count.capture.map.BarcodeSpatialGridEditorViewSettings;
+import com.scandit.datacapture.barcode.data.Barcode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 // Singleton object that centralises the management of the spatial grid.
+// Every grid mapped is kept as a new version, as a snapshot of its cells, so the grid of a wave can
+// be compared with the one of the previous wave. A wave ends when the picker confirms the grid in
+// the editor view. Only the latest BarcodeSpatialGrid itself is kept, for the editor view, since
+// the SDK grids hold on to their barcodes.
 public class SpatialGridManager {
 
     // Shared instance in singleton should only be available through getInstance() method.
@@ -34,24 +44,110 @@ public class SpatialGridManager {
         return sharedInstance;
     }
 
-    private BarcodeSpatialGrid spatialGrid;
+    // Number of grid versions kept, oldest first dropped.
+    static final int MAX_HISTORY = 32;
+
+    // Oldest version first.
+    private final ArrayDeque<GridSnapshot> history = new ArrayDeque<>();
+    private BarcodeSpatialGrid latestGrid;
+    private long nextVersion = 1;
+    private int currentWave = 1;
 
     // Store a BarcodeSpatialGrid instance, to use later when creating the grid view.
-    void setBarcodeSpatialGrid(BarcodeSpatialGrid spatialGrid) {
-        this.spatialGrid = spatialGrid;
+    // A grid with the same cells as the latest one of the current wave doesn't create a new
+    // version. Returns the snapshot of the stored grid.
+    synchronized GridSnapshot setBarcodeSpatialGrid(BarcodeSpatialGrid spatialGrid) {
+        latestGrid = spatialGrid;
+        GridSnapshot snapshot = snapshotOf(spatialGrid, nextVersion, currentWave);
+        GridSnapshot latest = history.peekLast();
+        if (latest != null && latest.wave == currentWave && latest.hasSameCells(snapshot)) {
+            return latest;
+        }
+
+        nextVersion++;
+        history.addLast(snapshot);
+        if (history.size() > MAX_HISTORY) {
+            history.removeFirst();
+        }
+        return snapshot;
+    }
+
+    // Store the grid confirmed in the editor view as the final grid of the current wave, and start
+    // the next wave.
+    synchronized void finishWave(BarcodeSpatialGrid editedGrid) {
+        setBarcodeSpatialGrid(editedGrid);
+        currentWave++;
+    }
+
+    // Returns the snapshot of the latest grid, or null if no grid was stored yet.
+    synchronized GridSnapshot getLatestSnapshot() {
+        return history.peekLast();
+    }
+
+    // Returns the snapshot of the last grid of the given wave, or null if it isn't in the history.
+    synchronized GridSnapshot getLastSnapshotOfWave(int wave) {
+        Iterator<GridSnapshot> iterator = history.descendingIterator();
+        while (iterator.hasNext()) {
+            GridSnapshot snapshot = iterator.next();
+            if (snapshot.wave == wave) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    // Returns the snapshots of the grids kept, oldest first.
+    synchronized List<GridSnapshot> getHistory() {
+        return new ArrayList<>(history);
+    }
+
+    // Returns the latest grid stored, or null if no grid was stored yet.
+    synchronized BarcodeSpatialGrid getLatestGrid() {
+        return latestGrid;
+    }
+
+    // Compares the latest grid with the final grid of the most recent earlier wave.
+    // Returns null if there is no such grid to compare with.
+    synchronized GridDiff diffWithPreviousWave() {
+        GridSnapshot latest = getLatestSnapshot();
+        if (latest == null) {
+            return null;
+        }
+        Iterator<GridSnapshot> iterator = history.descendingIterator();
+        while (iterator.hasNext()) {
+            GridSnapshot snapshot = iterator.next();
+            if (snapshot.wave < latest.wave) {
+                return GridDiff.between(snapshot, latest);
+            }
+        }
+        return null;
     }
 
     // Uses the BarcodeSpatialGrid instance to create a BarcodeSpatialGridEditorView, if possible.
     // Returns null otherwise.
     BarcodeSpatialGridEditorView createBarcodeSpatialGridEditorView(Context context) {
-        if (spatialGrid != null) {
+        BarcodeSpatialGrid grid = getLatestGrid();
+        if (grid != null) {
             return BarcodeSpatialGridEditorView.newInstance(
                 context,
-                spatialGrid,
+                grid,
                 new BarcodeSpatialGridEditorViewSettings()
             );
         } else {
             return null;
         }
     }
+
+    private static GridSnapshot snapshotOf(BarcodeSpatialGrid grid, long version, int wave) {
+        int rows = grid.getRows();
+        int columns = grid.getColumns();
+        String[] cells = new String[rows * columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                Barcode barcode = grid.barcodeAt(row, column);
+                cells[row * columns + column] = barcode != null ? barcode.getData() : null;
+            }
+        }
+        return new GridSnapshot(version, wave, rows, columns, cells);
+    }
 }
@@ -0,0 +1,161 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancounttotemappingsample;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.UiThread;
+
+import com.scandit.datacapture.barcode.count.capture.BarcodeCountSession;
+import com.scandit.datacapture.barcode.count.capture.map.BarcodeSpatialGrid;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Generates a spatial map from the session, at most one at a time.
+// The session can only be used inside the BarcodeCount callbacks, so the map is generated and
+// stored on the frame thread, by the first frame after start() is called. That frame is held up
+// for as long as the SDK takes to build the map. The outcome is reported on the main thread
+// together with the time it took. A job that doesn't complete before its deadline fails, and a
+// cancelled job never reports anything. The grid is only stored in SpatialGridManager if the job
+// completes, so a map that comes after the deadline doesn't replace the stored one.
+public class SpatialMapJob {
+
+    public enum Failure {
+        // No barcodes were recognized when the map was requested.
+        NO_BARCODES,
+        // The barcodes couldn't be arranged in a grid of the requested size.
+        NO_GRID,
+        // No frame arrived, or generating the map took too long.
+        TIMED_OUT
+    }
+
+    public interface Listener {
+        @UiThread
+        void onMapReady(@NonNull GridSnapshot snapshot, long durationNanos);
+
+        @UiThread
+        void onMapFailed(@NonNull Failure failure, long durationNanos);
+    }
+
+    private static class Request {
+        final long startNanos = System.nanoTime();
+        // Set by the frame that generates the map, so later frames leave the request alone.
+        final AtomicBoolean frameTaken = new AtomicBoolean(false);
+        // Set by whoever settles the request first: its frame, its deadline or cancel().
+        final AtomicBoolean finished = new AtomicBoolean(false);
+        volatile boolean cancelled = false;
+        Runnable timeout;
+    }
+
+    private final int rows;
+    private final int columns;
+    private final long deadlineMillis;
+    private final Listener listener;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicReference<Request> current = new AtomicReference<>();
+
+    private volatile long lastDurationNanos = 0;
+
+    public SpatialMapJob(int rows, int columns, long deadlineMillis, @NonNull Listener listener) {
+        this.rows = rows;
+        this.columns = columns;
+        this.deadlineMillis = deadlineMillis;
+        this.listener = listener;
+    }
+
+    // Requests a map from the next frame, cancelling the current request if any.
+    @UiThread
+    public void start() {
+        cancel();
+        Request request = new Request();
+        request.timeout = () -> {
+            if (request.finished.compareAndSet(false, true)) {
+                report(request, null, Failure.TIMED_OUT);
+            }
+        };
+        mainHandler.postDelayed(request.timeout, deadlineMillis);
+        current.set(request);
+    }
+
+    // Drops the current request. Its outcome won't be reported.
+    @UiThread
+    public void cancel() {
+        Request request = current.getAndSet(null);
+        if (request != null) {
+            request.cancelled = true;
+            request.finished.set(true);
+            mainHandler.removeCallbacks(request.timeout);
+        }
+    }
+
+    // Whether a map was requested and hasn't been reported yet.
+    public boolean isRunning() {
+        return current.get() != null;
+    }
+
+    // Returns how long the last reported job took, from start() to its outcome.
+    public long getLastDurationNanos() {
+        return lastDurationNanos;
+    }
+
+    // To be called from BarcodeCountListener.onSessionUpdated. Only the frame that takes the
+    // request does any work; for every other frame this is a single read.
+    public void onSessionUpdated(@NonNull BarcodeCountSession session) {
+        Request request = current.get();
+        if (request == null || request.finished.get()
+            || !request.frameTaken.compareAndSet(false, true)) {
+            return;
+        }
+
+        // Retrieve the spatial map. This needs the session, so it can't leave this thread.
+        boolean hasBarcodes = !session.getRecognizedBarcodes().isEmpty();
+        BarcodeSpatialGrid spatialMap = hasBarcodes ? session.getSpatialMap(rows, columns) : null;
+
+        // The deadline may have passed or the job been cancelled while the map was generated.
+        if (!request.finished.compareAndSet(false, true)) {
+            return;
+        }
+        if (spatialMap == null) {
+            report(request, null, hasBarcodes ? Failure.NO_GRID : Failure.NO_BARCODES);
+            return;
+        }
+
+        // Store the spatial map in a shared singleton object.
+        GridSnapshot snapshot = SpatialGridManager.getInstance().setBarcodeSpatialGrid(spatialMap);
+        report(request, snapshot, null);
+    }
+
+    // Reports the outcome of a request that was just settled.
+    private void report(Request request, GridSnapshot snapshot, Failure failure) {
+        mainHandler.removeCallbacks(request.timeout);
+        current.compareAndSet(request, null);
+
+        long durationNanos = System.nanoTime() - request.startNanos;
+        mainHandler.post(() -> {
+            if (request.cancelled) return;
+
+            lastDurationNanos = durationNanos;
+            if (snapshot != null) {
+                listener.onMapReady(snapshot, durationNanos);
+            } else {
+                listener.onMapFailed(failure, durationNanos);
+            }
+        });
+    }
+}
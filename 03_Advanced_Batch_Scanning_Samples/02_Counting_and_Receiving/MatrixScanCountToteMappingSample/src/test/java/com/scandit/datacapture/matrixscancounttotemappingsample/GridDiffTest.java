@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancounttotemappingsample;
+
+import static com.scandit.datacapture.matrixscancounttotemappingsample.TestGrids.row;
+import static com.scandit.datacapture.matrixscancounttotemappingsample.TestGrids.snapshot;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class GridDiffTest {
+
+    @Test
+    public void sameCellsMakeEmptyDiff() {
+        GridDiff diff = GridDiff.between(
+            snapshot(1, row("A", "B"), row(null, "C")),
+            snapshot(2, row("A", "B"), row(null, "C"))
+        );
+
+        assertTrue(diff.isEmpty());
+        assertEquals(1, diff.fromVersion);
+        assertEquals(2, diff.toVersion);
+        assertEquals(4, diff.comparedCellCount);
+    }
+
+    @Test
+    public void listsChangedCells() {
+        GridDiff diff = GridDiff.between(
+            snapshot(1, row("A", "B"), row(null, "C")),
+            snapshot(2, row("A", "D"), row("E", "C"))
+        );
+
+        assertFalse(diff.isEmpty());
+        assertEquals(2, diff.getChanges().size());
+        GridDiff.CellChange moved = diff.getChanges().get(0);
+        assertEquals(0, moved.row);
+        assertEquals(1, moved.column);
+        assertEquals("B", moved.previousData);
+        assertEquals("D", moved.currentData);
+        GridDiff.CellChange added = diff.getChanges().get(1);
+        assertNull(added.previousData);
+        assertEquals("E", added.currentData);
+    }
+
+    @Test
+    public void comparesCellsOfBothGridsWhenDimensionsChange() {
+        GridDiff diff = GridDiff.between(
+            snapshot(1, row("A", "B"), row("C", "D")),
+            snapshot(2, row("X", "Y", "Z"))
+        );
+
+        assertTrue(diff.dimensionsChanged);
+        assertEquals(6, diff.comparedCellCount);
+        assertEquals(5, diff.getChanges().size());
+        assertTrue(diff.getChanges().size() <= diff.comparedCellCount);
+    }
+}
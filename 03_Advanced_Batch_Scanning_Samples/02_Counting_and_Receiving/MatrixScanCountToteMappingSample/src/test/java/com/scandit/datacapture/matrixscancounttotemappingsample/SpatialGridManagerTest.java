@@ -0,0 +1,111 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancounttotemappingsample;
+
+import static com.scandit.datacapture.matrixscancounttotemappingsample.TestGrids.grid;
+import static com.scandit.datacapture.matrixscancounttotemappingsample.TestGrids.row;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.scandit.datacapture.barcode.count.capture.map.BarcodeSpatialGrid;
+
+import org.junit.Test;
+
+import java.util.List;
+
+public class SpatialGridManagerTest {
+
+    private final SpatialGridManager manager = new SpatialGridManager();
+
+    @Test
+    public void snapshotsCellsOfStoredGrid() {
+        GridSnapshot snapshot = manager.setBarcodeSpatialGrid(grid(row("A", null), row("B", "C")));
+
+        assertEquals(1, snapshot.version);
+        assertEquals(1, snapshot.wave);
+        assertEquals(2, snapshot.rows);
+        assertEquals(2, snapshot.columns);
+        assertEquals("A", snapshot.getData(0, 0));
+        assertNull(snapshot.getData(0, 1));
+        assertEquals("C", snapshot.getData(1, 1));
+        assertSame(snapshot, manager.getLatestSnapshot());
+    }
+
+    @Test
+    public void sameCellsInSameWaveKeepVersionButLatestGrid() {
+        GridSnapshot first = manager.setBarcodeSpatialGrid(grid(row("A", "B")));
+        BarcodeSpatialGrid again = grid(row("A", "B"));
+
+        GridSnapshot second = manager.setBarcodeSpatialGrid(again);
+
+        assertSame(first, second);
+        assertEquals(1, manager.getHistory().size());
+        assertSame(again, manager.getLatestGrid());
+    }
+
+    @Test
+    public void keepsSnapshotsOfOlderVersionsButOnlyLatestGrid() {
+        BarcodeSpatialGrid last = null;
+        int stored = SpatialGridManager.MAX_HISTORY + 8;
+        for (int i = 0; i < stored; i++) {
+            last = grid(row("A" + i, "B"));
+            manager.setBarcodeSpatialGrid(last);
+        }
+
+        List<GridSnapshot> history = manager.getHistory();
+        assertEquals(SpatialGridManager.MAX_HISTORY, history.size());
+        assertEquals(stored - SpatialGridManager.MAX_HISTORY + 1, history.get(0).version);
+        assertEquals(stored, history.get(history.size() - 1).version);
+        assertSame(last, manager.getLatestGrid());
+    }
+
+    @Test
+    public void diffsLatestGridWithFinalGridOfPreviousWave() {
+        manager.setBarcodeSpatialGrid(grid(row("A", "B")));
+        manager.finishWave(grid(row("A", "C")));
+        manager.setBarcodeSpatialGrid(grid(row("D", "C")));
+
+        GridDiff diff = manager.diffWithPreviousWave();
+
+        assertEquals(2, diff.fromVersion);
+        assertEquals(3, diff.toVersion);
+        assertEquals(1, diff.getChanges().size());
+        assertEquals("A", diff.getChanges().get(0).previousData);
+        assertEquals("D", diff.getChanges().get(0).currentData);
+        assertEquals(2, manager.getLastSnapshotOfWave(1).version);
+    }
+
+    @Test
+    public void sameCellsInNewWaveMakeNewVersion() {
+        manager.finishWave(grid(row("A", "B")));
+
+        GridSnapshot snapshot = manager.setBarcodeSpatialGrid(grid(row("A", "B")));
+
+        assertEquals(2, snapshot.version);
+        assertEquals(2, snapshot.wave);
+        assertEquals(0, manager.diffWithPreviousWave().getChanges().size());
+    }
+
+    @Test
+    public void hasNothingToDiffInFirstWave() {
+        assertNull(manager.diffWithPreviousWave());
+
+        manager.setBarcodeSpatialGrid(grid(row("A")));
+
+        assertNull(manager.diffWithPreviousWave());
+        assertNull(manager.getLastSnapshotOfWave(2));
+    }
+}
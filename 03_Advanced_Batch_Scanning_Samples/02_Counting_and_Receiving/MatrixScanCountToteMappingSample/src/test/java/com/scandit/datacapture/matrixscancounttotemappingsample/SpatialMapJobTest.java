@@ -0,0 +1,190 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancounttotemappingsample;
+
+import static com.scandit.datacapture.matrixscancounttotemappingsample.TestGrids.grid;
+import static com.scandit.datacapture.matrixscancounttotemappingsample.TestGrids.row;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockConstruction;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.scandit.datacapture.barcode.count.capture.BarcodeCountSession;
+import com.scandit.datacapture.barcode.count.capture.map.BarcodeSpatialGrid;
+import com.scandit.datacapture.barcode.data.Barcode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedConstruction;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class SpatialMapJobTest {
+
+    private MockedStatic<Looper> looper;
+    private MockedConstruction<Handler> handlers;
+
+    // The deadline of the current request, run by the tests instead of the main looper.
+    private Runnable pendingTimeout;
+
+    private final List<Object> outcomes = new ArrayList<>();
+    private SpatialMapJob job;
+
+    @Before
+    public void setUp() {
+        looper = mockStatic(Looper.class);
+        handlers = mockConstruction(Handler.class, (handler, context) -> {
+            // Posted runnables run right away, as if the main thread were idle.
+            doAnswer(invocation -> {
+                invocation.<Runnable>getArgument(0).run();
+                return true;
+            }).when(handler).post(any());
+            doAnswer(invocation -> {
+                pendingTimeout = invocation.getArgument(0);
+                return true;
+            }).when(handler).postDelayed(any(), anyLong());
+            doAnswer(invocation -> {
+                if (pendingTimeout == invocation.getArgument(0)) {
+                    pendingTimeout = null;
+                }
+                return null;
+            }).when(handler).removeCallbacks(any());
+        });
+        job = new SpatialMapJob(1, 2, 1000, new SpatialMapJob.Listener() {
+            @Override
+            public void onMapReady(@NonNull GridSnapshot snapshot, long durationNanos) {
+                outcomes.add(snapshot);
+            }
+
+            @Override
+            public void onMapFailed(@NonNull SpatialMapJob.Failure failure, long durationNanos) {
+                outcomes.add(failure);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        handlers.close();
+        looper.close();
+    }
+
+    @Test
+    public void storesAndReportsMapOfFirstFrame() {
+        BarcodeSpatialGrid grid = grid(row("A", "B"));
+        BarcodeCountSession session = session(grid);
+
+        job.start();
+        job.onSessionUpdated(session);
+        job.onSessionUpdated(session);
+
+        verify(session, times(1)).getSpatialMap(1, 2);
+        assertSame(grid, SpatialGridManager.getInstance().getLatestGrid());
+        assertEquals(1, outcomes.size());
+        assertEquals("A", ((GridSnapshot) outcomes.get(0)).getData(0, 0));
+        assertNull(pendingTimeout);
+        assertFalse(job.isRunning());
+    }
+
+    @Test
+    public void mapGeneratedAfterDeadlineIsNotStored() {
+        BarcodeSpatialGrid grid = grid(row("C", "D"));
+        BarcodeCountSession session = session(grid);
+        // The deadline passes while the SDK generates the map.
+        when(session.getSpatialMap(anyInt(), anyInt())).thenAnswer(invocation -> {
+            pendingTimeout.run();
+            return grid;
+        });
+
+        job.start();
+        job.onSessionUpdated(session);
+
+        assertNotSame(grid, SpatialGridManager.getInstance().getLatestGrid());
+        assertEquals(Collections.singletonList(SpatialMapJob.Failure.TIMED_OUT), outcomes);
+    }
+
+    @Test
+    public void timesOutWithoutFrame() {
+        job.start();
+        pendingTimeout.run();
+
+        BarcodeCountSession session = session(grid(row("E", "F")));
+        job.onSessionUpdated(session);
+
+        verify(session, never()).getSpatialMap(anyInt(), anyInt());
+        assertEquals(Collections.singletonList(SpatialMapJob.Failure.TIMED_OUT), outcomes);
+    }
+
+    @Test
+    public void cancelledJobDoesNothing() {
+        BarcodeCountSession session = session(grid(row("G", "H")));
+
+        job.start();
+        job.cancel();
+        job.onSessionUpdated(session);
+
+        verify(session, never()).getSpatialMap(anyInt(), anyInt());
+        assertNull(pendingTimeout);
+        assertTrue(outcomes.isEmpty());
+    }
+
+    @Test
+    public void reportsMissingBarcodesAndGrid() {
+        BarcodeCountSession empty = mock(BarcodeCountSession.class);
+        when(empty.getRecognizedBarcodes()).thenReturn(Collections.emptyList());
+
+        job.start();
+        job.onSessionUpdated(empty);
+        job.start();
+        job.onSessionUpdated(session(null));
+
+        verify(empty, never()).getSpatialMap(anyInt(), anyInt());
+        assertEquals(
+            Arrays.asList(SpatialMapJob.Failure.NO_BARCODES, SpatialMapJob.Failure.NO_GRID),
+            outcomes
+        );
+    }
+
+    private static BarcodeCountSession session(BarcodeSpatialGrid grid) {
+        BarcodeCountSession session = mock(BarcodeCountSession.class);
+        when(session.getRecognizedBarcodes())
+            .thenReturn(Collections.singletonList(mock(Barcode.class)));
+        when(session.getSpatialMap(anyInt(), anyInt())).thenReturn(grid);
+        return session;
+    }
+}
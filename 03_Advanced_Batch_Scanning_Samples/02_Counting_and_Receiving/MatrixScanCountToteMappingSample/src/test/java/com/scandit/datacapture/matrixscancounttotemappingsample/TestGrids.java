@@ -0,0 +1,60 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.matrixscancounttotemappingsample;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.scandit.datacapture.barcode.count.capture.map.BarcodeSpatialGrid;
+import com.scandit.datacapture.barcode.data.Barcode;
+
+// Synthetic spatial grids for JVM tests. The SDK creates grids itself, so they are mocked here.
+final class TestGrids {
+
+    private TestGrids() {
+    }
+
+    // Returns a grid with the given barcode data per row, null for empty cells.
+    static BarcodeSpatialGrid grid(String[]... rows) {
+        BarcodeSpatialGrid grid = mock(BarcodeSpatialGrid.class);
+        int columns = rows.length > 0 ? rows[0].length : 0;
+        when(grid.getRows()).thenReturn(rows.length);
+        when(grid.getColumns()).thenReturn(columns);
+        for (int row = 0; row < rows.length; row++) {
+            for (int column = 0; column < columns; column++) {
+                Barcode barcode = null;
+                if (rows[row][column] != null) {
+                    barcode = mock(Barcode.class);
+                    when(barcode.getData()).thenReturn(rows[row][column]);
+                }
+                when(grid.barcodeAt(row, column)).thenReturn(barcode);
+            }
+        }
+        return grid;
+    }
+
+    static String[] row(String... data) {
+        return data;
+    }
+
+    static GridSnapshot snapshot(long version, String[]... rows) {
+        int columns = rows.length > 0 ? rows[0].length : 0;
+        String[] cells = new String[rows.length * columns];
+        for (int row = 0; row < rows.length; row++) {
+            System.arraycopy(rows[row], 0, cells, row * columns, columns);
+        }
+        return new GridSnapshot(version, 1, rows.length, columns, cells);
+    }
+}
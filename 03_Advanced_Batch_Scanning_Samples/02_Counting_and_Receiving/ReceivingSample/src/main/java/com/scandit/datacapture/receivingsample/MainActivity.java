@@ -22,14 +22,18 @@ import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 
 import com.scandit.datacapture.core.capture.DataCaptureContext;
+import com.scandit.datacapture.countingcommon.ModeSwitchController;
 import com.scandit.datacapture.receivingsample.barcodecount.BarcodeCountPresenter;
 import com.scandit.datacapture.receivingsample.barcodecount.BarcodeCountPresenterActions;
 import com.scandit.datacapture.receivingsample.managers.BarcodeCountCameraManager;
+import com.scandit.datacapture.receivingsample.managers.BarcodeManager;
 import com.scandit.datacapture.receivingsample.results.ExtraButtonStyle;
 import com.scandit.datacapture.receivingsample.results.ResultsActivity;
 import com.scandit.datacapture.receivingsample.sparkscan.SparkScanPresenter;
 import com.scandit.datacapture.receivingsample.sparkscan.SparkScanPresenterActions;
 
+import java.io.File;
+
 public class MainActivity extends CameraPermissionActivity
     implements SparkScanPresenterActions, BarcodeCountPresenterActions {
 
@@ -37,10 +41,11 @@ public class MainActivity extends CameraPermissionActivity
     // `BuildConfig.SCANDIT_LICENSE_KEY`
     public static final String SCANDIT_LICENSE_KEY = BuildConfig.SCANDIT_LICENSE_KEY;
 
+    private static final String SESSION_JOURNAL_FILE = "receiving-session.journal";
+
     private BarcodeCountPresenter barcodeCountPresenter;
     private SparkScanPresenter sparkScanPresenter;
-
-    private boolean inBarcodeCountMode = false;
+    private ModeSwitchController modeSwitchController;
 
     /**
      * The launcher to use when starting the result activity clicking the list button
@@ -78,6 +83,14 @@ public class MainActivity extends CameraPermissionActivity
         // Initialize the camera manager.
         BarcodeCountCameraManager.getInstance().initialize(dataCaptureContext);
 
+        // Keep a journal of the session, and restore the previous session if the app was stopped
+        // in the middle of it. The journal is read in the background, and the list shows the
+        // restored entries once it's done.
+        BarcodeManager.getInstance().openJournal(
+            new File(getFilesDir(), SESSION_JOURNAL_FILE),
+            () -> runOnUiThread(this::onSessionRecovered)
+        );
+
         // Initialize the shared container for the modes' views.
         FrameLayout container = findViewById(R.id.container);
 
@@ -86,29 +99,28 @@ public class MainActivity extends CameraPermissionActivity
             new SparkScanPresenter(this, dataCaptureContext, container, this);
         barcodeCountPresenter =
             new BarcodeCountPresenter(this, dataCaptureContext, container, this);
+        modeSwitchController = new ModeSwitchController(sparkScanPresenter, barcodeCountPresenter);
 
         // Enable SparkScan initially.
-        sparkScanPresenter.enableSparkScan();
+        sparkScanPresenter.enable();
+    }
+
+    private void onSessionRecovered() {
+        if (!isDestroyed()) {
+            sparkScanPresenter.refreshResults();
+        }
     }
 
     @Override
     protected void onPause() {
-        if (inBarcodeCountMode) {
-            barcodeCountPresenter.onPause();
-        } else {
-            sparkScanPresenter.onPause();
-        }
+        modeSwitchController.onPause();
         super.onPause();
     }
 
     @Override
     protected void onResume() {
         super.onResume();
-        if (inBarcodeCountMode) {
-            barcodeCountPresenter.onResume();
-        } else {
-            sparkScanPresenter.onResume();
-        }
+        modeSwitchController.onResume();
 
         // Check for camera permission and request it, if it hasn't yet been granted.
         // Once we have the permission the onCameraPermissionGranted() method will be called.
@@ -117,8 +129,7 @@ public class MainActivity extends CameraPermissionActivity
 
     @Override
     protected void onDestroy() {
-        sparkScanPresenter.onDestroy();
-        barcodeCountPresenter.onDestroy();
+        modeSwitchController.onDestroy();
         super.onDestroy();
     }
 
@@ -132,25 +143,14 @@ public class MainActivity extends CameraPermissionActivity
         super.requestCameraPermission();
     }
 
-    @Override
-    public void runOnMainThread(Runnable action) {
-        runOnUiThread(action);
-    }
-
     @Override
     public void switchToBarcodeCount() {
-        sparkScanPresenter.disableSparkScan();
-        sparkScanPresenter.onPause();
-        barcodeCountPresenter.enableBarcodeCount();
-        inBarcodeCountMode = true;
+        modeSwitchController.switchToBarcodeCount();
     }
 
     @Override
     public void switchToSparkScan() {
-        barcodeCountPresenter.disableBarcodeCount();
-        sparkScanPresenter.enableSparkScan();
-        sparkScanPresenter.onResume();
-        inBarcodeCountMode = false;
+        modeSwitchController.switchToSparkScan();
     }
 
     @Override
@@ -30,13 +30,18 @@ import com.scandit.datacapture.barcode.data.Barcode;
 import com.scandit.datacapture.barcode.data.Symbology;
 import com.scandit.datacapture.core.capture.DataCaptureContext;
 import com.scandit.datacapture.core.data.FrameData;
+import com.scandit.datacapture.countingcommon.ModeSwitchController;
 import com.scandit.datacapture.receivingsample.managers.BarcodeCountCameraManager;
 import com.scandit.datacapture.receivingsample.managers.BarcodeManager;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 
-public class BarcodeCountPresenter implements BarcodeCountListener, BarcodeCountViewUiListener {
+public class BarcodeCountPresenter implements
+    BarcodeCountListener,
+    BarcodeCountViewUiListener,
+    ModeSwitchController.Mode {
 
     private final Context context;
     private final DataCaptureContext dataCaptureContext;
@@ -46,6 +51,9 @@ public class BarcodeCountPresenter implements BarcodeCountListener, BarcodeCount
     private BarcodeCount barcodeCount;
     private BarcodeCountView barcodeCountView;
 
+    // The barcodes last set as additional barcodes of the BarcodeCount session.
+    private final List<Barcode> additionalBarcodes = new ArrayList<>();
+
     private boolean navigatingInternally = false;
 
     public BarcodeCountPresenter(
@@ -95,20 +103,29 @@ public class BarcodeCountPresenter implements BarcodeCountListener, BarcodeCount
         barcodeCountView.setShouldShowSingleScanButton(true);
     }
 
-    public void disableBarcodeCount() {
+    @Override
+    public void disable() {
+        if (barcodeCount == null) {
+            return;
+        }
+
         // When disabling BarcodeCount before switching to SparkScan,
         // remove all views from the container, all listeners,
         // and detach the mode from the context.
+        // The mode and its view are kept, so that switching back only attaches them again.
         container.removeAllViews();
         barcodeCountView.setUiListener(null);
         barcodeCount.removeListener(this);
         dataCaptureContext.removeCurrentMode();
-
-        release();
     }
 
-    public void enableBarcodeCount() {
-        initialize();
+    @Override
+    public void enable() {
+        // The mode and its view are only created the first time BarcodeCount is enabled.
+        boolean created = barcodeCount == null;
+        if (created) {
+            initialize();
+        }
 
         // Reset camera settings to the default settings for BarcodeCount.
         BarcodeCountCameraManager.getInstance().resetDefaultSettings();
@@ -131,24 +148,33 @@ public class BarcodeCountPresenter implements BarcodeCountListener, BarcodeCount
         // Show "clear screen" button
         barcodeCountView.setShouldShowClearHighlightsButton(true);
 
-        // Load already scanned barcodes into the session as additional barcodes.
-        loadAllBarcodesAsAdditionalBarcodes();
+        // Load the barcodes scanned while BarcodeCount was detached into the session as additional
+        // barcodes. A new session gets all the barcodes scanned so far.
+        if (created) {
+            loadAllBarcodesAsAdditionalBarcodes();
+        } else {
+            loadSavedBarcodesAsAdditionalBarcodes();
+        }
 
         // Add the BarcodeCountView to the container.
         container.addView(barcodeCountView);
     }
 
-    private void release() {
+    @Override
+    public void release() {
         barcodeCountView = null;
         barcodeCount = null;
     }
 
     public void resetSession() {
         BarcodeManager.getInstance().reset();
+        BarcodeManager.getInstance().takeSavedBarcodes();
+        additionalBarcodes.clear();
         barcodeCount.clearAdditionalBarcodes();
         barcodeCount.reset();
     }
 
+    @Override
     public void onPause() {
         // Pause camera if the app is going to background,
         // but keep it on if it goes to result screen.
@@ -161,6 +187,7 @@ public class BarcodeCountPresenter implements BarcodeCountListener, BarcodeCount
         barcodeCount.removeListener(this);
     }
 
+    @Override
     public void onResume() {
         // Load already scanned barcodes into the session as additional barcodes.
         if (!navigatingInternally) {
@@ -177,18 +204,24 @@ public class BarcodeCountPresenter implements BarcodeCountListener, BarcodeCount
     }
 
     private void loadAllBarcodesAsAdditionalBarcodes() {
-        List<Barcode> barcodesToSave = BarcodeManager.getInstance().getAllBarcodes();
-        barcodeCount.setAdditionalBarcodes(barcodesToSave);
-    }
-
-    public void onDestroy() {
-        cleanupBarcodeCount();
+        // Everything saved so far is part of the full list, so there is nothing left to take.
+        BarcodeManager.getInstance().takeSavedBarcodes();
+        additionalBarcodes.clear();
+        additionalBarcodes.addAll(BarcodeManager.getInstance().getAllBarcodes());
+        barcodeCount.setAdditionalBarcodes(additionalBarcodes);
     }
 
-    public void cleanupBarcodeCount() {
-        disableBarcodeCount();
-        barcodeCountView = null;
-        barcodeCount = null;
+    // Add the barcodes saved since the last switch to the additional barcodes of the session.
+    // If barcodes were removed in the meantime, the session is reloaded from scratch instead.
+    private void loadSavedBarcodesAsAdditionalBarcodes() {
+        List<Barcode> savedBarcodes = BarcodeManager.getInstance().takeSavedBarcodes();
+        if (savedBarcodes == null) {
+            barcodeCount.reset();
+            loadAllBarcodesAsAdditionalBarcodes();
+        } else if (!savedBarcodes.isEmpty()) {
+            additionalBarcodes.addAll(savedBarcodes);
+            barcodeCount.setAdditionalBarcodes(additionalBarcodes);
+        }
     }
 
     @Override
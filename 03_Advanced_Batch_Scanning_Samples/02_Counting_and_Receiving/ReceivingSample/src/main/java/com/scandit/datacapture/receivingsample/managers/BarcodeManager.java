@@ -16,9 +16,23 @@ package com.scandit.datacapture.receivingsample.managers;
 
 import com.scandit.datacapture.barcode.count.capture.BarcodeCountSession;
 import com.scandit.datacapture.barcode.data.Barcode;
+import com.scandit.datacapture.countingcommon.BarcodeMultiset;
+import com.scandit.datacapture.receivingsample.data.ScanResult;
+import com.scandit.datacapture.receivingsample.sync.CountCrdt;
+import com.scandit.datacapture.receivingsample.sync.CountDelta;
+import com.scandit.datacapture.receivingsample.sync.SyncTransport;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 // Singleton object that centralises barcode management.
 public class BarcodeManager {
@@ -34,53 +48,405 @@ public class BarcodeManager {
         return sharedInstance;
     }
 
-    private final ArrayList<Barcode> scannedBarcodes = new ArrayList<>();
-    private final ArrayList<Barcode> additionalBarcodes = new ArrayList<>();
+    private final BarcodeMultiset scannedBarcodes = new BarcodeMultiset();
+    private final BarcodeMultiset additionalBarcodes = new BarcodeMultiset();
+
+    // Read-only view of all barcodes, rebuilt on demand after a change.
+    private List<Barcode> allBarcodes = Collections.emptyList();
+    private boolean allBarcodesStale = false;
+
+    // Barcodes saved one by one since they were last taken, and whether any barcode was removed
+    // in the meantime, so that BarcodeCount can pick up only what changed while it was detached.
+    private final List<Barcode> savedSinceTaken = new ArrayList<>();
+    private boolean removedSinceTaken = false;
+
+    // Journal of the session, or null if the session is only kept in memory.
+    private SessionJournal journal;
+
+    // Entries restored from the journal. Only their data, symbology and quantity are known, so
+    // they are kept apart from the barcodes scanned since the app started.
+    private final LinkedHashMap<String, ScanResult> recoveredResults = new LinkedHashMap<>();
+    private List<ScanResult> recoveredResultsSnapshot = Collections.emptyList();
+    private boolean recoveredResultsStale = false;
+
+    // Whether the journal is still being replayed, and what was removed from the session in the
+    // meantime, so that the restored entries don't bring it back.
+    private boolean recovering = false;
+    private boolean resetWhileRecovering = false;
+    private final Set<String> removedWhileRecovering = new HashSet<>();
+
+    // Incremented on every change to the session, so that a reader of the results notices it.
+    private int sessionVersion = 0;
+
+    // Counts shared with the other devices receiving the same delivery, or null if this device
+    // receives alone.
+    private CountCrdt sharedCounts;
+    private SyncTransport syncTransport;
 
     private BarcodeManager() {
     }
 
+    // Records all changes to the session in a journal at the given file, and restores the
+    // session that the journal holds if the app was stopped in the middle of one.
+    // The journal is read in the background. onRecovered runs on the journal's thread once the
+    // restored entries are part of the session. Does nothing if a journal is already open.
+    public synchronized void openJournal(File file, Runnable onRecovered) {
+        if (journal != null) {
+            return;
+        }
+        recovering = true;
+        journal = SessionJournal.open(file, results -> {
+            restoreSession(results);
+            onRecovered.run();
+        });
+    }
+
+    private synchronized void restoreSession(List<ScanResult> results) {
+        recovering = false;
+        if (!resetWhileRecovering) {
+            for (ScanResult result : results) {
+                if (removedWhileRecovering.contains(result.barcodeData)) {
+                    continue;
+                }
+                ScanResult restored = new ScanResult(result.barcodeData, result.barcodeSymbology);
+                restored.quantity = result.quantity;
+                recoveredResults.put(restored.barcodeData, restored);
+                recoveredResultsStale = true;
+                sessionVersion++;
+                if (sharedCounts != null) {
+                    sharedCounts.increment(restored.barcodeData, restored.quantity);
+                }
+            }
+        }
+        resetWhileRecovering = false;
+        removedWhileRecovering.clear();
+        publishSharedCounts();
+    }
+
+    // Shares the counts of this device with the other devices on the transport, and merges the
+    // counts they send back. The device id must be unique among the devices and stay the same
+    // for the whole delivery. Does nothing if sync is already started.
+    public synchronized void startSync(String deviceId, SyncTransport transport) {
+        if (sharedCounts != null) {
+            return;
+        }
+        sharedCounts = new CountCrdt(deviceId);
+        for (ScanResult result : recoveredResults.values()) {
+            sharedCounts.increment(result.barcodeData, result.quantity);
+        }
+        scannedBarcodes.forEachGroup(
+            (data, barcodes) -> sharedCounts.increment(data, barcodes.size())
+        );
+        additionalBarcodes.forEachGroup(
+            (data, barcodes) -> sharedCounts.increment(data, barcodes.size())
+        );
+        syncTransport = transport;
+        transport.setReceiver(this::mergeSharedCounts);
+        sharedCounts.takeDelta();
+        transport.send(sharedCounts.getState().encode());
+    }
+
+    // Stops sharing counts. The counts merged from other devices are dropped.
+    public synchronized void stopSync() {
+        if (sharedCounts == null) {
+            return;
+        }
+        syncTransport.setReceiver(null);
+        syncTransport = null;
+        sharedCounts = null;
+    }
+
+    // Returns the count of the given data over all devices, or over this device alone if sync
+    // isn't started.
+    public synchronized long getSharedCount(String data) {
+        if (sharedCounts == null) {
+            ScanResult recovered = recoveredResults.get(data);
+            return scannedBarcodes.count(data) + additionalBarcodes.count(data)
+                + (recovered != null ? recovered.quantity : 0);
+        }
+        return sharedCounts.getCount(data);
+    }
+
+    private void mergeSharedCounts(byte[] encodedDelta) {
+        CountDelta delta;
+        try {
+            delta = CountDelta.decode(encodedDelta);
+        } catch (IllegalArgumentException e) {
+            // Ignore deltas we can't read, the counts they carry arrive again with later ones.
+            return;
+        }
+        synchronized (this) {
+            if (sharedCounts != null) {
+                sharedCounts.merge(delta);
+                // Merging can settle this device's own counters, the others need to know.
+                publishSharedCounts();
+            }
+        }
+    }
+
+    // Sends the counts changed on this device since the last time.
+    private void publishSharedCounts() {
+        if (sharedCounts == null) {
+            return;
+        }
+        CountDelta delta = sharedCounts.takeDelta();
+        if (!delta.isEmpty()) {
+            syncTransport.send(delta.encode());
+        }
+    }
+
     // Adds a single scanned barcode to the list.
-    public void saveBarcode(Barcode barcode) {
+    public synchronized void saveBarcode(Barcode barcode) {
         scannedBarcodes.add(barcode);
+        savedSinceTaken.add(barcode);
+        allBarcodesStale = true;
+        sessionVersion++;
+        if (journal != null) {
+            journal.recordAdd(barcode.getData(), barcode.getSymbology().name(), 1);
+        }
+        if (sharedCounts != null) {
+            sharedCounts.increment(barcode.getData(), 1);
+            publishSharedCounts();
+        }
     }
 
     // Update lists of barcodes with the contents of the current session.
-    public void updateWithSession(BarcodeCountSession session) {
-        scannedBarcodes.clear();
-        scannedBarcodes.addAll(session.getRecognizedBarcodes());
-
-        additionalBarcodes.clear();
-        additionalBarcodes.addAll(session.getAdditionalBarcodes());
+    // Only the barcodes that were added or removed since the last update are applied.
+    public synchronized void updateWithSession(BarcodeCountSession session) {
+        SessionDelta delta =
+            journal != null || sharedCounts != null ? new SessionDelta() : null;
+        boolean scannedChanged =
+            scannedBarcodes.syncWith(session.getRecognizedBarcodes(), delta);
+        boolean additionalChanged =
+            additionalBarcodes.syncWith(session.getAdditionalBarcodes(), delta);
+        if (scannedChanged || additionalChanged) {
+            allBarcodesStale = true;
+            sessionVersion++;
+            if (journal != null) {
+                delta.recordTo(journal);
+            }
+            if (sharedCounts != null) {
+                delta.applyTo(sharedCounts);
+                publishSharedCounts();
+            }
+        }
     }
 
-    // Returns all scanned barcodes.
-    public List<Barcode> getAllBarcodes() {
-        List<Barcode> allBarcodes = new ArrayList<>();
-        allBarcodes.addAll(scannedBarcodes);
-        allBarcodes.addAll(additionalBarcodes);
+    // Returns an immutable snapshot of all scanned barcodes. The same snapshot is returned until
+    // the barcodes change, so callers can skip work when they get the snapshot they already have.
+    public synchronized List<Barcode> getAllBarcodes() {
+        if (allBarcodesStale) {
+            List<Barcode> barcodes =
+                new ArrayList<>(scannedBarcodes.size() + additionalBarcodes.size());
+            scannedBarcodes.addAllTo(barcodes);
+            additionalBarcodes.addAllTo(barcodes);
+            allBarcodes = Collections.unmodifiableList(barcodes);
+            allBarcodesStale = false;
+        }
         return allBarcodes;
     }
 
+    // Returns the barcode data of the session with their quantity, in the order of the results
+    // list. The results are read from the session one page at a time, holding the lock only
+    // while a page is filled, so they can be written out without blocking scanning and without
+    // copying the session. Reading fails if the session changes in the meantime.
+    public synchronized ResultsSource openResults() {
+        return new ResultsCursor();
+    }
+
+    // Returns an immutable snapshot of the entries restored from the journal. The same snapshot is
+    // returned until the entries change.
+    public synchronized List<ScanResult> getRecoveredResults() {
+        if (recoveredResultsStale) {
+            List<ScanResult> results = new ArrayList<>(recoveredResults.size());
+            for (ScanResult result : recoveredResults.values()) {
+                ScanResult copy = new ScanResult(result.barcodeData, result.barcodeSymbology);
+                copy.quantity = result.quantity;
+                results.add(copy);
+            }
+            recoveredResultsSnapshot = Collections.unmodifiableList(results);
+            recoveredResultsStale = false;
+        }
+        return recoveredResultsSnapshot;
+    }
+
+    // Returns the recovered results and all barcodes, read under one lock so that they describe the
+    // same state of the session.
+    public synchronized ResultsListSnapshot getResultsListSnapshot() {
+        return new ResultsListSnapshot(getRecoveredResults(), getAllBarcodes());
+    }
+
+    // Returns the barcodes saved through saveBarcode() since the last call, or null if barcodes
+    // were removed in the meantime and the whole list has to be reloaded instead.
+    public synchronized List<Barcode> takeSavedBarcodes() {
+        List<Barcode> saved = removedSinceTaken ? null : new ArrayList<>(savedSinceTaken);
+        savedSinceTaken.clear();
+        removedSinceTaken = false;
+        return saved;
+    }
+
     // Reset the barcodes lists.
-    public void reset() {
+    public synchronized void reset() {
         scannedBarcodes.clear();
         additionalBarcodes.clear();
+        allBarcodesStale = true;
+        sessionVersion++;
+        savedSinceTaken.clear();
+        removedSinceTaken = true;
+        if (!recoveredResults.isEmpty()) {
+            recoveredResults.clear();
+            recoveredResultsStale = true;
+        }
+        if (journal != null) {
+            journal.recordReset();
+        }
+        if (sharedCounts != null) {
+            sharedCounts.clear();
+            publishSharedCounts();
+        }
+        if (recovering) {
+            resetWhileRecovering = true;
+        }
     }
 
     // Remove all instances of a barcode from the list.
-    public void removeBarcodesWithData(String data) {
-        removeBarcodesFromArray(scannedBarcodes, data);
-        removeBarcodesFromArray(additionalBarcodes, data);
+    public synchronized void removeBarcodesWithData(String data) {
+        removeBarcodesFrom(scannedBarcodes, data);
+        removeBarcodesFrom(additionalBarcodes, data);
+        if (recoveredResults.remove(data) != null) {
+            recoveredResultsStale = true;
+            sessionVersion++;
+        }
+        if (journal != null) {
+            journal.recordRemoveAll(data);
+        }
+        if (sharedCounts != null) {
+            sharedCounts.removeAll(data);
+            publishSharedCounts();
+        }
+        if (recovering) {
+            removedWhileRecovering.add(data);
+        }
+    }
+
+    private void removeBarcodesFrom(BarcodeMultiset barcodes, String data) {
+        if (barcodes.removeAll(data) > 0) {
+            allBarcodesStale = true;
+            removedSinceTaken = true;
+            sessionVersion++;
+        }
     }
 
-    private void removeBarcodesFromArray(ArrayList<Barcode> list, String data) {
-        ArrayList<Barcode> barcodesToRemove = new ArrayList<>();
-        for (Barcode barcode : list) {
-            if (barcode.getData() != null && barcode.getData().equals(data)) {
-                barcodesToRemove.add(barcode);
+    // Walks the recovered results, then the scanned and the additional barcodes, counting each
+    // data once, in the order of the results list.
+    private final class ResultsCursor implements ResultsSource {
+        private final int version = sessionVersion;
+        private final Iterator<ScanResult> recovered = recoveredResults.values().iterator();
+        private final Iterator<String> scanned = scannedBarcodes.dataIterator();
+        private final Iterator<String> additional = additionalBarcodes.dataIterator();
+
+        @Override
+        public int read(ResultsPage page) {
+            synchronized (BarcodeManager.this) {
+                if (version != sessionVersion) {
+                    throw new ConcurrentModificationException("The session changed");
+                }
+                page.clear();
+                while (!page.isFull()) {
+                    if (recovered.hasNext()) {
+                        ScanResult result = recovered.next();
+                        String data = result.barcodeData;
+                        page.add(
+                            data,
+                            result.barcodeSymbology,
+                            result.quantity + scannedBarcodes.count(data)
+                                + additionalBarcodes.count(data)
+                        );
+                    } else if (scanned.hasNext()) {
+                        String data = scanned.next();
+                        if (!recoveredResults.containsKey(data)) {
+                            page.add(
+                                data,
+                                scannedBarcodes.first(data).getSymbology().name(),
+                                scannedBarcodes.count(data) + additionalBarcodes.count(data)
+                            );
+                        }
+                    } else if (additional.hasNext()) {
+                        String data = additional.next();
+                        if (!recoveredResults.containsKey(data)
+                            && scannedBarcodes.count(data) == 0) {
+                            page.add(
+                                data,
+                                additionalBarcodes.first(data).getSymbology().name(),
+                                additionalBarcodes.count(data)
+                            );
+                        }
+                    } else {
+                        break;
+                    }
+                }
+                return page.size();
+            }
+        }
+    }
+
+    // What the results list shows, as returned by getResultsListSnapshot().
+    public static final class ResultsListSnapshot {
+        public final List<ScanResult> recoveredResults;
+        public final List<Barcode> barcodes;
+
+        ResultsListSnapshot(List<ScanResult> recoveredResults, List<Barcode> barcodes) {
+            this.recoveredResults = recoveredResults;
+            this.barcodes = barcodes;
+        }
+    }
+
+    // Net changes of a session update per barcode data, so that a barcode moving from the
+    // recognized to the additional barcodes isn't journaled or shared at all.
+    private static class SessionDelta implements BarcodeMultiset.ChangeListener {
+        private final Map<String, int[]> counts = new LinkedHashMap<>();
+        private final Map<String, String> symbologies = new HashMap<>();
+
+        @Override
+        public void onAdded(Barcode barcode) {
+            countFor(barcode.getData())[0]++;
+            symbologies.put(barcode.getData(), barcode.getSymbology().name());
+        }
+
+        @Override
+        public void onRemoved(String data, int count) {
+            countFor(data)[0] -= count;
+        }
+
+        void recordTo(SessionJournal journal) {
+            for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+                int count = entry.getValue()[0];
+                if (count > 0) {
+                    journal.recordAdd(entry.getKey(), symbologies.get(entry.getKey()), count);
+                } else if (count < 0) {
+                    journal.recordRemove(entry.getKey(), -count);
+                }
+            }
+        }
+
+        void applyTo(CountCrdt sharedCounts) {
+            for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+                int count = entry.getValue()[0];
+                if (count > 0) {
+                    sharedCounts.increment(entry.getKey(), count);
+                } else if (count < 0) {
+                    sharedCounts.decrement(entry.getKey(), -count);
+                }
+            }
+        }
+
+        private int[] countFor(String data) {
+            int[] count = counts.get(data);
+            if (count == null) {
+                count = new int[1];
+                counts.put(data, count);
             }
+            return count;
         }
-        list.removeAll(barcodesToRemove);
     }
 }
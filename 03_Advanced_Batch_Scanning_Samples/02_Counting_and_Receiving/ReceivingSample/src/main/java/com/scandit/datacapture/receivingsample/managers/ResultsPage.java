@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.receivingsample.managers;
+
+import java.util.Arrays;
+
+// A page of the results of a session: barcode data with their symbology and quantity, one row per
+// data. The rows are kept in three arrays of a fixed capacity that share the data and symbology
+// strings with the session, so a page can be filled again and again without allocating.
+public final class ResultsPage {
+
+    private final String[] data;
+    private final String[] symbologies;
+    private final int[] quantities;
+    private int size = 0;
+
+    public ResultsPage(int capacity) {
+        data = new String[capacity];
+        symbologies = new String[capacity];
+        quantities = new int[capacity];
+    }
+
+    // Adds a row. Throws an IllegalStateException if the page is full.
+    public void add(String data, String symbology, int quantity) {
+        if (isFull()) {
+            throw new IllegalStateException("The page is full");
+        }
+        this.data[size] = data;
+        symbologies[size] = symbology;
+        quantities[size] = quantity;
+        size++;
+    }
+
+    // Removes all rows, and lets go of their strings.
+    public void clear() {
+        Arrays.fill(data, 0, size, null);
+        Arrays.fill(symbologies, 0, size, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == data.length;
+    }
+
+    public String getData(int index) {
+        return data[index];
+    }
+
+    public String getSymbology(int index) {
+        return symbologies[index];
+    }
+
+    public int getQuantity(int index) {
+        return quantities[index];
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.receivingsample.managers;
+
+// Results of a session read page by page, so that they can be written out without copying the
+// whole session.
+public interface ResultsSource {
+
+    // Replaces the content of the page with the next results, as many as fit. Returns the number
+    // of results read, 0 once all results were read.
+    // Throws a ConcurrentModificationException if the session changed since the first page.
+    int read(ResultsPage page);
+}
@@ -0,0 +1,422 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.receivingsample.managers;
+
+import com.scandit.datacapture.receivingsample.data.ScanResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// Append-only log of the changes made to a receiving session, so that the session can be
+// restored if the app is killed in the middle of it.
+// The journal is opened and replayed on a background thread. Recording a change only queues it.
+// The same thread writes the queued changes in batches and syncs the file once per batch.
+// Once the log holds many more records than the session has entries, it is rewritten with one
+// record per entry.
+//
+// The file starts with a header, followed by records of the form
+// [payload length: int][CRC32 of payload: int][payload]. A record that is cut short or doesn't
+// match its checksum marks the end of the log: it and anything after it are dropped on recovery.
+public class SessionJournal {
+
+    private static final int MAGIC = 0x52435631; // "RCV1"
+    private static final int HEADER_SIZE = 4;
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private static final byte TYPE_ADD = 1;
+    private static final byte TYPE_REMOVE = 2;
+    private static final byte TYPE_RESET = 3;
+
+    // Count of a REMOVE record that removes all barcodes with the given data.
+    private static final int ALL = Integer.MAX_VALUE;
+
+    private static final long FLUSH_DELAY_MILLIS = 100;
+    private static final int MIN_RECORDS_BEFORE_COMPACTION = 1024;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File file;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor();
+
+    // Changes recorded but not written yet, guarded by itself.
+    private List<Change> pending = new ArrayList<>();
+    private boolean flushScheduled = false;
+
+    // The state below is only accessed on the writer thread.
+    private FileChannel channel;
+    private final LinkedHashMap<String, ScanResult> entries = new LinkedHashMap<>();
+    private int recordCount;
+    private boolean failed = false;
+
+    private volatile long recoveryNanos = -1;
+
+    // Receives the entries of the session found in the journal.
+    public interface RecoveryListener {
+        // Called on the writer thread once the journal is replayed. The results are empty if the
+        // journal couldn't be read, in which case the session is only kept in memory.
+        void onRecovered(List<ScanResult> results);
+    }
+
+    private SessionJournal(File file) {
+        this.file = file;
+    }
+
+    // Opens the journal at the given file, creating it if needed, and replays its content in the
+    // background. Changes recorded in the meantime are written once the replay is over.
+    public static SessionJournal open(File file, RecoveryListener listener) {
+        SessionJournal journal = new SessionJournal(file);
+        journal.writer.execute(() -> journal.openAndRecover(listener));
+        return journal;
+    }
+
+    // Returns how long replaying the journal took, in nanoseconds, or -1 until it's replayed.
+    public long getRecoveryNanos() {
+        return recoveryNanos;
+    }
+
+    public void recordAdd(String data, String symbology, int count) {
+        enqueue(new Change(TYPE_ADD, data, symbology, count));
+    }
+
+    public void recordRemove(String data, int count) {
+        enqueue(new Change(TYPE_REMOVE, data, null, count));
+    }
+
+    public void recordRemoveAll(String data) {
+        enqueue(new Change(TYPE_REMOVE, data, null, ALL));
+    }
+
+    public void recordReset() {
+        enqueue(new Change(TYPE_RESET, null, null, 0));
+    }
+
+    private void enqueue(Change change) {
+        synchronized (this) {
+            pending.add(change);
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        writer.schedule(this::writePending, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void openAndRecover(RecoveryListener listener) {
+        long start = System.nanoTime();
+        List<ScanResult> results;
+        try {
+            channel = new RandomAccessFile(file, "rw").getChannel();
+            recordCount = recover();
+            results = copyOf(entries.values());
+        } catch (IOException e) {
+            // Stop journaling, the session goes on in memory only.
+            failed = true;
+            closeChannel();
+            entries.clear();
+            results = Collections.emptyList();
+        }
+        recoveryNanos = System.nanoTime() - start;
+        listener.onRecovered(results);
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to release.
+        }
+        channel = null;
+    }
+
+    private void writePending() {
+        List<Change> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new ArrayList<>();
+            flushScheduled = false;
+        }
+        if (batch.isEmpty() || failed) {
+            return;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(1024);
+            for (Change change : batch) {
+                buffer = appendRecord(buffer, change);
+                apply(change);
+            }
+            buffer.flip();
+            channel.position(channel.size());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            recordCount += batch.size();
+
+            if (recordCount >= MIN_RECORDS_BEFORE_COMPACTION && recordCount > 2 * entries.size()) {
+                compact();
+            }
+        } catch (IOException e) {
+            // Stop journaling, the session goes on in memory only.
+            failed = true;
+        }
+    }
+
+    // Rewrites the journal with a single record per entry. The new content is written to a
+    // separate file first, which then replaces the journal, so a crash never leaves it half
+    // written.
+    private void compact() throws IOException {
+        File compacted = new File(file.getPath() + ".compact");
+        write(compacted, entries.values());
+
+        channel.close();
+        if (!compacted.renameTo(file)) {
+            throw new IOException("Could not replace " + file + " with its compacted copy");
+        }
+        channel = new RandomAccessFile(file, "rw").getChannel();
+        recordCount = entries.size();
+    }
+
+    // Writes a journal holding a single record per entry to the given file.
+    static void write(File target, Collection<ScanResult> entries) throws IOException {
+        FileChannel targetChannel = new RandomAccessFile(target, "rw").getChannel();
+        try {
+            targetChannel.truncate(0);
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + entries.size() * 32);
+            buffer.putInt(MAGIC);
+            for (ScanResult entry : entries) {
+                buffer = appendRecord(buffer, new Change(
+                    TYPE_ADD, entry.barcodeData, entry.barcodeSymbology, entry.quantity
+                ));
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                targetChannel.write(buffer);
+            }
+            targetChannel.force(true);
+        } finally {
+            targetChannel.close();
+        }
+    }
+
+    // Replays the journal into the entries and returns the number of valid records.
+    // Drops a torn or corrupted tail, and writes the header of a new journal.
+    private int recover() throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC);
+            header.flip();
+            channel.write(header, 0);
+            channel.force(true);
+            return 0;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // Keep reading until the whole file is in the buffer.
+        }
+        buffer.flip();
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException(file + " is not a session journal");
+        }
+
+        int count = 0;
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.array(), buffer.position(), length);
+            if ((int) crc.getValue() != checksum) {
+                buffer.position(start);
+                break;
+            }
+            int end = buffer.position() + length;
+            int limit = buffer.limit();
+            Change change;
+            buffer.limit(end);
+            try {
+                change = readChange(buffer);
+            } catch (RuntimeException e) {
+                // The record matches its checksum but its content doesn't add up, so it's
+                // treated like a corrupted one.
+                buffer.limit(limit);
+                buffer.position(start);
+                break;
+            }
+            buffer.limit(limit);
+            apply(change);
+            buffer.position(end);
+            count++;
+        }
+
+        if (buffer.position() < size) {
+            channel.truncate(buffer.position());
+            channel.force(true);
+        }
+        return count;
+    }
+
+    private void apply(Change change) {
+        switch (change.type) {
+            case TYPE_ADD: {
+                ScanResult entry = entries.get(change.data);
+                if (entry == null) {
+                    entry = new ScanResult(change.data, change.symbology);
+                    entry.quantity = change.count;
+                    entries.put(change.data, entry);
+                } else {
+                    entry.quantity += change.count;
+                }
+                break;
+            }
+            case TYPE_REMOVE: {
+                ScanResult entry = entries.get(change.data);
+                if (entry != null) {
+                    if (change.count == ALL || entry.quantity <= change.count) {
+                        entries.remove(change.data);
+                    } else {
+                        entry.quantity -= change.count;
+                    }
+                }
+                break;
+            }
+            case TYPE_RESET:
+                entries.clear();
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Appends the record of the change to the buffer, growing it if needed.
+    private static ByteBuffer appendRecord(ByteBuffer buffer, Change change) {
+        byte[] data = change.data != null ? change.data.getBytes(UTF_8) : null;
+        byte[] symbology = change.symbology != null ? change.symbology.getBytes(UTF_8) : null;
+        int length = 1;
+        if (change.type != TYPE_RESET) {
+            length += 4 + (data != null ? data.length : 0) + 4;
+            if (change.type == TYPE_ADD) {
+                length += 4 + (symbology != null ? symbology.length : 0);
+            }
+        }
+
+        if (buffer.remaining() < RECORD_HEADER_SIZE + length) {
+            int capacity = Math.max(
+                buffer.capacity() * 2, buffer.position() + RECORD_HEADER_SIZE + length
+            );
+            ByteBuffer grown = ByteBuffer.allocate(capacity);
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+
+        int payloadStart = buffer.position() + RECORD_HEADER_SIZE;
+        buffer.position(payloadStart);
+        buffer.put(change.type);
+        if (change.type != TYPE_RESET) {
+            putBytes(buffer, data);
+            if (change.type == TYPE_ADD) {
+                putBytes(buffer, symbology);
+            }
+            buffer.putInt(change.count);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), payloadStart, length);
+        buffer.putInt(payloadStart - RECORD_HEADER_SIZE, length);
+        buffer.putInt(payloadStart - 4, (int) crc.getValue());
+        return buffer;
+    }
+
+    private static Change readChange(ByteBuffer buffer) {
+        byte type = buffer.get();
+        if (type == TYPE_RESET) {
+            return new Change(type, null, null, 0);
+        }
+        String data = getString(buffer);
+        String symbology = type == TYPE_ADD ? getString(buffer) : null;
+        return new Change(type, data, symbology, buffer.getInt());
+    }
+
+    // Null is written with a length of -1, since barcodes that aren't text have no data.
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        String value = new String(buffer.array(), buffer.position(), length, UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static List<ScanResult> copyOf(Iterable<ScanResult> results) {
+        List<ScanResult> copies = new ArrayList<>();
+        for (ScanResult result : results) {
+            ScanResult copy = new ScanResult(result.barcodeData, result.barcodeSymbology);
+            copy.quantity = result.quantity;
+            copies.add(copy);
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    private static final class Change {
+        final byte type;
+        final String data;
+        final String symbology;
+        final int count;
+
+        Change(byte type, String data, String symbology, int count) {
+            this.type = type;
+            this.data = data;
+            this.symbology = symbology;
+            this.count = count;
+        }
+    }
+}
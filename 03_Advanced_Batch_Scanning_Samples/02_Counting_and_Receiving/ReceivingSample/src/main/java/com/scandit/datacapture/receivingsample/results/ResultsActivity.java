@@ -17,8 +17,10 @@ package com.scandit.datacapture.receivingsample.results;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
+import android.view.Menu;
 import android.view.MenuItem;
 import android.widget.FrameLayout;
+import android.widget.Toast;
 
 import androidx.appcompat.app.ActionBar;
 import androidx.appcompat.app.AppCompatActivity;
@@ -26,12 +28,22 @@ import androidx.appcompat.app.AppCompatActivity;
 import com.scandit.datacapture.receivingsample.R;
 import com.scandit.datacapture.receivingsample.managers.BarcodeCountCameraManager;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 public class ResultsActivity extends AppCompatActivity {
 
     public static final int CLEAR_SESSION = 1;
 
     private static final String ARG_DONE_BUTTON_STYLE = "done-button-style";
 
+    private static final String EXPORT_FILE_NAME = "results.csv.gz";
+
+    // Exports run one after the other, off the main thread.
+    private static final ExecutorService exportExecutor = Executors.newSingleThreadExecutor();
+
     public static Intent getIntent(
         Context context,
         ExtraButtonStyle doneButtonStyle
@@ -95,13 +107,42 @@ public class ResultsActivity extends AppCompatActivity {
         super.onPause();
     }
 
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.results_menu, menu);
+        return true;
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         if (item.getItemId() == android.R.id.home) {
             onBackPressed();
             return true;
+        } else if (item.getItemId() == R.id.menu_item_export) {
+            exportResults();
+            return true;
         } else {
             return super.onOptionsItemSelected(item);
         }
     }
+
+    // Writes the results to a gzipped CSV file in the app's files directory, ready to be handed
+    // over to a warehouse management system.
+    private void exportResults() {
+        File file = new File(getFilesDir(), EXPORT_FILE_NAME);
+        Context context = getApplicationContext();
+        exportExecutor.execute(() -> {
+            String message = export(context, file);
+            runOnUiThread(() -> Toast.makeText(context, message, Toast.LENGTH_LONG).show());
+        });
+    }
+
+    private static String export(Context context, File file) {
+        try {
+            int count = new ResultsExporter(ResultsExporter.Format.CSV, true).export(file);
+            return context.getString(R.string.export_done, count, file.getPath());
+        } catch (IOException e) {
+            return context.getString(R.string.export_failed);
+        }
+    }
 }
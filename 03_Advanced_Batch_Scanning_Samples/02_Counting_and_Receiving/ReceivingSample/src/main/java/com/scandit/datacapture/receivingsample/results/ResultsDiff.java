@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.receivingsample.results;
+
+import com.scandit.datacapture.barcode.data.Barcode;
+import com.scandit.datacapture.countingcommon.ResultsListDiffer;
+import com.scandit.datacapture.receivingsample.data.ScanResult;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// How the results list tells results apart, and groups a snapshot of the session into results.
+final class ResultsDiff implements ResultsListDiffer.ItemType<ScanResult> {
+
+    static final ResultsDiff ITEM_TYPE = new ResultsDiff();
+
+    private ResultsDiff() {
+    }
+
+    @Override
+    public String dataOf(ScanResult item) {
+        return item.barcodeData;
+    }
+
+    @Override
+    public int quantityOf(ScanResult item) {
+        return item.quantity;
+    }
+
+    @Override
+    public void increaseQuantity(ScanResult item) {
+        item.increaseQuantity();
+    }
+
+    @Override
+    public boolean areContentsTheSame(ScanResult oldItem, int oldQuantity, ScanResult newItem) {
+        return oldQuantity == newItem.quantity
+            && Objects.equals(oldItem.barcodeSymbology, newItem.barcodeSymbology);
+    }
+
+    // Groups the recovered results and the barcodes by data, in the order each data first
+    // appears. The recovered results are copied, so the given snapshot is left untouched.
+    static List<ScanResult> groupByData(
+        List<ScanResult> recovered,
+        List<Barcode> barcodes
+    ) {
+        Map<String, ScanResult> resultsByData = new LinkedHashMap<>();
+        for (ScanResult result : recovered) {
+            ScanResult copy = new ScanResult(result.barcodeData, result.barcodeSymbology);
+            copy.quantity = result.quantity;
+            resultsByData.put(copy.barcodeData, copy);
+        }
+        for (Barcode barcode : barcodes) {
+            ScanResult result = resultsByData.get(barcode.getData());
+            if (result == null) {
+                resultsByData.put(
+                    barcode.getData(),
+                    new ScanResult(barcode.getData(), barcode.getSymbology().name())
+                );
+            } else {
+                result.increaseQuantity();
+            }
+        }
+        return new ArrayList<>(resultsByData.values());
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.receivingsample.results;
+
+import com.scandit.datacapture.receivingsample.managers.BarcodeManager;
+import com.scandit.datacapture.receivingsample.managers.ResultsPage;
+import com.scandit.datacapture.receivingsample.managers.ResultsSource;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.util.ConcurrentModificationException;
+import java.util.zip.GZIPOutputStream;
+
+// Writes the results of the session to a file, for handing them over to a warehouse management
+// system. The results are read from the session a page at a time, and the rows are encoded one by
+// one into a fixed size buffer, so the memory used doesn't depend on the size of the session.
+public class ResultsExporter {
+
+    public enum Format {
+        // Comma separated values, with a header row.
+        CSV,
+        // One JSON object per line.
+        NDJSON
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PAGE_SIZE = 1024;
+
+    // How many times an export starts over because the session changed, before giving up.
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final Format format;
+    private final boolean gzip;
+
+    // Reused for every row.
+    private final StringBuilder row = new StringBuilder(128);
+    private char[] rowChars = new char[128];
+    private CharBuffer rowBuffer = CharBuffer.wrap(rowChars);
+    private final CharsetEncoder encoder = Charset.forName("UTF-8").newEncoder();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ResultsPage page = new ResultsPage(PAGE_SIZE);
+
+    private FileChannel channel;
+    private GzipStream gzipStream;
+    private byte[] gzipChunk;
+    private int rowCount;
+
+    public ResultsExporter(Format format, boolean gzip) {
+        this.format = format;
+        this.gzip = gzip;
+    }
+
+    // Writes the results of the current session to the given file, replacing its content.
+    // Returns the number of rows written, not counting the CSV header. If the session changes
+    // while it is written, the export starts over.
+    // Writes to storage, so call it off the main thread.
+    public int export(File file) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return export(BarcodeManager.getInstance().openResults(), file);
+            } catch (ConcurrentModificationException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw new IOException("The session kept changing during the export", e);
+                }
+            }
+        }
+    }
+
+    public synchronized int export(ResultsSource results, File file) throws IOException {
+        rowCount = 0;
+        buffer.clear();
+        encoder.reset();
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            channel = output.getChannel();
+            if (gzip) {
+                gzipStream = new GzipStream(Channels.newOutputStream(channel));
+                if (gzipChunk == null) {
+                    gzipChunk = new byte[BUFFER_SIZE];
+                }
+            }
+
+            if (format == Format.CSV) {
+                row.setLength(0);
+                row.append("data,symbology,quantity\n");
+                writeRow();
+            }
+            while (results.read(page) > 0) {
+                for (int i = 0, size = page.size(); i < size; i++) {
+                    appendResult(page.getData(i), page.getSymbology(i), page.getQuantity(i));
+                }
+            }
+            flushBuffer();
+
+            if (gzipStream != null) {
+                // Closing the stream would close the channel, only write the gzip trailer.
+                gzipStream.finish();
+            }
+            channel.force(false);
+        } finally {
+            if (gzipStream != null) {
+                // The deflater holds native memory until it is ended, even if the export failed.
+                gzipStream.release();
+            }
+            channel = null;
+            gzipStream = null;
+            page.clear();
+        }
+        return rowCount;
+    }
+
+    private void appendResult(String data, String symbology, int quantity) throws IOException {
+        if (data == null) {
+            // Like the SparkScan results, barcodes without data aren't listed.
+            return;
+        }
+        row.setLength(0);
+        if (format == Format.CSV) {
+            appendCsvField(data);
+            row.append(',');
+            appendCsvField(symbology);
+            row.append(',').append(quantity).append('\n');
+        } else {
+            row.append("{\"data\":");
+            appendJsonString(data);
+            row.append(",\"symbology\":");
+            appendJsonString(symbology);
+            row.append(",\"quantity\":").append(quantity).append("}\n");
+        }
+        writeRow();
+        rowCount++;
+    }
+
+    private void appendCsvField(String value) {
+        boolean quoted = false;
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            char c = value.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quoted) {
+            row.append(value);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    private void appendJsonString(String value) {
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    row.append("\\\"");
+                    break;
+                case '\\':
+                    row.append("\\\\");
+                    break;
+                case '\n':
+                    row.append("\\n");
+                    break;
+                case '\r':
+                    row.append("\\r");
+                    break;
+                case '\t':
+                    row.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        row.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        row.append(c);
+                    }
+                    break;
+            }
+        }
+        row.append('"');
+    }
+
+    // Encodes the current row into the buffer, writing the buffer out whenever it is full.
+    private void writeRow() throws IOException {
+        int length = row.length();
+        if (length > rowChars.length) {
+            rowChars = new char[Math.max(length, rowChars.length * 2)];
+            rowBuffer = CharBuffer.wrap(rowChars);
+        }
+        row.getChars(0, length, rowChars, 0);
+        rowBuffer.limit(length).position(0);
+        while (true) {
+            CoderResult result = encoder.encode(rowBuffer, buffer, false);
+            if (result.isOverflow()) {
+                flushBuffer();
+            } else if (result.isUnderflow()) {
+                return;
+            } else {
+                result.throwException();
+            }
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        if (gzipStream != null) {
+            while (buffer.hasRemaining()) {
+                int length = Math.min(buffer.remaining(), gzipChunk.length);
+                buffer.get(gzipChunk, 0, length);
+                gzipStream.write(gzipChunk, 0, length);
+            }
+        } else {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        buffer.clear();
+    }
+
+    // Gzip stream over the file channel that can give back its deflater without closing the
+    // channel.
+    private static class GzipStream extends GZIPOutputStream {
+        GzipStream(OutputStream output) throws IOException {
+            super(output, BUFFER_SIZE);
+        }
+
+        void release() {
+            def.end();
+        }
+    }
+}
@@ -33,7 +33,6 @@ import com.scandit.datacapture.receivingsample.R;
 import com.scandit.datacapture.receivingsample.data.ScanResult;
 import com.scandit.datacapture.receivingsample.managers.BarcodeManager;
 
-import java.util.List;
 import java.util.Objects;
 
 public class ResultsListPresenter {
@@ -174,11 +173,14 @@ public class ResultsListPresenter {
     }
 
     // Get latest contests of the BarcodeManager and refresh the whole recycler view with them.
+    // The new list is computed in the background and only the differences are applied.
     public void refresh() {
-        clearList();
-        List<Barcode> barcodes = BarcodeManager.getInstance().getAllBarcodes();
-        for (Barcode barcode : barcodes) {
-            addToList(barcode);
-        }
+        BarcodeManager.ResultsListSnapshot snapshot =
+            BarcodeManager.getInstance().getResultsListSnapshot();
+        resultListAdapter.submitAll(
+            snapshot.recoveredResults,
+            snapshot.barcodes,
+            this::updateListItemCount
+        );
     }
 }
@@ -18,7 +18,5 @@ public interface SparkScanPresenterActions {
 
     void requestCameraPermission();
 
-    void runOnMainThread(Runnable action);
-
     void switchToBarcodeCount();
 }
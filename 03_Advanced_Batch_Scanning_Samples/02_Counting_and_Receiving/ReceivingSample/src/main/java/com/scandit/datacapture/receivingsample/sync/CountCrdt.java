@@ -0,0 +1,243 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.receivingsample.sync;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+// Count of received items per barcode data that several devices can update independently and
+// merge in any order.
+//
+// Each device only grows its own pair of counters per data, one for the items it added and one
+// for the items it removed. Removing all items with a data doesn't count removals: it records, for
+// every device, the counters seen at that point, and only what the devices count afterwards is
+// left. Those cleared counters act like a version vector of the removal: a device that didn't see
+// an addition yet can't clear it.
+//
+// A device only removes items it added itself, so what a device counted since it was last cleared
+// is never below zero. A removal that the clearing device didn't see yet can still take it below
+// zero, as the cleared items and the removed ones overlap. Such a contribution counts as zero, so
+// it doesn't eat into the other devices' counts, and the device that made the removal settles it
+// once it sees the clear: it raises its own cleared removals so that it counts from zero again.
+//
+// A merge keeps the highest value of every counter, so merging is commutative, associative and
+// idempotent: receiving a delta twice, or deltas out of order, gives the same counts.
+public class CountCrdt {
+
+    private static final int ADDED = 0;
+    private static final int REMOVED = 1;
+    private static final int CLEARED_ADDED = 2;
+    private static final int CLEARED_REMOVED = 3;
+
+    private final String localDeviceId;
+
+    // Counters per data, then per device: {added, removed, cleared added, cleared removed}.
+    private final HashMap<String, HashMap<String, long[]>> counters = new HashMap<>();
+
+    // Merged count per data, kept up to date as counters change.
+    private final HashMap<String, long[]> totals = new HashMap<>();
+
+    // Data whose counters changed on this device since the last delta was taken.
+    private final LinkedHashSet<String> dirty = new LinkedHashSet<>();
+
+    public CountCrdt(String localDeviceId) {
+        this.localDeviceId = localDeviceId;
+    }
+
+    public String getLocalDeviceId() {
+        return localDeviceId;
+    }
+
+    // Counts items added on this device.
+    public synchronized void increment(String data, long count) {
+        if (count <= 0) {
+            return;
+        }
+        long[] counter = localCounters(data);
+        long before = contribution(counter);
+        counter[ADDED] += count;
+        addToTotal(data, contribution(counter) - before);
+        dirty.add(data);
+    }
+
+    // Counts items removed on this device. Only items added on this device can be removed.
+    public synchronized void decrement(String data, long count) {
+        if (count <= 0) {
+            return;
+        }
+        long[] counter = localCounters(data);
+        long before = contribution(counter);
+        counter[REMOVED] += count;
+        settle(counter);
+        addToTotal(data, contribution(counter) - before);
+        dirty.add(data);
+    }
+
+    // Removes all items with the given data that this device knows of. Items that other devices
+    // count concurrently, or counted before this device merged them, are kept.
+    public synchronized void removeAll(String data) {
+        HashMap<String, long[]> byDevice = counters.get(data);
+        if (byDevice == null) {
+            return;
+        }
+        long change = 0;
+        for (long[] counter : byDevice.values()) {
+            change -= contribution(counter);
+            counter[CLEARED_ADDED] = counter[ADDED];
+            counter[CLEARED_REMOVED] = counter[REMOVED];
+        }
+        addToTotal(data, change);
+        dirty.add(data);
+    }
+
+    // Removes all items of every data that this device knows of.
+    public synchronized void clear() {
+        for (String data : counters.keySet()) {
+            removeAll(data);
+        }
+    }
+
+    // Returns the merged count of items with the given data.
+    public synchronized long getCount(String data) {
+        long[] total = totals.get(data);
+        return total != null ? total[0] : 0;
+    }
+
+    // Returns the merged count of every data with a count above zero.
+    public synchronized Map<String, Long> getCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+            if (entry.getValue()[0] > 0) {
+                counts.put(entry.getKey(), entry.getValue()[0]);
+            }
+        }
+        return counts;
+    }
+
+    // Returns the counters of the data that changed on this device since the last call, and
+    // marks them as sent. A removal changes the cleared counters of every device, so all devices'
+    // counters of a changed data are sent.
+    public synchronized CountDelta takeDelta() {
+        CountDelta delta = new CountDelta();
+        for (String data : dirty) {
+            addAll(delta, data, counters.get(data));
+        }
+        dirty.clear();
+        return delta;
+    }
+
+    // Returns all counters of all devices, for a device that joins or lost deltas.
+    public synchronized CountDelta getState() {
+        CountDelta state = new CountDelta();
+        for (Map.Entry<String, HashMap<String, long[]>> byData : counters.entrySet()) {
+            addAll(state, byData.getKey(), byData.getValue());
+        }
+        return state;
+    }
+
+    // Merges counters received from other devices. Only the data in the delta are visited.
+    // Returns whether any count changed.
+    public synchronized boolean merge(CountDelta delta) {
+        boolean changed = false;
+        for (int i = 0; i < delta.size(); i++) {
+            String data = delta.getData(i);
+            String deviceId = delta.getDeviceId(i);
+            long[] counter = countersFor(data, deviceId);
+            long before = contribution(counter);
+            boolean grown = grow(counter, ADDED, delta.getAdded(i))
+                | grow(counter, REMOVED, delta.getRemoved(i))
+                | grow(counter, CLEARED_ADDED, delta.getClearedAdded(i))
+                | grow(counter, CLEARED_REMOVED, delta.getClearedRemoved(i));
+            if (grown) {
+                if (deviceId.equals(localDeviceId) && settle(counter)) {
+                    dirty.add(data);
+                }
+                addToTotal(data, contribution(counter) - before);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private static boolean grow(long[] counter, int index, long value) {
+        if (value <= counter[index]) {
+            return false;
+        }
+        counter[index] = value;
+        return true;
+    }
+
+    // Raises the cleared removals of a device that removed more than it counted since it was last
+    // cleared. Only the device itself may do this, as only it knows its removals were done before
+    // it saw the clear. Returns whether the counter changed.
+    private static boolean settle(long[] counter) {
+        long counted = (counter[ADDED] - counter[CLEARED_ADDED])
+            - (counter[REMOVED] - counter[CLEARED_REMOVED]);
+        if (counted >= 0) {
+            return false;
+        }
+        counter[CLEARED_REMOVED] -= counted;
+        return true;
+    }
+
+    // Items that a device counted since they were last cleared, never below zero.
+    private static long contribution(long[] counter) {
+        long counted = (counter[ADDED] - counter[CLEARED_ADDED])
+            - (counter[REMOVED] - counter[CLEARED_REMOVED]);
+        return Math.max(0, counted);
+    }
+
+    private static void addAll(CountDelta delta, String data, HashMap<String, long[]> byDevice) {
+        for (Map.Entry<String, long[]> entry : byDevice.entrySet()) {
+            long[] counter = entry.getValue();
+            delta.add(
+                data,
+                entry.getKey(),
+                counter[ADDED],
+                counter[REMOVED],
+                counter[CLEARED_ADDED],
+                counter[CLEARED_REMOVED]
+            );
+        }
+    }
+
+    private long[] localCounters(String data) {
+        return countersFor(data, localDeviceId);
+    }
+
+    private long[] countersFor(String data, String deviceId) {
+        HashMap<String, long[]> byDevice = counters.get(data);
+        if (byDevice == null) {
+            byDevice = new HashMap<>(4);
+            counters.put(data, byDevice);
+        }
+        long[] counter = byDevice.get(deviceId);
+        if (counter == null) {
+            counter = new long[4];
+            byDevice.put(deviceId, counter);
+        }
+        return counter;
+    }
+
+    private void addToTotal(String data, long change) {
+        long[] total = totals.get(data);
+        if (total == null) {
+            total = new long[1];
+            totals.put(data, total);
+        }
+        total[0] += change;
+    }
+}
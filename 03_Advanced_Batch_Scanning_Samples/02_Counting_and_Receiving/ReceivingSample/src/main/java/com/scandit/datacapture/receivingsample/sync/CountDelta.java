@@ -0,0 +1,218 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.receivingsample.sync;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Counters of a CountCrdt exchanged between devices: for each entry, the data, the device that
+// counted it, the device's added and removed counters, and the part of them that was cleared.
+//
+// Encoded as a version byte, a table of the device ids, then the entries. Each entry is the data,
+// the index of its device in the table, and the four counters. Strings are UTF-8 bytes preceded by
+// their length, and all numbers are unsigned varints, so an entry for a 13 digit EAN with small
+// counts takes 19 bytes.
+public class CountDelta {
+
+    private static final int VERSION = 2;
+    private static final int COUNTERS_PER_ENTRY = 4;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final List<String> data = new ArrayList<>();
+    private final List<String> deviceIds = new ArrayList<>();
+    private long[] counters = new long[8 * COUNTERS_PER_ENTRY];
+
+    public int size() {
+        return data.size();
+    }
+
+    public boolean isEmpty() {
+        return data.isEmpty();
+    }
+
+    public void add(
+        String data,
+        String deviceId,
+        long added,
+        long removed,
+        long clearedAdded,
+        long clearedRemoved
+    ) {
+        int offset = this.data.size() * COUNTERS_PER_ENTRY;
+        if (offset + COUNTERS_PER_ENTRY > counters.length) {
+            long[] grown = new long[counters.length * 2];
+            System.arraycopy(counters, 0, grown, 0, counters.length);
+            counters = grown;
+        }
+        this.data.add(data);
+        deviceIds.add(deviceId);
+        counters[offset] = added;
+        counters[offset + 1] = removed;
+        counters[offset + 2] = clearedAdded;
+        counters[offset + 3] = clearedRemoved;
+    }
+
+    public String getData(int index) {
+        return data.get(index);
+    }
+
+    public String getDeviceId(int index) {
+        return deviceIds.get(index);
+    }
+
+    public long getAdded(int index) {
+        return counters[index * COUNTERS_PER_ENTRY];
+    }
+
+    public long getRemoved(int index) {
+        return counters[index * COUNTERS_PER_ENTRY + 1];
+    }
+
+    public long getClearedAdded(int index) {
+        return counters[index * COUNTERS_PER_ENTRY + 2];
+    }
+
+    public long getClearedRemoved(int index) {
+        return counters[index * COUNTERS_PER_ENTRY + 3];
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + size() * 24);
+        out.write(VERSION);
+
+        Map<String, Integer> deviceIndexes = new HashMap<>();
+        List<String> deviceTable = new ArrayList<>();
+        for (String deviceId : deviceIds) {
+            if (!deviceIndexes.containsKey(deviceId)) {
+                deviceIndexes.put(deviceId, deviceTable.size());
+                deviceTable.add(deviceId);
+            }
+        }
+        writeVarint(out, deviceTable.size());
+        for (String deviceId : deviceTable) {
+            writeString(out, deviceId);
+        }
+
+        writeVarint(out, size());
+        for (int i = 0; i < size(); i++) {
+            writeString(out, data.get(i));
+            writeVarint(out, deviceIndexes.get(deviceIds.get(i)));
+            writeVarint(out, getAdded(i));
+            writeVarint(out, getRemoved(i));
+            writeVarint(out, getClearedAdded(i));
+            writeVarint(out, getClearedRemoved(i));
+        }
+        return out.toByteArray();
+    }
+
+    // Throws an IllegalArgumentException if the bytes are not an encoded delta.
+    public static CountDelta decode(byte[] bytes) {
+        Reader reader = new Reader(bytes);
+        int version = reader.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported delta version " + version);
+        }
+
+        int deviceCount = reader.readCount();
+        String[] deviceTable = new String[deviceCount];
+        for (int i = 0; i < deviceCount; i++) {
+            deviceTable[i] = reader.readString();
+        }
+
+        int entryCount = reader.readCount();
+        CountDelta delta = new CountDelta();
+        for (int i = 0; i < entryCount; i++) {
+            String data = reader.readString();
+            int deviceIndex = reader.readCount();
+            if (deviceIndex >= deviceCount) {
+                throw new IllegalArgumentException("Unknown device index " + deviceIndex);
+            }
+            delta.add(
+                data,
+                deviceTable[deviceIndex],
+                reader.readVarint(),
+                reader.readVarint(),
+                reader.readVarint(),
+                reader.readVarint()
+            );
+        }
+        return delta;
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position = 0;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int readByte() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("Truncated delta");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        int readCount() {
+            long value = readVarint();
+            if (value > bytes.length) {
+                throw new IllegalArgumentException("Malformed count " + value);
+            }
+            return (int) value;
+        }
+
+        String readString() {
+            int length = readCount();
+            if (length > bytes.length - position) {
+                throw new IllegalArgumentException("Truncated delta");
+            }
+            String value = new String(bytes, position, length, UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
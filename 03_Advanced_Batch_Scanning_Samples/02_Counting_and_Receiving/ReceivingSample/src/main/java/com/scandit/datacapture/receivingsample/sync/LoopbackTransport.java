@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.receivingsample.sync;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+// Transport between devices living in the same process, for trying out a multi-device session
+// on a single device. Every endpoint delivers what it sends to all other endpoints of the hub.
+// Like a network transport, sending only hands the delta over: the hub delivers it later, on its
+// own thread, in the order it was sent.
+public class LoopbackTransport implements SyncTransport {
+
+    // Connects loopback endpoints to each other.
+    public static class Hub {
+        private final List<LoopbackTransport> endpoints = new CopyOnWriteArrayList<>();
+        private final ExecutorService delivery = Executors.newSingleThreadExecutor();
+
+        public LoopbackTransport connect() {
+            LoopbackTransport endpoint = new LoopbackTransport(this);
+            endpoints.add(endpoint);
+            return endpoint;
+        }
+
+        // Stops delivering deltas. Deltas sent afterwards are dropped.
+        public void close() {
+            delivery.shutdown();
+        }
+
+        void deliver(LoopbackTransport sender, byte[] delta) {
+            try {
+                delivery.execute(() -> {
+                    for (LoopbackTransport endpoint : endpoints) {
+                        if (endpoint != sender) {
+                            endpoint.receive(delta);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The hub is closed.
+            }
+        }
+    }
+
+    private final Hub hub;
+    private volatile Receiver receiver;
+
+    private LoopbackTransport(Hub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void send(byte[] delta) {
+        hub.deliver(this, delta);
+    }
+
+    @Override
+    public void setReceiver(Receiver receiver) {
+        this.receiver = receiver;
+    }
+
+    private void receive(byte[] delta) {
+        Receiver currentReceiver = receiver;
+        if (currentReceiver != null) {
+            currentReceiver.onDeltaReceived(delta);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.receivingsample.sync;
+
+// Carries encoded count deltas between devices. Deltas may arrive more than once and in any order.
+public interface SyncTransport {
+
+    interface Receiver {
+        void onDeltaReceived(byte[] delta);
+    }
+
+    // Sends an encoded delta to all other devices. Called while counts are being updated, so it
+    // must hand the delta over rather than wait for the network.
+    void send(byte[] delta);
+
+    // Sets who gets the deltas sent by the other devices.
+    void setReceiver(Receiver receiver);
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.receivingsample.managers;
+
+import static com.scandit.datacapture.countingcommon.TestBarcodes.barcode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.scandit.datacapture.barcode.data.Symbology;
+import com.scandit.datacapture.receivingsample.sync.CountCrdt;
+import com.scandit.datacapture.receivingsample.sync.CountDelta;
+import com.scandit.datacapture.receivingsample.sync.LoopbackTransport;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class BarcodeManagerTest {
+
+    private final BarcodeManager barcodeManager = BarcodeManager.getInstance();
+
+    private final LoopbackTransport.Hub hub = new LoopbackTransport.Hub();
+
+    @After
+    public void tearDown() {
+        barcodeManager.stopSync();
+        barcodeManager.reset();
+        hub.close();
+    }
+
+    @Test
+    public void resultsCountBarcodesPerDataInFirstSeenOrder() {
+        barcodeManager.saveBarcode(barcode("B", Symbology.CODE128));
+        barcodeManager.saveBarcode(barcode("A"));
+        barcodeManager.saveBarcode(barcode("B", Symbology.CODE128));
+        ResultsPage page = new ResultsPage(10);
+
+        ResultsSource results = barcodeManager.openResults();
+
+        assertEquals(2, results.read(page));
+        assertEquals("B", page.getData(0));
+        assertEquals("CODE128", page.getSymbology(0));
+        assertEquals(2, page.getQuantity(0));
+        assertEquals("A", page.getData(1));
+        assertEquals(1, page.getQuantity(1));
+        assertEquals(0, results.read(page));
+    }
+
+    @Test
+    public void resultsAreReadInPages() {
+        barcodeManager.saveBarcode(barcode("A"));
+        barcodeManager.saveBarcode(barcode("B"));
+        barcodeManager.saveBarcode(barcode("C"));
+        ResultsPage page = new ResultsPage(2);
+
+        ResultsSource results = barcodeManager.openResults();
+
+        assertEquals(2, results.read(page));
+        assertEquals("A", page.getData(0));
+        assertEquals("B", page.getData(1));
+        assertEquals(1, results.read(page));
+        assertEquals("C", page.getData(0));
+        assertEquals(0, results.read(page));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void resultsFailWhenSessionChangesBetweenPages() {
+        barcodeManager.saveBarcode(barcode("A"));
+        barcodeManager.saveBarcode(barcode("B"));
+        ResultsPage page = new ResultsPage(1);
+        ResultsSource results = barcodeManager.openResults();
+        results.read(page);
+
+        barcodeManager.saveBarcode(barcode("A"));
+
+        results.read(page);
+    }
+
+    @Test
+    public void resultsListSnapshotHoldsRecoveredResultsAndBarcodes() {
+        barcodeManager.saveBarcode(barcode("A"));
+        barcodeManager.saveBarcode(barcode("B"));
+
+        BarcodeManager.ResultsListSnapshot snapshot = barcodeManager.getResultsListSnapshot();
+
+        assertEquals(0, snapshot.recoveredResults.size());
+        assertEquals(2, snapshot.barcodes.size());
+        assertSame(barcodeManager.getAllBarcodes(), snapshot.barcodes);
+        assertSame(barcodeManager.getRecoveredResults(), snapshot.recoveredResults);
+    }
+
+    @Test
+    public void sharedCountWithoutSyncIsTheLocalCount() {
+        barcodeManager.saveBarcode(barcode("A"));
+        barcodeManager.saveBarcode(barcode("A"));
+
+        assertEquals(2, barcodeManager.getSharedCount("A"));
+        assertEquals(0, barcodeManager.getSharedCount("B"));
+    }
+
+    @Test
+    public void syncSharesCountsWithOtherDevices() throws Exception {
+        CountCrdt otherDevice = new CountCrdt("dock-2");
+        LoopbackTransport otherEndpoint = hub.connect();
+        otherEndpoint.setReceiver(delta -> otherDevice.merge(CountDelta.decode(delta)));
+        barcodeManager.saveBarcode(barcode("A"));
+
+        barcodeManager.startSync("dock-1", hub.connect());
+        barcodeManager.saveBarcode(barcode("A"));
+        otherDevice.increment("A", 3);
+        otherEndpoint.send(otherDevice.takeDelta().encode());
+        flush();
+
+        assertEquals(5, barcodeManager.getSharedCount("A"));
+        assertEquals(5, otherDevice.getCount("A"));
+
+        barcodeManager.removeBarcodesWithData("A");
+        flush();
+
+        assertEquals(0, barcodeManager.getSharedCount("A"));
+        assertEquals(0, otherDevice.getCount("A"));
+    }
+
+    @Test
+    public void stopSyncIgnoresLaterDeltas() throws Exception {
+        LoopbackTransport otherEndpoint = hub.connect();
+        barcodeManager.startSync("dock-1", hub.connect());
+        barcodeManager.stopSync();
+        CountCrdt otherDevice = new CountCrdt("dock-2");
+        otherDevice.increment("A", 3);
+
+        otherEndpoint.send(otherDevice.takeDelta().encode());
+        flush();
+
+        assertEquals(0, barcodeManager.getSharedCount("A"));
+    }
+
+    // Waits until the hub delivered everything sent so far. The hub delivers in send order.
+    private void flush() throws InterruptedException {
+        byte[] marker = new CountDelta().encode();
+        CountDownLatch delivered = new CountDownLatch(1);
+        hub.connect().setReceiver(delta -> {
+            if (Arrays.equals(marker, delta)) {
+                delivered.countDown();
+            }
+        });
+        hub.connect().send(marker);
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.receivingsample.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.scandit.datacapture.receivingsample.data.ScanResult;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+public class SessionJournalTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void recoversWrittenEntries() throws Exception {
+        File file = folder.newFile();
+        SessionJournal.write(file, Arrays.asList(result("A", 2), result("B", 1)));
+
+        List<ScanResult> recovered = recover(file).results;
+
+        assertEquals(2, recovered.size());
+        assertEquals("A", recovered.get(0).barcodeData);
+        assertEquals("EAN13_UPCA", recovered.get(0).barcodeSymbology);
+        assertEquals(2, recovered.get(0).quantity);
+        assertEquals("B", recovered.get(1).barcodeData);
+        assertEquals(1, recovered.get(1).quantity);
+    }
+
+    @Test
+    public void recoversEntriesWithoutData() throws Exception {
+        File file = folder.newFile();
+        SessionJournal.write(file, Arrays.asList(result(null, 3), result("A", 1)));
+
+        List<ScanResult> recovered = recover(file).results;
+
+        assertEquals(2, recovered.size());
+        assertNull(recovered.get(0).barcodeData);
+        assertEquals(3, recovered.get(0).quantity);
+    }
+
+    @Test
+    public void replaysChangesRecordedWhileRecovering() throws Exception {
+        File file = folder.newFile();
+        SessionJournal.write(file, Arrays.asList(result("A", 2), result("B", 1)));
+        long initialSize = file.length();
+
+        SessionJournal journal = SessionJournal.open(file, results -> { });
+        journal.recordAdd(null, "QR", 1);
+        journal.recordRemove("A", 1);
+        journal.recordRemoveAll("B");
+        journal.recordAdd("C", "CODE128", 4);
+        awaitGrowth(file, initialSize);
+
+        List<ScanResult> recovered = recover(file).results;
+
+        assertEquals(3, recovered.size());
+        assertEquals("A", recovered.get(0).barcodeData);
+        assertEquals(1, recovered.get(0).quantity);
+        assertNull(recovered.get(1).barcodeData);
+        assertEquals("C", recovered.get(2).barcodeData);
+        assertEquals(4, recovered.get(2).quantity);
+    }
+
+    @Test
+    public void dropsTornTail() throws Exception {
+        File file = folder.newFile();
+        SessionJournal.write(file, Arrays.asList(result("A", 1), result("B", 1)));
+        long validSize = file.length();
+        append(file, new byte[] {0, 0, 0, 20, 1, 2});
+
+        List<ScanResult> recovered = recover(file).results;
+
+        assertEquals(2, recovered.size());
+        assertEquals(validSize, file.length());
+    }
+
+    // A record can match its checksum and still not parse, e.g. when the journal was written by
+    // another version. It ends the log like a corrupted record instead of failing the recovery.
+    @Test
+    public void dropsRecordWithInvalidContent() throws Exception {
+        File file = folder.newFile();
+        SessionJournal.write(file, Arrays.asList(result("A", 1)));
+        long validSize = file.length();
+        // An ADD record whose data claims to be longer than the record.
+        ByteBuffer payload = ByteBuffer.allocate(9).put((byte) 1).putInt(1000).putInt(0);
+        append(file, record(payload.array()));
+
+        List<ScanResult> recovered = recover(file).results;
+
+        assertEquals(1, recovered.size());
+        assertEquals(validSize, file.length());
+    }
+
+    @Test
+    public void unreadableJournalKeepsSessionInMemory() throws Exception {
+        File file = folder.newFile();
+        append(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+        Recovery recovery = recover(file);
+
+        assertTrue(recovery.results.isEmpty());
+        assertEquals(8, file.length());
+    }
+
+    @Test
+    public void recovers10kEntriesUnder100Millis() throws Exception {
+        File file = folder.newFile();
+        List<ScanResult> entries = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            entries.add(result(String.format("%013d", i), 1 + i % 5));
+        }
+        SessionJournal.write(file, entries);
+
+        // Warm up, then keep the best of a few runs to leave JIT and GC noise out.
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            Recovery recovery = recover(file);
+            assertEquals(10_000, recovery.results.size());
+            best = Math.min(best, recovery.nanos);
+        }
+        assertTrue(
+            "Recovery took " + TimeUnit.NANOSECONDS.toMillis(best) + " ms",
+            best < TimeUnit.MILLISECONDS.toNanos(100)
+        );
+    }
+
+    private static ScanResult result(String data, int quantity) {
+        ScanResult result = new ScanResult(data, "EAN13_UPCA");
+        result.quantity = quantity;
+        return result;
+    }
+
+    private static Recovery recover(File file) throws InterruptedException {
+        Recovery recovery = new Recovery();
+        SessionJournal journal = SessionJournal.open(file, results -> {
+            recovery.results = results;
+            recovery.done.countDown();
+        });
+        assertTrue(recovery.done.await(5, TimeUnit.SECONDS));
+        recovery.nanos = journal.getRecoveryNanos();
+        return recovery;
+    }
+
+    private static byte[] record(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return ByteBuffer.allocate(8 + payload.length)
+            .putInt(payload.length)
+            .putInt((int) crc.getValue())
+            .put(payload)
+            .array();
+    }
+
+    private static void append(File file, byte[] bytes) throws IOException {
+        try (RandomAccessFile output = new RandomAccessFile(file, "rw")) {
+            output.seek(output.length());
+            output.write(bytes);
+        }
+    }
+
+    // The journal writes its queued changes in the background, about 100 ms after they are
+    // recorded.
+    private static void awaitGrowth(File file, long size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (file.length() <= size) {
+            assertTrue("Journal wasn't written", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static class Recovery {
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile List<ScanResult> results;
+        long nanos;
+    }
+}
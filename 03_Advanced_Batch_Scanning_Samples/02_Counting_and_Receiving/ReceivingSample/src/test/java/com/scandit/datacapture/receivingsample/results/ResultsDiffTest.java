@@ -0,0 +1,95 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.receivingsample.results;
+
+import static com.scandit.datacapture.countingcommon.TestBarcodes.barcode;
+import static com.scandit.datacapture.countingcommon.TestBarcodes.barcodes;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.scandit.datacapture.barcode.data.Symbology;
+import com.scandit.datacapture.receivingsample.data.ScanResult;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ResultsDiffTest {
+
+    @Test
+    public void groupsBarcodesByDataInFirstSeenOrder() {
+        List<ScanResult> results =
+            ResultsDiff.groupByData(Collections.emptyList(), barcodes("B", "A", "B", "B"));
+
+        assertEquals(2, results.size());
+        assertEquals("B", results.get(0).barcodeData);
+        assertEquals(3, results.get(0).quantity);
+        assertEquals("A", results.get(1).barcodeData);
+        assertEquals(1, results.get(1).quantity);
+    }
+
+    @Test
+    public void keepsSymbologyOfFirstBarcode() {
+        List<ScanResult> results = ResultsDiff.groupByData(
+            Collections.emptyList(),
+            Arrays.asList(barcode("A", Symbology.CODE128), barcode("A", Symbology.EAN8))
+        );
+
+        assertEquals("CODE128", results.get(0).barcodeSymbology);
+    }
+
+    @Test
+    public void addsBarcodesToRecoveredResultsWithoutChangingThem() {
+        ScanResult recovered = result("A", 5);
+
+        List<ScanResult> results = ResultsDiff.groupByData(
+            Collections.singletonList(recovered), barcodes("C", "A")
+        );
+
+        assertEquals(2, results.size());
+        assertEquals("A", results.get(0).barcodeData);
+        assertEquals(6, results.get(0).quantity);
+        assertEquals("C", results.get(1).barcodeData);
+        assertEquals(5, recovered.quantity);
+    }
+
+    @Test
+    public void comparesContentsByQuantity() {
+        ScanResult shown = result("A", 1);
+
+        assertEquals("A", ResultsDiff.ITEM_TYPE.dataOf(shown));
+        assertTrue(ResultsDiff.ITEM_TYPE.areContentsTheSame(shown, 1, result("A", 1)));
+        assertFalse(ResultsDiff.ITEM_TYPE.areContentsTheSame(shown, 1, result("A", 2)));
+    }
+
+    @Test
+    public void comparesAgainstQuantityCapturedBeforeTheUpdate() {
+        ScanResult shown = result("A", 1);
+        // The shown result is updated in place while the difference is computed.
+        ResultsDiff.ITEM_TYPE.increaseQuantity(shown);
+
+        assertEquals(2, ResultsDiff.ITEM_TYPE.quantityOf(shown));
+        assertFalse(ResultsDiff.ITEM_TYPE.areContentsTheSame(shown, 1, result("A", 2)));
+    }
+
+    private static ScanResult result(String data, int quantity) {
+        ScanResult result = new ScanResult(data, "EAN13_UPCA");
+        result.quantity = quantity;
+        return result;
+    }
+}
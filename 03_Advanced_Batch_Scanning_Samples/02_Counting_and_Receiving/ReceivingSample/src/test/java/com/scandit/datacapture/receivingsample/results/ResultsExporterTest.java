@@ -0,0 +1,258 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.receivingsample.results;
+
+import static com.scandit.datacapture.countingcommon.TestBarcodes.barcode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.scandit.datacapture.receivingsample.managers.BarcodeManager;
+import com.scandit.datacapture.receivingsample.managers.ResultsPage;
+import com.scandit.datacapture.receivingsample.managers.ResultsSource;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+public class ResultsExporterTest {
+
+    private static final int LARGE_SESSION_SIZE = 1_000_000;
+
+    // What an export may allocate whatever the number of rows: the gzip stream and its buffers.
+    private static final long MAX_ALLOCATED_BYTES = 1024 * 1024;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void tearDown() {
+        BarcodeManager.getInstance().reset();
+    }
+
+    @Test
+    public void exportsCsvWithHeaderAndQuotedFields() throws Exception {
+        RowsSource results = new RowsSource();
+        results.add("A", "EAN13_UPCA", 3);
+        results.add("B,\"C\"", "CODE128", 1);
+
+        List<String> lines = export(ResultsExporter.Format.CSV, false, results);
+
+        assertEquals(3, lines.size());
+        assertEquals("data,symbology,quantity", lines.get(0));
+        assertEquals("A,EAN13_UPCA,3", lines.get(1));
+        assertEquals("\"B,\"\"C\"\"\",CODE128,1", lines.get(2));
+    }
+
+    @Test
+    public void exportsNdjsonWithEscapedStrings() throws Exception {
+        RowsSource results = new RowsSource();
+        results.add("A", "EAN13_UPCA", 3);
+        results.add("\"B\\\n\u0001", "CODE128", 1);
+
+        List<String> lines = export(ResultsExporter.Format.NDJSON, false, results);
+
+        assertEquals(2, lines.size());
+        assertEquals("{\"data\":\"A\",\"symbology\":\"EAN13_UPCA\",\"quantity\":3}", lines.get(0));
+        assertEquals(
+            "{\"data\":\"\\\"B\\\\\\n\\u0001\",\"symbology\":\"CODE128\",\"quantity\":1}",
+            lines.get(1)
+        );
+    }
+
+    @Test
+    public void skipsResultsWithoutData() throws Exception {
+        RowsSource results = new RowsSource();
+        results.add(null, "EAN13_UPCA", 2);
+        results.add("A", "EAN13_UPCA", 1);
+
+        assertEquals(
+            Arrays.asList("data,symbology,quantity", "A,EAN13_UPCA,1"),
+            export(ResultsExporter.Format.CSV, false, results)
+        );
+        results.rewind();
+        assertEquals(
+            Arrays.asList("{\"data\":\"A\",\"symbology\":\"EAN13_UPCA\",\"quantity\":1}"),
+            export(ResultsExporter.Format.NDJSON, false, results)
+        );
+    }
+
+    @Test
+    public void gzippedExportHasSameRows() throws Exception {
+        for (ResultsExporter.Format format : ResultsExporter.Format.values()) {
+            assertEquals(
+                export(format, false, new LargeSession(10_000)),
+                export(format, true, new LargeSession(10_000))
+            );
+        }
+    }
+
+    @Test
+    public void exportsSessionOfBarcodeManager() throws Exception {
+        BarcodeManager barcodeManager = BarcodeManager.getInstance();
+        barcodeManager.saveBarcode(barcode("B"));
+        barcodeManager.saveBarcode(barcode("A"));
+        barcodeManager.saveBarcode(barcode("B"));
+        File file = folder.newFile();
+
+        int rows = new ResultsExporter(ResultsExporter.Format.CSV, false).export(file);
+
+        assertEquals(2, rows);
+        assertEquals(
+            Arrays.asList("data,symbology,quantity", "B,EAN13_UPCA,2", "A,EAN13_UPCA,1"),
+            readLines(file, false)
+        );
+    }
+
+    @Test
+    public void exportsMillionResultsWithBoundedAllocation() throws Exception {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (ResultsExporter.Format format : ResultsExporter.Format.values()) {
+            for (boolean gzip : new boolean[] {false, true}) {
+                ResultsExporter exporter = new ResultsExporter(format, gzip);
+                File file = folder.newFile();
+
+                LargeSession results = new LargeSession(LARGE_SESSION_SIZE);
+                long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+                int rows = exporter.export(results, file);
+                long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+                assertEquals(LARGE_SESSION_SIZE, rows);
+                assertTrue(
+                    format + (gzip ? " gzip" : "") + " allocated " + allocated + " bytes for "
+                        + rows + " rows",
+                    allocated < MAX_ALLOCATED_BYTES
+                );
+                assertEquals(
+                    LARGE_SESSION_SIZE + (format == ResultsExporter.Format.CSV ? 1 : 0),
+                    countLines(file, gzip)
+                );
+            }
+        }
+    }
+
+    private List<String> export(
+        ResultsExporter.Format format,
+        boolean gzip,
+        ResultsSource results
+    ) throws IOException {
+        File file = folder.newFile();
+        new ResultsExporter(format, gzip).export(results, file);
+        return readLines(file, gzip);
+    }
+
+    private static List<String> readLines(File file, boolean gzip) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = open(file, gzip)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static int countLines(File file, boolean gzip) throws IOException {
+        int count = 0;
+        try (BufferedReader reader = open(file, gzip)) {
+            while (reader.readLine() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static BufferedReader open(File file, boolean gzip) throws IOException {
+        InputStream input = new FileInputStream(file);
+        if (gzip) {
+            input = new GZIPInputStream(input);
+        }
+        return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    // Results given row by row.
+    private static class RowsSource implements ResultsSource {
+        private final List<String> data = new ArrayList<>();
+        private final List<String> symbologies = new ArrayList<>();
+        private final List<Integer> quantities = new ArrayList<>();
+        private int position = 0;
+
+        void add(String data, String symbology, int quantity) {
+            this.data.add(data);
+            symbologies.add(symbology);
+            quantities.add(quantity);
+        }
+
+        // Reads the rows again from the start.
+        void rewind() {
+            position = 0;
+        }
+
+        @Override
+        public int read(ResultsPage page) {
+            page.clear();
+            while (!page.isFull() && position < data.size()) {
+                page.add(data.get(position), symbologies.get(position), quantities.get(position));
+                position++;
+            }
+            return page.size();
+        }
+    }
+
+    // A session of the given size, generated page by page. The data repeat every 10k rows, so the
+    // test itself doesn't allocate per row either.
+    private static class LargeSession implements ResultsSource {
+        private static final String[] DATA = new String[10_000];
+
+        static {
+            for (int i = 0; i < DATA.length; i++) {
+                DATA[i] = String.format("59012341%05d", i);
+            }
+        }
+
+        private final int size;
+        private int position = 0;
+
+        LargeSession(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public int read(ResultsPage page) {
+            page.clear();
+            while (!page.isFull() && position < size) {
+                page.add(DATA[position % DATA.length], "EAN13_UPCA", position % 7 + 1);
+                position++;
+            }
+            return page.size();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.receivingsample.sync;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class CountCrdtTest {
+
+    @Test
+    public void mergeAddsCountsOfAllDevices() {
+        CountCrdt a = new CountCrdt("a");
+        CountCrdt b = new CountCrdt("b");
+        a.increment("X", 3);
+        b.increment("X", 2);
+        b.decrement("X", 1);
+
+        a.merge(b.takeDelta());
+        b.merge(a.takeDelta());
+
+        assertEquals(4, a.getCount("X"));
+        assertEquals(4, b.getCount("X"));
+    }
+
+    @Test
+    public void mergeIsIdempotent() {
+        CountCrdt a = new CountCrdt("a");
+        CountCrdt b = new CountCrdt("b");
+        b.increment("X", 2);
+        CountDelta delta = b.takeDelta();
+
+        assertTrue(a.merge(delta));
+        assertFalse(a.merge(delta));
+
+        assertEquals(2, a.getCount("X"));
+    }
+
+    // Removing all items clears what was seen, not the merged total: an item another device
+    // counts concurrently survives the removal on every device.
+    @Test
+    public void removeAllKeepsConcurrentAdditions() {
+        CountCrdt a = new CountCrdt("a");
+        CountCrdt b = new CountCrdt("b");
+        a.increment("X", 2);
+        b.merge(a.takeDelta());
+
+        a.removeAll("X");
+        b.increment("X", 1);
+        CountDelta fromA = a.takeDelta();
+        CountDelta fromB = b.takeDelta();
+        a.merge(fromB);
+        b.merge(fromA);
+
+        assertEquals(1, a.getCount("X"));
+        assertEquals(1, b.getCount("X"));
+    }
+
+    @Test
+    public void concurrentRemoveAllConverges() {
+        CountCrdt a = new CountCrdt("a");
+        CountCrdt b = new CountCrdt("b");
+        a.increment("X", 2);
+        b.increment("X", 3);
+        a.merge(b.getState());
+        b.merge(a.getState());
+
+        a.removeAll("X");
+        b.removeAll("X");
+        CountDelta fromA = a.takeDelta();
+        CountDelta fromB = b.takeDelta();
+        a.merge(fromB);
+        b.merge(fromA);
+
+        assertEquals(0, a.getCount("X"));
+        assertEquals(0, b.getCount("X"));
+        assertTrue(a.getCounts().isEmpty());
+    }
+
+    // A removal that a clear didn't see yet overlaps with the cleared items. It must not eat into
+    // what the other devices count.
+    @Test
+    public void removalUnseenByClearDoesNotGoBelowZero() {
+        CountCrdt a = new CountCrdt("a");
+        CountCrdt b = new CountCrdt("b");
+        CountCrdt c = new CountCrdt("c");
+        b.increment("X", 5);
+        a.merge(b.takeDelta());
+        b.decrement("X", 2);
+
+        a.removeAll("X");
+        c.increment("X", 3);
+        List<CountDelta> deltas = new ArrayList<>();
+        deltas.add(a.takeDelta());
+        deltas.add(b.takeDelta());
+        deltas.add(c.takeDelta());
+        for (CountCrdt replica : new CountCrdt[]{a, b, c}) {
+            for (CountDelta delta : deltas) {
+                replica.merge(delta);
+            }
+        }
+
+        for (CountCrdt replica : new CountCrdt[]{a, b, c}) {
+            assertEquals(3, replica.getCount("X"));
+        }
+        // What b counts afterwards isn't offset by the removal either.
+        b.increment("X", 1);
+        a.merge(b.takeDelta());
+        assertEquals(4, a.getCount("X"));
+    }
+
+    @Test
+    public void countsAfterRemoveAllAreKept() {
+        CountCrdt a = new CountCrdt("a");
+        CountCrdt b = new CountCrdt("b");
+        a.increment("X", 2);
+        a.removeAll("X");
+        a.increment("X", 1);
+
+        b.merge(a.takeDelta());
+
+        assertEquals(1, a.getCount("X"));
+        assertEquals(1, b.getCount("X"));
+    }
+
+    @Test
+    public void clearRemovesEveryData() {
+        CountCrdt a = new CountCrdt("a");
+        a.increment("X", 2);
+        a.increment("Y", 1);
+
+        a.clear();
+
+        assertTrue(a.getCounts().isEmpty());
+        CountCrdt b = new CountCrdt("b");
+        b.merge(a.getState());
+        assertTrue(b.getCounts().isEmpty());
+    }
+
+    // Replicas that merge the same deltas, duplicated and in any order, end with the same counts.
+    @Test
+    public void mergeOrderDoesNotMatter() {
+        Random random = new Random(42);
+        String[] devices = {"a", "b", "c"};
+        List<CountCrdt> replicas = new ArrayList<>();
+        for (String device : devices) {
+            replicas.add(new CountCrdt(device));
+        }
+
+        List<byte[]> log = new ArrayList<>();
+        for (int step = 0; step < 2_000; step++) {
+            CountCrdt replica = replicas.get(random.nextInt(replicas.size()));
+            String data = "item" + random.nextInt(20);
+            int operation = random.nextInt(10);
+            if (operation < 6) {
+                replica.increment(data, 1 + random.nextInt(3));
+            } else if (operation < 9) {
+                replica.decrement(data, 1);
+            } else {
+                replica.removeAll(data);
+            }
+            if (random.nextInt(4) == 0) {
+                byte[] delta = replica.takeDelta().encode();
+                log.add(delta);
+                CountCrdt other = replicas.get(random.nextInt(replicas.size()));
+                other.merge(CountDelta.decode(delta));
+            }
+        }
+        for (CountCrdt replica : replicas) {
+            log.add(replica.takeDelta().encode());
+        }
+
+        List<byte[]> shuffled = new ArrayList<>(log);
+        shuffled.addAll(log.subList(0, log.size() / 2));
+        for (CountCrdt replica : replicas) {
+            Collections.shuffle(shuffled, random);
+            for (byte[] delta : shuffled) {
+                replica.merge(CountDelta.decode(delta));
+            }
+        }
+        CountCrdt late = new CountCrdt("late");
+        Collections.shuffle(shuffled, random);
+        for (byte[] delta : shuffled) {
+            late.merge(CountDelta.decode(delta));
+        }
+
+        for (CountCrdt replica : replicas) {
+            assertEquals(late.getCounts(), replica.getCounts());
+        }
+    }
+
+    // A merge only visits the entries of the delta, however many data the replica holds.
+    @Test
+    public void mergeThroughput() {
+        int dataCount = 100_000;
+        int touchedCount = 1_000;
+        CountCrdt large = new CountCrdt("large");
+        CountCrdt small = new CountCrdt("small");
+        CountCrdt remote = new CountCrdt("remote");
+        for (int i = 0; i < dataCount; i++) {
+            large.increment(String.format("%013d", i), 1);
+            if (i < touchedCount) {
+                small.increment(String.format("%013d", i), 1);
+            }
+        }
+
+        // The deltas only touch data that both replicas hold.
+        int deltas = 2_000;
+        int entriesPerDelta = 50;
+        List<byte[]> encoded = new ArrayList<>();
+        for (int d = 0; d < deltas; d++) {
+            for (int e = 0; e < entriesPerDelta; e++) {
+                int data = (d * entriesPerDelta + e) % touchedCount;
+                remote.increment(String.format("%013d", data), 1);
+            }
+            encoded.add(remote.takeDelta().encode());
+        }
+
+        int merged = deltas * entriesPerDelta;
+        long largeReplica = bestMergeNanos(large, encoded, merged);
+        long smallReplica = bestMergeNanos(small, encoded, merged);
+
+        String measured = "merged " + merged + " entries in " + largeReplica + " ns into "
+            + dataCount + " data, " + smallReplica + " ns into " + touchedCount + " (best of 5)";
+        double entriesPerSecond = merged / (largeReplica / 1e9);
+        assertTrue(measured, entriesPerSecond > 100_000);
+        // Loose, so that cache effects on the larger maps don't make the test flaky.
+        assertTrue(measured, largeReplica < 4 * smallReplica);
+    }
+
+    // Merges the deltas, which add the given number of barcodes, into fresh replicas of the given
+    // state, and returns the best time of a few runs, the first ones warming up.
+    private static long bestMergeNanos(CountCrdt state, List<byte[]> deltas, int added) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            CountCrdt replica = new CountCrdt("replica");
+            replica.merge(state.getState());
+            long start = System.nanoTime();
+            for (byte[] delta : deltas) {
+                replica.merge(CountDelta.decode(delta));
+            }
+            best = Math.min(best, System.nanoTime() - start);
+            assertEquals(total(state) + added, total(replica));
+        }
+        return best;
+    }
+
+    private static long total(CountCrdt crdt) {
+        long total = 0;
+        for (long count : crdt.getCounts().values()) {
+            total += count;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.receivingsample.sync;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class CountDeltaTest {
+
+    @Test
+    public void encodedDeltaDecodesToSameEntries() {
+        CountDelta delta = new CountDelta();
+        delta.add("9780201633610", "device-a", 3, 1, 2, 0);
+        delta.add("9780201633610", "device-b", 300, 0, 0, 0);
+        delta.add("", "device-a", 0, 0, 0, 0);
+
+        CountDelta decoded = CountDelta.decode(delta.encode());
+
+        assertEquals(3, decoded.size());
+        assertEquals("9780201633610", decoded.getData(0));
+        assertEquals("device-a", decoded.getDeviceId(0));
+        assertEquals(3, decoded.getAdded(0));
+        assertEquals(1, decoded.getRemoved(0));
+        assertEquals(2, decoded.getClearedAdded(0));
+        assertEquals(0, decoded.getClearedRemoved(0));
+        assertEquals("device-b", decoded.getDeviceId(1));
+        assertEquals(300, decoded.getAdded(1));
+        assertEquals("", decoded.getData(2));
+    }
+
+    @Test
+    public void entryForEanTakes19Bytes() {
+        CountDelta one = new CountDelta();
+        one.add("9780201633610", "a", 1, 0, 0, 0);
+        CountDelta two = new CountDelta();
+        two.add("9780201633610", "a", 1, 0, 0, 0);
+        two.add("9780201633611", "a", 1, 0, 0, 0);
+
+        assertEquals(19, two.encode().length - one.encode().length);
+    }
+
+    @Test
+    public void malformedDeltasAreRejected() {
+        CountDelta delta = new CountDelta();
+        delta.add("9780201633610", "device-a", 3, 1, 0, 0);
+        byte[] encoded = delta.encode();
+
+        for (int length = 0; length < encoded.length; length++) {
+            assertRejected(Arrays.copyOf(encoded, length));
+        }
+        byte[] wrongVersion = encoded.clone();
+        wrongVersion[0] = 1;
+        assertRejected(wrongVersion);
+    }
+
+    private static void assertRejected(byte[] bytes) {
+        try {
+            CountDelta.decode(bytes);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        fail("Decoded " + Arrays.toString(bytes));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.receivingsample.sync;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class LoopbackTransportTest {
+
+    @Test
+    public void deliversToOtherEndpointsOnHubThread() throws Exception {
+        LoopbackTransport.Hub hub = new LoopbackTransport.Hub();
+        LoopbackTransport sender = hub.connect();
+        LoopbackTransport receiver = hub.connect();
+        List<Thread> senderDeliveries = new ArrayList<>();
+        sender.setReceiver(delta -> senderDeliveries.add(Thread.currentThread()));
+        CountDownLatch received = new CountDownLatch(1);
+        Thread[] deliveryThread = new Thread[1];
+        receiver.setReceiver(delta -> {
+            deliveryThread[0] = Thread.currentThread();
+            received.countDown();
+        });
+
+        sender.send(new byte[] {1});
+
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), deliveryThread[0]);
+        hub.close();
+        assertTrue(senderDeliveries.isEmpty());
+    }
+
+    // Sending must not wait for the receivers, so a sender holding a lock that the receiver
+    // needs can't deadlock.
+    @Test
+    public void sendDoesNotWaitForReceivers() throws Exception {
+        LoopbackTransport.Hub hub = new LoopbackTransport.Hub();
+        LoopbackTransport sender = hub.connect();
+        LoopbackTransport receiver = hub.connect();
+        Object lock = new Object();
+        CountDownLatch received = new CountDownLatch(1);
+        receiver.setReceiver(delta -> {
+            synchronized (lock) {
+                received.countDown();
+            }
+        });
+
+        synchronized (lock) {
+            sender.send(new byte[] {1});
+            assertEquals(1, received.getCount());
+        }
+
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        hub.close();
+    }
+
+    @Test
+    public void devicesConvergeOverLoopback() throws Exception {
+        LoopbackTransport.Hub hub = new LoopbackTransport.Hub();
+        CountCrdt[] replicas = {new CountCrdt("a"), new CountCrdt("b"), new CountCrdt("c")};
+        LoopbackTransport[] endpoints = new LoopbackTransport[replicas.length];
+        for (int i = 0; i < replicas.length; i++) {
+            CountCrdt replica = replicas[i];
+            endpoints[i] = hub.connect();
+            endpoints[i].setReceiver(delta -> replica.merge(CountDelta.decode(delta)));
+        }
+
+        for (int step = 0; step < 300; step++) {
+            int device = step % replicas.length;
+            replicas[device].increment("item" + step % 7, 1);
+            if (step % 50 == 49) {
+                replicas[device].removeAll("item3");
+            }
+            endpoints[device].send(replicas[device].takeDelta().encode());
+        }
+        // The hub delivers in order, so everything was delivered once an empty delta sent last
+        // comes through.
+        byte[] marker = new CountDelta().encode();
+        CountDownLatch delivered = new CountDownLatch(1);
+        hub.connect().setReceiver(delta -> {
+            if (Arrays.equals(marker, delta)) {
+                delivered.countDown();
+            }
+        });
+        endpoints[0].send(marker);
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        hub.close();
+
+        assertEquals(replicas[0].getCounts(), replicas[1].getCounts());
+        assertEquals(replicas[0].getCounts(), replicas[2].getCounts());
+    }
+}
@@ -18,13 +18,29 @@ import android.os.Bundle;
 
 import androidx.annotation.Nullable;
 
+import com.scandit.datacapture.restockingsample.pick.BarcodePickManager;
 import com.scandit.datacapture.restockingsample.pick.PickFragment;
+import com.scandit.datacapture.restockingsample.products.ProductManager;
+
+import java.io.File;
 
 public class MainActivity extends CameraPermissionActivity {
 
+    private static final String PRODUCT_CATALOGUE_FILE = "product_catalogue.bin";
+
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
+        // Match barcodes against a product catalogue copied to the app's files, if any. This has
+        // to happen before super.onCreate, which restores the fragments after a process restart
+        // and they use the ProductManager as soon as they are created.
+        ProductManager.initialize(new File(getFilesDir(), PRODUCT_CATALOGUE_FILE));
+
         super.onCreate(savedInstanceState);
+
+        // Prepare BarcodePick in the background while the permission is requested and the
+        // layout is inflated.
+        BarcodePickManager.getInstance().prewarm();
+
         setContentView(R.layout.activity_main);
 
         initialize(savedInstanceState);
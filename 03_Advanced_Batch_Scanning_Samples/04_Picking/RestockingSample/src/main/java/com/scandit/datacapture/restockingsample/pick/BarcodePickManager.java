@@ -32,9 +32,15 @@ import com.scandit.datacapture.restockingsample.BuildConfig;
 import com.scandit.datacapture.restockingsample.products.ProductManager;
 
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Helper class to create our {@link BarcodePick} and {@link BarcodePickView}.
+ * The data capture context, the settings and the products are prepared on a background thread as
+ * soon as {@link #prewarm()} is called, so the pick screen opens against a ready instance.
  */
 public class BarcodePickManager {
 
@@ -42,6 +48,11 @@ public class BarcodePickManager {
     // `BuildConfig.SCANDIT_LICENSE_KEY`
     public static final String SCANDIT_LICENSE_KEY = BuildConfig.SCANDIT_LICENSE_KEY;
 
+    public static final String PHASE_CONTEXT = "context";
+    public static final String PHASE_SETTINGS = "settings";
+    public static final String PHASE_PRODUCTS = "products";
+    public static final String PHASE_WAIT = "wait";
+
     private static BarcodePickManager sharedInstance;
 
     @NonNull
@@ -53,12 +64,34 @@ public class BarcodePickManager {
     }
 
     private final ProductManager productManager = ProductManager.getInstance();
-    private final DataCaptureContext dataCaptureContext =
-        DataCaptureContext.forLicenseKey(SCANDIT_LICENSE_KEY);
+    private final StartupTrace startupTrace = new StartupTrace(StartupTrace.SYSTEM_CLOCK);
+    private final ExecutorService startupExecutor = Executors.newSingleThreadExecutor();
+
+    private Future<Components> components;
 
     private BarcodePickManager() {
     }
 
+    /**
+     * Starts preparing the data capture context, the settings and the products in the background.
+     * Calling it more than once has no effect.
+     */
+    public synchronized void prewarm() {
+        if (components == null) {
+            components = startupExecutor.submit(this::prepareComponents);
+            // The components are only prepared once, so let the thread end once it's done.
+            startupExecutor.shutdown();
+        }
+    }
+
+    /**
+     * @return How long each startup phase took.
+     */
+    @NonNull
+    public StartupTrace getStartupTrace() {
+        return startupTrace;
+    }
+
     public BarcodePickView createBarcodePickView(ViewGroup parent, BarcodePick barcodePick) {
         // We create the view settings.
         // We keep the default here, but you can use them to specify your own hints to display,
@@ -67,28 +100,86 @@ public class BarcodePickManager {
 
         // We finally create the view, passing it a parent. The BarcodePickView will be
         // automatically added to its parent.
-        return BarcodePickView.newInstance(parent, dataCaptureContext, barcodePick, viewSettings);
+        return BarcodePickView.newInstance(
+            parent, awaitComponents().dataCaptureContext, barcodePick, viewSettings
+        );
     }
 
     public BarcodePick createBarcodePick() {
+        Components components = awaitComponents();
+
+        // We instantiate our product provider, responsible for matching barcodes and products.
+        BarcodePickAsyncMapperProductProviderCallback callback =
+            productManager::convertBarcodesToCallbackItemsAsync;
+        BarcodePickProductProvider provider =
+            new BarcodePickAsyncMapperProductProvider(components.products, callback);
+
+        // And finally create BarcodePick
+        return new BarcodePick(components.dataCaptureContext, components.settings, provider);
+    }
+
+    @NonNull
+    private Components awaitComponents() {
+        Future<Components> pending;
+        synchronized (this) {
+            prewarm();
+            pending = components;
+        }
+
+        long start = startupTrace.begin();
+        try {
+            Components result = pending.get();
+            if (startupTrace.getDurationNanos(PHASE_WAIT) < 0) {
+                // Only the first wait matters, later calls return immediately.
+                startupTrace.end(PHASE_WAIT, start);
+            }
+            return result;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not prepare BarcodePick", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while preparing BarcodePick", e);
+        }
+    }
+
+    @NonNull
+    private Components prepareComponents() {
+        long start = startupTrace.begin();
+        DataCaptureContext dataCaptureContext =
+            DataCaptureContext.forLicenseKey(SCANDIT_LICENSE_KEY);
+        startupTrace.end(PHASE_CONTEXT, start);
+
         // We first create settings and enable the symbologies we want to scan.
+        start = startupTrace.begin();
         BarcodePickSettings settings = new BarcodePickSettings();
         settings.enableSymbology(Symbology.EAN13_UPCA, true);
         settings.enableSymbology(Symbology.EAN8, true);
         settings.enableSymbology(Symbology.CODE39, true);
         settings.enableSymbology(Symbology.CODE128, true);
         settings.enableSymbology(Symbology.UPCE, true);
+        startupTrace.end(PHASE_SETTINGS, start);
 
         // We need the list of products that we want to pick.
+        start = startupTrace.begin();
         Set<BarcodePickProduct> products = productManager.getBarcodePickProducts();
+        startupTrace.end(PHASE_PRODUCTS, start);
 
-        // We instantiate our product provider, responsible for matching barcodes and products.
-        BarcodePickAsyncMapperProductProviderCallback callback =
-            productManager::convertBarcodesToCallbackItemsAsync;
-        BarcodePickProductProvider provider =
-            new BarcodePickAsyncMapperProductProvider(products, callback);
+        return new Components(dataCaptureContext, settings, products);
+    }
 
-        // And finally create BarcodePick
-        return new BarcodePick(dataCaptureContext, settings, provider);
+    private static class Components {
+        final DataCaptureContext dataCaptureContext;
+        final BarcodePickSettings settings;
+        final Set<BarcodePickProduct> products;
+
+        Components(
+            DataCaptureContext dataCaptureContext,
+            BarcodePickSettings settings,
+            Set<BarcodePickProduct> products
+        ) {
+            this.dataCaptureContext = dataCaptureContext;
+            this.settings = settings;
+            this.products = products;
+        }
     }
 }
@@ -0,0 +1,78 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.pick;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records how long each startup phase took.
+ * The time source is injectable, so the trace can be checked with a fake clock.
+ */
+public class StartupTrace {
+
+    /**
+     * Source of monotonic time, in nanoseconds.
+     */
+    public interface Clock {
+        long nanoTime();
+    }
+
+    public static final Clock SYSTEM_CLOCK = System::nanoTime;
+
+    private final Clock clock;
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+
+    public StartupTrace(@NonNull Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @return The start time to pass to {@link #end(String, long)} once the phase is over.
+     */
+    public long begin() {
+        return clock.nanoTime();
+    }
+
+    public void end(@NonNull String phase, long startNanos) {
+        long duration = clock.nanoTime() - startNanos;
+        synchronized (durations) {
+            durations.put(phase, duration);
+        }
+    }
+
+    /**
+     * @return The duration of the phase in nanoseconds, or -1 if it was not recorded.
+     */
+    public long getDurationNanos(@NonNull String phase) {
+        synchronized (durations) {
+            Long duration = durations.get(phase);
+            return duration != null ? duration : -1;
+        }
+    }
+
+    /**
+     * @return The duration of each recorded phase in nanoseconds, in the order they ended.
+     */
+    @NonNull
+    public Map<String, Long> getDurationsNanos() {
+        synchronized (durations) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(durations));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.products;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link ProductCatalog} holding a hash index from barcode content to product on the heap.
+ */
+public class InMemoryProductCatalog implements ProductCatalog {
+
+    /**
+     * Index from barcode content to product, built once so that lookups don't depend on the
+     * size of the catalogue.
+     */
+    @NonNull
+    private final Map<String, Product> productsByItemData;
+
+    public InMemoryProductCatalog(@NonNull Iterable<Product> products) {
+        Map<String, Product> index = new HashMap<>();
+        for (Product product : products) {
+            for (String barcode : product.barcodeData) {
+                // Keep the first product declared for a barcode, as the linear search used to.
+                if (!index.containsKey(barcode)) {
+                    index.put(barcode, product);
+                }
+            }
+        }
+        productsByItemData = Collections.unmodifiableMap(index);
+    }
+
+    @Nullable
+    @Override
+    public Product findProduct(@NonNull String itemData) {
+        return productsByItemData.get(itemData);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.products;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent latency samples and computes percentiles over them.
+ */
+public class LatencyStats {
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    public LatencyStats(int capacity) {
+        samples = new long[capacity];
+    }
+
+    public synchronized void record(long durationNanos) {
+        samples[next] = durationNanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    public synchronized int getSampleCount() {
+        return count;
+    }
+
+    /**
+     * @param percentile The percentile to compute, between 0 and 100.
+     * @return The latency in nanoseconds at the given percentile, or 0 if nothing was recorded.
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            if (count == 0) {
+                return 0;
+            }
+            sorted = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    public long getP50Nanos() {
+        return getPercentileNanos(50);
+    }
+
+    public long getP99Nanos() {
+        return getPercentileNanos(99);
+    }
+
+    public synchronized void reset() {
+        next = 0;
+        count = 0;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.products;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * {@link ProductCatalog} reading an on-disk catalogue through a {@link MappedByteBuffer}.
+ * Opening the catalogue only validates its header: records are paged in by the OS as lookups
+ * touch them, so neither startup time nor heap use grow with the size of the catalogue.
+ * <p>
+ * The file is written by {@link ProductCatalogWriter} and laid out as follows, big endian:
+ * <pre>
+ * int   magic            {@link #MAGIC}
+ * int   version          {@link #VERSION}
+ * int   record count
+ * int   identifier width in bytes
+ * record[record count], sorted by key:
+ *   long  key            see {@link #encodeKey(String)}
+ *   int   quantity to pick
+ *   byte[identifier width] UTF-8 identifier, zero padded
+ * </pre>
+ */
+public class MappedProductCatalog implements ProductCatalog, Closeable {
+    static final int MAGIC = 0x52435043; // "RCPC"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int MAX_KEY_DIGITS = 16;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+    private final int recordCount;
+    private final int identifierWidth;
+    private final int recordSize;
+
+    public MappedProductCatalog(@NonNull File catalogFile) throws IOException {
+        file = new RandomAccessFile(catalogFile, "r");
+        try {
+            FileChannel channel = file.getChannel();
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a product catalogue: " + catalogFile);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported product catalogue version: " + buffer.getInt(4));
+            }
+            recordCount = buffer.getInt(8);
+            identifierWidth = buffer.getInt(12);
+            if (recordCount < 0 || identifierWidth <= 0) {
+                throw new IOException("Corrupt product catalogue header: " + catalogFile);
+            }
+            recordSize = recordSize(identifierWidth);
+            if ((long) HEADER_SIZE + (long) recordCount * recordSize > buffer.capacity()) {
+                throw new IOException("Truncated product catalogue: " + catalogFile);
+            }
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    @Nullable
+    @Override
+    public Product findProduct(@NonNull String itemData) {
+        long key = encodeKey(itemData);
+        if (key < 0) {
+            return null;
+        }
+
+        // Absolute reads only, so lookups from several threads don't interfere.
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int offset = HEADER_SIZE + middle * recordSize;
+            long middleKey = buffer.getLong(offset);
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                return readProduct(offset, itemData);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    @NonNull
+    private Product readProduct(int offset, @NonNull String itemData) {
+        int quantityToPick = buffer.getInt(offset + 8);
+        int identifierOffset = offset + 12;
+        int length = 0;
+        while (length < identifierWidth && buffer.get(identifierOffset + length) != 0) {
+            length++;
+        }
+        byte[] identifier = new byte[length];
+        for (int i = 0; i < length; i++) {
+            identifier[i] = buffer.get(identifierOffset + i);
+        }
+        return new Product(new String(identifier, UTF_8), quantityToPick, itemData);
+    }
+
+    static int recordSize(int identifierWidth) {
+        return 8 + 4 + identifierWidth;
+    }
+
+    /**
+     * Encodes numeric barcode content, such as a GTIN, into a sortable key. The number of digits is
+     * part of the key so that leading zeros stay significant.
+     *
+     * @return The key, or -1 if the content is not made of 1 to {@link #MAX_KEY_DIGITS} digits.
+     */
+    static long encodeKey(@NonNull String itemData) {
+        int length = itemData.length();
+        if (length == 0 || length > MAX_KEY_DIGITS) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = itemData.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value * 100 + length;
+    }
+}
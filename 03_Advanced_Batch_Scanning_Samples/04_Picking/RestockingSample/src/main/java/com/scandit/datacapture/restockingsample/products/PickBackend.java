@@ -0,0 +1,37 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.products;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The service that confirms pick and unpick actions.
+ * A real application would call its backend here. Calls are made from a worker thread and may
+ * block.
+ */
+public interface PickBackend {
+
+    /**
+     * @param itemData The barcode content of the item to pick.
+     * @return Whether the item could be picked.
+     */
+    boolean pick(@NonNull String itemData) throws InterruptedException;
+
+    /**
+     * @param itemData The barcode content of the item to unpick.
+     * @return Whether the item could be unpicked.
+     */
+    boolean unpick(@NonNull String itemData) throws InterruptedException;
+}
@@ -0,0 +1,211 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.products;
+
+import androidx.annotation.NonNull;
+
+import com.scandit.datacapture.restockingsample.result.DisplayProduct;
+import com.scandit.datacapture.restockingsample.result.Header;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the content of the result screen up to date as the scanned and picked codes change.
+ * Only the codes that were added or removed since the previous update are processed, and the sets
+ * passed in are copied, never modified.
+ * <p>
+ * Updates are serialized between themselves and only touch the rows that changed. Each update that
+ * changes a row then publishes the content of the result screen as a new immutable list. Readers
+ * only read the last published list, so they never wait for an update, and an update never waits
+ * for a reader. Publishing copies the row references, the code sets are never copied.
+ */
+public class PickLedger {
+    private static final String UNKNOWN_PRODUCT = "Unknown";
+
+    private final ProductDatabase productDatabase;
+
+    // The working state below is only accessed while holding writeLock.
+    private final Object writeLock = new Object();
+    private final Set<String> scannedCodes = new HashSet<>();
+    private final Set<String> pickedCodes = new HashSet<>();
+
+    // Picked codes grouped by product, in the order they were picked.
+    private final Map<Product, LinkedHashSet<String>> pickedCodesByProduct = new HashMap<>();
+
+    // Rows of the two sections of the result screen, keyed by barcode content.
+    private final Map<String, DisplayProduct> pickedRows = new LinkedHashMap<>();
+    private final Map<String, DisplayProduct> inventoryRows = new LinkedHashMap<>();
+
+    // The content built from the rows above by the last update.
+    @NonNull
+    private volatile List<Object> content;
+
+    public PickLedger(@NonNull ProductDatabase productDatabase) {
+        this.productDatabase = productDatabase;
+        content = buildContent();
+    }
+
+    public void setScannedCodes(@NonNull Set<String> codes) {
+        synchronized (writeLock) {
+            List<String> removed = difference(scannedCodes, codes);
+            List<String> added = difference(codes, scannedCodes);
+            if (removed.isEmpty() && added.isEmpty()) {
+                return;
+            }
+            for (String code : removed) {
+                scannedCodes.remove(code);
+                inventoryRows.remove(code);
+            }
+            for (String code : added) {
+                scannedCodes.add(code);
+                if (!pickedCodes.contains(code)) {
+                    inventoryRows.put(code, createInventoryRow(code));
+                }
+            }
+            content = buildContent();
+        }
+    }
+
+    public void setPickedCodes(@NonNull Set<String> codes) {
+        synchronized (writeLock) {
+            List<String> removed = difference(pickedCodes, codes);
+            List<String> added = difference(codes, pickedCodes);
+            if (removed.isEmpty() && added.isEmpty()) {
+                return;
+            }
+            for (String code : removed) {
+                pickedCodes.remove(code);
+                removePickedRow(code);
+                if (scannedCodes.contains(code)) {
+                    inventoryRows.put(code, createInventoryRow(code));
+                }
+            }
+            for (String code : added) {
+                pickedCodes.add(code);
+                addPickedRow(code);
+                inventoryRows.remove(code);
+            }
+            content = buildContent();
+        }
+    }
+
+    public void clear() {
+        synchronized (writeLock) {
+            scannedCodes.clear();
+            pickedCodes.clear();
+            pickedCodesByProduct.clear();
+            pickedRows.clear();
+            inventoryRows.clear();
+            content = buildContent();
+        }
+    }
+
+    /**
+     * @return The picked items followed by the scanned but not picked items, each section starting
+     * with its {@link Header}. The returned list is immutable.
+     */
+    @NonNull
+    public List<Object> getPickResultContent() {
+        return content;
+    }
+
+    // Called with writeLock held.
+    @NonNull
+    private List<Object> buildContent() {
+        List<Object> result = new ArrayList<>(pickedRows.size() + inventoryRows.size() + 2);
+        result.add(new Header(true, productDatabase.getProductListCount()));
+        result.addAll(pickedRows.values());
+        result.add(new Header(false, inventoryRows.size()));
+        result.addAll(inventoryRows.values());
+        return Collections.unmodifiableList(result);
+    }
+
+    private void addPickedRow(@NonNull String code) {
+        Product product = productDatabase.getProductForItemData(code);
+        if (product == null) {
+            // No product matching item was found
+            pickedRows.put(code, new DisplayProduct(UNKNOWN_PRODUCT, 0, code, true));
+            return;
+        }
+
+        LinkedHashSet<String> codes = pickedCodesByProduct.get(product);
+        if (codes == null) {
+            codes = new LinkedHashSet<>();
+            pickedCodesByProduct.put(product, codes);
+        }
+        codes.add(code);
+
+        // Only show with checkmark in the result list if number of same products in the
+        // displayed list is less or equal to quantity of products to pick.
+        pickedRows.put(code, product.getDisplayProduct(code, codes.size() <= product.quantityToPick));
+    }
+
+    private void removePickedRow(@NonNull String code) {
+        pickedRows.remove(code);
+
+        Product product = productDatabase.getProductForItemData(code);
+        if (product == null) {
+            return;
+        }
+        LinkedHashSet<String> codes = pickedCodesByProduct.get(product);
+        if (codes == null || !codes.remove(code)) {
+            return;
+        }
+        if (codes.isEmpty()) {
+            pickedCodesByProduct.remove(product);
+            return;
+        }
+
+        // The codes picked after the removed one move up, so their checkmark may change.
+        int count = 0;
+        for (String remaining : codes) {
+            count++;
+            pickedRows.put(
+                remaining, product.getDisplayProduct(remaining, count <= product.quantityToPick)
+            );
+        }
+    }
+
+    @NonNull
+    private DisplayProduct createInventoryRow(@NonNull String code) {
+        Product product = productDatabase.getProductForItemData(code);
+        if (product == null) {
+            return new DisplayProduct(UNKNOWN_PRODUCT, 0, code, false);
+        }
+        return product.getDisplayProduct(code, false);
+    }
+
+    @NonNull
+    private static List<String> difference(@NonNull Set<String> from, @NonNull Set<String> minus) {
+        if (from.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>();
+        for (String code : from) {
+            if (!minus.contains(code)) {
+                result.add(code);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.products;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.scandit.datacapture.barcode.pick.capture.BarcodePickActionCallback;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs pick and unpick actions against a {@link PickBackend}.
+ * Actions on different items run concurrently, while actions on the same item run one after the
+ * other in the order they were requested. If several actions are waiting behind a running one for
+ * the same item, only the most recent is kept and the superseded ones finish unsuccessfully.
+ */
+public class PickPipeline {
+    private static final int WORKER_COUNT = 8;
+
+    private final PickBackend backend;
+    private final ExecutorService workers = Executors.newFixedThreadPool(WORKER_COUNT);
+
+    // One lane per item with an action running. Guarded by itself.
+    private final Map<String, Lane> lanes = new HashMap<>();
+
+    public PickPipeline(@NonNull PickBackend backend) {
+        this.backend = backend;
+    }
+
+    public void pick(@NonNull String itemData, @NonNull BarcodePickActionCallback callback) {
+        submit(itemData, new Action(true, callback));
+    }
+
+    public void unpick(@NonNull String itemData, @NonNull BarcodePickActionCallback callback) {
+        submit(itemData, new Action(false, callback));
+    }
+
+    private void submit(@NonNull String itemData, @NonNull Action action) {
+        Action superseded = null;
+        synchronized (lanes) {
+            Lane lane = lanes.get(itemData);
+            if (lane == null) {
+                lanes.put(itemData, new Lane());
+                workers.execute(() -> run(itemData, action));
+            } else {
+                superseded = lane.waiting;
+                lane.waiting = action;
+            }
+        }
+        if (superseded != null) {
+            superseded.callback.onFinish(false);
+        }
+    }
+
+    private void run(@NonNull String itemData, @NonNull Action action) {
+        boolean result;
+        try {
+            result = action.pick ? backend.pick(itemData) : backend.unpick(itemData);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = false;
+        }
+        action.callback.onFinish(result);
+
+        Action next = takeNext(itemData);
+        if (next != null) {
+            workers.execute(() -> run(itemData, next));
+        }
+    }
+
+    @Nullable
+    private Action takeNext(@NonNull String itemData) {
+        synchronized (lanes) {
+            Lane lane = lanes.get(itemData);
+            if (lane == null || lane.waiting == null) {
+                lanes.remove(itemData);
+                return null;
+            }
+            Action next = lane.waiting;
+            lane.waiting = null;
+            return next;
+        }
+    }
+
+    private static class Lane {
+        // The action to run once the current one finishes, if any.
+        @Nullable
+        Action waiting;
+    }
+
+    private static class Action {
+        final boolean pick;
+        @NonNull
+        final BarcodePickActionCallback callback;
+
+        Action(boolean pick, @NonNull BarcodePickActionCallback callback) {
+            this.pick = pick;
+            this.callback = callback;
+        }
+    }
+}
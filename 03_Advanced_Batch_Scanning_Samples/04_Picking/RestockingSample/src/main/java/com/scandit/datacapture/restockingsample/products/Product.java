@@ -46,4 +46,18 @@ public class Product {
     public DisplayProduct getDisplayProduct(String itemData, boolean picked) {
         return new DisplayProduct(identifier, quantityToPick, itemData, picked);
     }
+
+    // Products are equal when they share an identifier, so that instances created by a
+    // ProductCatalog for each lookup still group together.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return identifier.equals(((Product) o).identifier);
+    }
+
+    @Override
+    public int hashCode() {
+        return identifier.hashCode();
+    }
 }
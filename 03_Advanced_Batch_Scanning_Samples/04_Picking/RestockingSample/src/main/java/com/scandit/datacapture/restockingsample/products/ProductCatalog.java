@@ -0,0 +1,31 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.products;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Source of truth for matching barcode content with products, used by {@link ProductDatabase}.
+ */
+public interface ProductCatalog {
+
+    /**
+     * @param itemData The barcode content to look up.
+     * @return The product matching the barcode content, or {@code null} if there is none.
+     */
+    @Nullable
+    Product findProduct(@NonNull String itemData);
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.products;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes the catalogue files read by {@link MappedProductCatalog}.
+ * <p>
+ * Can be run from the command line to convert a CSV file with one
+ * {@code barcode,identifier,quantityToPick} line per barcode:
+ * <pre>
+ * java ProductCatalogWriter catalogue.csv catalogue.bin
+ * </pre>
+ */
+public class ProductCatalogWriter {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int DEFAULT_IDENTIFIER_WIDTH = 32;
+
+    private ProductCatalogWriter() {
+    }
+
+    /**
+     * Writes all barcodes of the given products to a catalogue file.
+     *
+     * @throws IllegalArgumentException if a barcode is not numeric, appears twice, or if an
+     *                                  identifier doesn't fit in {@code identifierWidth} bytes.
+     */
+    public static void write(
+        @NonNull Iterable<Product> products, @NonNull File output, int identifierWidth
+    ) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (Product product : products) {
+            byte[] identifier = product.identifier.getBytes(UTF_8);
+            if (identifier.length > identifierWidth) {
+                throw new IllegalArgumentException(
+                    "Identifier longer than " + identifierWidth + " bytes: " + product.identifier
+                );
+            }
+            for (String barcode : product.barcodeData) {
+                long key = MappedProductCatalog.encodeKey(barcode);
+                if (key < 0) {
+                    throw new IllegalArgumentException("Barcode is not numeric: " + barcode);
+                }
+                entries.add(new Entry(key, product.quantityToPick, identifier));
+            }
+        }
+        Collections.sort(entries, (a, b) -> Long.compare(a.key, b.key));
+
+        try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(output))
+        )) {
+            out.writeInt(MappedProductCatalog.MAGIC);
+            out.writeInt(MappedProductCatalog.VERSION);
+            out.writeInt(entries.size());
+            out.writeInt(identifierWidth);
+
+            byte[] padding = new byte[identifierWidth];
+            long previousKey = -1;
+            for (Entry entry : entries) {
+                if (entry.key == previousKey) {
+                    throw new IllegalArgumentException("Duplicate barcode in catalogue");
+                }
+                previousKey = entry.key;
+                out.writeLong(entry.key);
+                out.writeInt(entry.quantityToPick);
+                out.write(entry.identifier);
+                out.write(padding, 0, identifierWidth - entry.identifier.length);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: ProductCatalogWriter <input.csv> <output.bin>");
+            System.exit(1);
+        }
+
+        List<Product> products = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new FileInputStream(args[0]), UTF_8)
+        )) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 3) {
+                    throw new IllegalArgumentException("Malformed line: " + line);
+                }
+                products.add(new Product(
+                    fields[1].trim(), Integer.parseInt(fields[2].trim()), fields[0].trim()
+                ));
+            }
+        }
+
+        write(products, new File(args[1]), DEFAULT_IDENTIFIER_WIDTH);
+        System.out.println("Wrote " + products.size() + " barcodes to " + args[1]);
+    }
+
+    private static class Entry {
+        final long key;
+        final int quantityToPick;
+        final byte[] identifier;
+
+        Entry(long key, int quantityToPick, byte[] identifier) {
+            this.key = key;
+            this.quantityToPick = quantityToPick;
+            this.identifier = identifier;
+        }
+    }
+}
@@ -31,22 +31,54 @@ public class ProductDatabase {
     @NonNull
     private final List<Product> products;
 
+    @NonNull
+    private final ProductCatalog listedProducts;
+
+    @Nullable
+    private final ProductCatalog catalog;
+
     public ProductDatabase(Product... products) {
+        this(null, products);
+    }
+
+    /**
+     * @param catalog  The catalogue used to match barcodes that don't belong to the products to
+     *                 pick, for example a {@link MappedProductCatalog}. When null, barcodes are
+     *                 matched against the given products only.
+     * @param products The products to pick.
+     */
+    public ProductDatabase(@Nullable ProductCatalog catalog, Product... products) {
         this.products = new ArrayList<>();
 
         Collections.addAll(this.products, products);
+
+        this.listedProducts = new InMemoryProductCatalog(this.products);
+        this.catalog = catalog;
     }
 
     @Nullable
     public Product getProductForItemData(@NonNull String itemData) {
-        for (Product product : products) {
-            for (String barcode : product.barcodeData) {
-                if (itemData.equals(barcode)) {
-                    return product;
-                }
-            }
+        Product product = listedProducts.findProduct(itemData);
+        if (product == null && catalog != null) {
+            product = catalog.findProduct(itemData);
+        }
+        return product;
+    }
+
+    /**
+     * Looks up the products for several barcodes at once.
+     *
+     * @param itemsData The barcode contents to look up.
+     * @return A list with the same size and order as {@code itemsData}, containing the matching
+     * product or {@code null} when no product matches the barcode.
+     */
+    @NonNull
+    public List<Product> lookupAll(@NonNull List<String> itemsData) {
+        List<Product> result = new ArrayList<>(itemsData.size());
+        for (String itemData : itemsData) {
+            result.add(getProductForItemData(itemData));
         }
-        return null;
+        return result;
     }
 
     @NonNull
@@ -15,50 +15,98 @@
 package com.scandit.datacapture.restockingsample.products;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.scandit.datacapture.barcode.pick.capture.BarcodePickActionCallback;
 import com.scandit.datacapture.barcode.pick.data.BarcodePickProduct;
 import com.scandit.datacapture.barcode.pick.data.BarcodePickProductProviderCallback;
-import com.scandit.datacapture.barcode.pick.data.BarcodePickProductProviderCallbackItem;
-import com.scandit.datacapture.restockingsample.result.DisplayProduct;
-import com.scandit.datacapture.restockingsample.result.Header;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.io.File;
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Helper class to query the list of products and to maintain the
  * list of items that are picked and scanned.
- * A real application would implement a database and network call, and we simulate it here by
- * using an {@link ExecutorService} and introducing some artificial delay.
+ * A real application would implement a database and network call, and we simulate it here with a
+ * {@link SimulatedPickBackend} introducing some artificial delay.
  */
 public class ProductManager {
     private static ProductManager sharedInstance;
+    private static boolean initialized = false;
 
     @NonNull
-    public static ProductManager getInstance() {
+    public static synchronized ProductManager getInstance() {
         if (sharedInstance == null) {
             sharedInstance = new ProductManager();
         }
         return sharedInstance;
     }
 
+    /**
+     * Creates the shared instance, matching barcodes against the {@link MappedProductCatalog} in
+     * the given file when there is one. Without the file, or if it can't be read, barcodes are
+     * matched against the products to pick only. Has no effect when called again, for example when
+     * the activity is recreated.
+     *
+     * @param catalogFile A catalogue written by {@link ProductCatalogWriter}.
+     * @throws IllegalStateException If {@link #getInstance()} already created the shared instance
+     *                               without a catalogue, which would otherwise be ignored.
+     */
+    public static synchronized void initialize(@NonNull File catalogFile) {
+        if (sharedInstance == null) {
+            sharedInstance = new ProductManager(createProductDatabase(openCatalog(catalogFile)));
+            initialized = true;
+        } else if (!initialized) {
+            throw new IllegalStateException(
+                "ProductManager.initialize must be called before ProductManager.getInstance"
+            );
+        }
+    }
+
     private final ProductDatabase productDatabase;
+    private final ProductMapper productMapper;
+    private final PickPipeline pickPipeline;
+    private final PickLedger pickLedger;
 
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
-    private final Random waitRandomizer = new Random();
+    public ProductManager() {
+        this(createProductDatabase(null));
+    }
 
-    private Set<String> allScannedCodes = new HashSet<>();
-    private Set<String> allPickedCodes = new HashSet<>();
+    private ProductManager(@NonNull ProductDatabase productDatabase) {
+        this(productDatabase, new SimulatedPickBackend(productDatabase));
+    }
 
-    public ProductManager() {
-        productDatabase = new ProductDatabase(
+    public ProductManager(
+        @NonNull ProductDatabase productDatabase, @NonNull PickBackend pickBackend
+    ) {
+        this.productDatabase = productDatabase;
+        productMapper = new ProductMapper(productDatabase);
+        pickPipeline = new PickPipeline(pickBackend);
+        pickLedger = new PickLedger(productDatabase);
+    }
+
+    @Nullable
+    private static ProductCatalog openCatalog(@NonNull File catalogFile) {
+        if (!catalogFile.isFile()) {
+            return null;
+        }
+        try {
+            // Only the header is read here, the records are paged in by lookups. The catalogue
+            // stays open for as long as the shared instance.
+            return new MappedProductCatalog(catalogFile);
+        } catch (IOException e) {
+            // A missing or corrupt catalogue should not prevent picking the listed products.
+            return null;
+        }
+    }
+
+    @NonNull
+    private static ProductDatabase createProductDatabase(@Nullable ProductCatalog catalog) {
+        return new ProductDatabase(
+            catalog,
             /* Add your Products here:
              * new Product("name", "identifier", "barcode1", " barcode2", ...)
              */
@@ -86,7 +134,8 @@ public class ProductManager {
 
     /**
      * Asynchronously match scanned barcode content with our products, to inform the UI if an item
-     * is searched for or not.
+     * is searched for or not. The mapping doesn't share its threads with the pick and unpick
+     * actions, so a slow pick doesn't delay the barcodes that come after it.
      *
      * @param itemsData The list of barcode to match against.
      * @param callback  The callback to call with the results.
@@ -94,11 +143,17 @@ public class ProductManager {
     public void convertBarcodesToCallbackItemsAsync(
         @NonNull List<String> itemsData, BarcodePickProductProviderCallback callback
     ) {
-        executor.submit(() -> callback.onData(convertBarcodesToCallbackItems(itemsData)));
+        productMapper.map(itemsData, callback);
+    }
+
+    @NonNull
+    public ProductMapper getProductMapper() {
+        return productMapper;
     }
 
     /**
-     * Mark a product as picked. Artificially introduce a lag to simulate a network connection.
+     * Mark a product as picked. Different items are picked concurrently, while actions on the
+     * same item keep their order.
      *
      * @param itemData The barcode content of the item that was tapped in the BarcodePick UI.
      * @param callback The callback to call with the results.
@@ -106,18 +161,12 @@ public class ProductManager {
     public void pickItemAsync(
         @NonNull String itemData, @NonNull BarcodePickActionCallback callback
     ) {
-        executor.submit(() -> {
-            try {
-                Thread.sleep(250 + waitRandomizer.nextInt(500));
-                callback.onFinish(pickItem(itemData));
-            } catch (InterruptedException e) {
-                callback.onFinish(false);
-            }
-        });
+        pickPipeline.pick(itemData, callback);
     }
 
     /**
-     * Unpick a product. Artificially introduce a lag to simulate a network connection.
+     * Unpick a product. Different items are unpicked concurrently, while actions on the same item
+     * keep their order.
      *
      * @param itemData The barcode content of the item that was tapped in the BarcodePick UI.
      * @param callback The callback to call with the results.
@@ -125,14 +174,7 @@ public class ProductManager {
     public void unpickItemAsync(
         @NonNull String itemData, @NonNull BarcodePickActionCallback callback
     ) {
-        executor.submit(() -> {
-            try {
-                Thread.sleep(250 + waitRandomizer.nextInt(500));
-                callback.onFinish(unpickItem(itemData));
-            } catch (InterruptedException e) {
-                callback.onFinish(false);
-            }
-        });
+        pickPipeline.unpick(itemData, callback);
     }
 
     /**
@@ -143,128 +185,21 @@ public class ProductManager {
      */
     @NonNull
     public List<Object> getPickResultContent() {
-
-        List<Object> pickList = buildPickedProductsListAndSetPickedProductsCount();
-        List<Object> inventoryList = getInventoryList();
-
-        List<Object> returnList = new ArrayList<>();
-        returnList.addAll(pickList);
-        returnList.addAll(inventoryList);
-
-        return returnList;
-    }
-
-    /**
-     * Builds a pick list.
-     *
-     * @return list of all products that are picked.
-     */
-    @NonNull
-    private List<Object> buildPickedProductsListAndSetPickedProductsCount() {
-        List<DisplayProduct> displayItems = new ArrayList<>();
-        List<Product> pickedProducts = new ArrayList<>();
-
-        synchronized (this) {
-            for (String item : allPickedCodes) {
-                Product product = productDatabase.getProductForItemData(item);
-
-                if (product != null) {
-                    pickedProducts.add(product);
-                    int numberOfProductsInList = Collections.frequency(pickedProducts, product);
-
-                    // Only show with checkmark in the result list if number of same products in the
-                    // displayed list is less or equal to quantity of products to pick.
-                    boolean picked = numberOfProductsInList <= product.quantityToPick;
-                    displayItems.add(product.getDisplayProduct(item, picked));
-                } else {
-                    // No product matching item was found
-                    displayItems.add(new DisplayProduct("Unknown", 0, item, true));
-                }
-            }
-        }
-
-        Header header = new Header(
-            true,
-            productDatabase.getProductListCount());
-
-        ArrayList<Object> returnList = new ArrayList<>();
-        returnList.add(header);
-        returnList.addAll(displayItems);
-
-        return returnList;
-    }
-
-    /**
-     * Builds an inventory list.
-     *
-     * @return list of scanned and not picked items.
-     */
-    @NonNull
-    private List<Object> getInventoryList() {
-        List<DisplayProduct> scannedItems = new ArrayList<>();
-
-        Set<String> pickedWithoutScannedCodes = allScannedCodes;
-        pickedWithoutScannedCodes.removeAll(allPickedCodes);
-
-        Header header = new Header(false, pickedWithoutScannedCodes.size());
-
-        for (String item : pickedWithoutScannedCodes) {
-            Product product = productDatabase.getProductForItemData(item);
-            DisplayProduct displayProduct;
-
-            if (product == null) {
-                displayProduct = new DisplayProduct("Unknown", 0, item, false);
-            } else {
-                displayProduct = product.getDisplayProduct(item, false);
-            }
-
-            scannedItems.add(displayProduct);
-        }
-
-        ArrayList<Object> returnList = new ArrayList<>();
-        returnList.add(header);
-        returnList.addAll(scannedItems);
-
-        return returnList;
+        return pickLedger.getPickResultContent();
     }
 
-    public synchronized void setAllScannedCodes(Set<String> scannedCodes) {
-        allScannedCodes = scannedCodes;
+    public void setAllScannedCodes(Set<String> scannedCodes) {
+        pickLedger.setScannedCodes(scannedCodes);
     }
 
-    public synchronized void setAllPickedCodes(Set<String> pickedCodes) {
-        allPickedCodes = pickedCodes;
+    public void setAllPickedCodes(Set<String> pickedCodes) {
+        pickLedger.setPickedCodes(pickedCodes);
     }
 
     /**
      * Clear all picked and scanned codes so we can start the sample over again.
      */
-    public synchronized void clearPickedAndScanned() {
-        allPickedCodes.clear();
-        allScannedCodes.clear();
-    }
-
-    private List<BarcodePickProductProviderCallbackItem> convertBarcodesToCallbackItems(
-        @NonNull List<String> itemsData
-    ) {
-        List<BarcodePickProductProviderCallbackItem> callbackItems = new ArrayList<>();
-        for (String itemData : itemsData) {
-            Product product = productDatabase.getProductForItemData(itemData);
-            if (product != null) {
-                callbackItems.add(
-                    new BarcodePickProductProviderCallbackItem(itemData, product.identifier));
-            } else {
-                callbackItems.add(new BarcodePickProductProviderCallbackItem(itemData, null));
-            }
-        }
-        return callbackItems;
-    }
-
-    private synchronized boolean pickItem(@NonNull String itemData) {
-        return productDatabase.verifyProductInDatabase(itemData);
-    }
-
-    private synchronized boolean unpickItem(@NonNull String itemData) {
-        return productDatabase.verifyProductInDatabase(itemData);
+    public void clearPickedAndScanned() {
+        pickLedger.clear();
     }
 }
@@ -0,0 +1,167 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.products;
+
+import androidx.annotation.NonNull;
+
+import com.scandit.datacapture.barcode.pick.data.BarcodePickProductProviderCallback;
+import com.scandit.datacapture.barcode.pick.data.BarcodePickProductProviderCallbackItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps barcode content to products for the BarcodePick product provider.
+ * A single barcode is looked up right away. Larger requests, and anything arriving while a batch is
+ * waiting, are coalesced within the same frame window. Item data that is already being resolved is
+ * not looked up twice, and the lookups run on a bounded worker pool that is not shared with the
+ * pick and unpick actions.
+ */
+public class ProductMapper {
+    private static final long FRAME_WINDOW_MILLIS = 16;
+    private static final int MAX_BATCH_SIZE = 64;
+    private static final int LATENCY_SAMPLES = 512;
+
+    private final ProductDatabase productDatabase;
+
+    private final ScheduledExecutorService batchScheduler =
+        Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService workers = Executors.newFixedThreadPool(
+        Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()))
+    );
+
+    // Item data currently being resolved, mapped to the future product identifier. The future
+    // completes with null when no product matches the item data.
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight =
+        new ConcurrentHashMap<>();
+
+    private final List<String> pending = new ArrayList<>();
+    private boolean flushScheduled = false;
+
+    private final LatencyStats latencyStats = new LatencyStats(LATENCY_SAMPLES);
+
+    public ProductMapper(@NonNull ProductDatabase productDatabase) {
+        this.productDatabase = productDatabase;
+    }
+
+    /**
+     * Asynchronously match scanned barcode content with our products.
+     *
+     * @param itemsData The list of barcode to match against.
+     * @param callback  The callback to call with the results.
+     */
+    public void map(
+        @NonNull List<String> itemsData, @NonNull BarcodePickProductProviderCallback callback
+    ) {
+        long start = System.nanoTime();
+
+        List<CompletableFuture<String>> futures = new ArrayList<>(itemsData.size());
+        List<String> toResolve = new ArrayList<>();
+        for (String itemData : itemsData) {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            CompletableFuture<String> existing = inFlight.putIfAbsent(itemData, future);
+            if (existing == null) {
+                toResolve.add(itemData);
+                futures.add(future);
+            } else {
+                futures.add(existing);
+            }
+        }
+        enqueue(toResolve);
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+            List<BarcodePickProductProviderCallbackItem> callbackItems =
+                new ArrayList<>(itemsData.size());
+            for (int i = 0; i < itemsData.size(); i++) {
+                callbackItems.add(new BarcodePickProductProviderCallbackItem(
+                    itemsData.get(i), futures.get(i).join()
+                ));
+            }
+            latencyStats.record(System.nanoTime() - start);
+            callback.onData(callbackItems);
+        });
+    }
+
+    /**
+     * @return The median time, in milliseconds, between a mapping request and its callback.
+     */
+    public double getP50LatencyMillis() {
+        return latencyStats.getP50Nanos() / 1_000_000.0;
+    }
+
+    /**
+     * @return The 99th percentile time, in milliseconds, between a mapping request and its
+     * callback.
+     */
+    public double getP99LatencyMillis() {
+        return latencyStats.getP99Nanos() / 1_000_000.0;
+    }
+
+    private void enqueue(@NonNull List<String> itemsData) {
+        if (itemsData.isEmpty()) {
+            return;
+        }
+        synchronized (pending) {
+            if (!flushScheduled && itemsData.size() == 1) {
+                // Nothing to coalesce with, so waiting for the window would only add latency.
+                workers.execute(() -> resolve(itemsData));
+                return;
+            }
+            pending.addAll(itemsData);
+            if (!flushScheduled) {
+                flushScheduled = true;
+                batchScheduler.schedule(this::flush, FRAME_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void flush() {
+        List<String> batch;
+        synchronized (pending) {
+            batch = new ArrayList<>(pending);
+            pending.clear();
+            flushScheduled = false;
+        }
+        for (int from = 0; from < batch.size(); from += MAX_BATCH_SIZE) {
+            List<String> chunk = batch.subList(from, Math.min(batch.size(), from + MAX_BATCH_SIZE));
+            workers.execute(() -> resolve(chunk));
+        }
+    }
+
+    private void resolve(@NonNull List<String> itemsData) {
+        List<Product> products;
+        try {
+            products = productDatabase.lookupAll(itemsData);
+        } catch (RuntimeException e) {
+            // A failing catalogue, for example a corrupt mapped file, must not leave the requests
+            // waiting forever. The item data is reported as unknown and looked up again next time.
+            products = null;
+        }
+        for (int i = 0; i < itemsData.size(); i++) {
+            String itemData = itemsData.get(i);
+            Product product = products != null ? products.get(i) : null;
+            CompletableFuture<String> future = inFlight.remove(itemData);
+            if (future != null) {
+                future.complete(product != null ? product.identifier : null);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.products;
+
+import androidx.annotation.NonNull;
+
+import java.util.Random;
+
+/**
+ * {@link PickBackend} that artificially introduces a lag to simulate a network connection.
+ */
+public class SimulatedPickBackend implements PickBackend {
+    private final ProductDatabase productDatabase;
+    private final Random waitRandomizer = new Random();
+
+    public SimulatedPickBackend(@NonNull ProductDatabase productDatabase) {
+        this.productDatabase = productDatabase;
+    }
+
+    @Override
+    public boolean pick(@NonNull String itemData) throws InterruptedException {
+        simulateNetworkDelay();
+        return productDatabase.verifyProductInDatabase(itemData);
+    }
+
+    @Override
+    public boolean unpick(@NonNull String itemData) throws InterruptedException {
+        simulateNetworkDelay();
+        return productDatabase.verifyProductInDatabase(itemData);
+    }
+
+    private void simulateNetworkDelay() throws InterruptedException {
+        int delay;
+        synchronized (waitRandomizer) {
+            delay = 250 + waitRandomizer.nextInt(500);
+        }
+        Thread.sleep(delay);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.pick;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+public class StartupTraceTest {
+
+    private final FakeClock clock = new FakeClock();
+    private final StartupTrace trace = new StartupTrace(clock);
+
+    @Test
+    public void recordsDurationBetweenBeginAndEnd() {
+        clock.now = 1_000;
+        long start = trace.begin();
+        clock.now = 4_500;
+        trace.end("context", start);
+
+        assertEquals(3_500, trace.getDurationNanos("context"));
+    }
+
+    @Test
+    public void returnsMinusOneForUnrecordedPhase() {
+        assertEquals(-1, trace.getDurationNanos("settings"));
+    }
+
+    @Test
+    public void keepsPhasesInTheOrderTheyEnded() {
+        long products = trace.begin();
+        clock.now = 10;
+        long settings = trace.begin();
+        clock.now = 30;
+        trace.end("settings", settings);
+        clock.now = 70;
+        trace.end("products", products);
+
+        Map<String, Long> durations = trace.getDurationsNanos();
+
+        assertEquals(Arrays.asList("settings", "products"), new ArrayList<>(durations.keySet()));
+        assertEquals(Long.valueOf(20), durations.get("settings"));
+        assertEquals(Long.valueOf(70), durations.get("products"));
+    }
+
+    @Test
+    public void laterEndReplacesEarlierDuration() {
+        long start = trace.begin();
+        clock.now = 5;
+        trace.end("wait", start);
+        clock.now = 9;
+        trace.end("wait", start);
+
+        assertEquals(9, trace.getDurationNanos("wait"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void durationsCannotBeModified() {
+        trace.getDurationsNanos().put("context", 1L);
+    }
+
+    private static class FakeClock implements StartupTrace.Clock {
+        long now;
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+    }
+}
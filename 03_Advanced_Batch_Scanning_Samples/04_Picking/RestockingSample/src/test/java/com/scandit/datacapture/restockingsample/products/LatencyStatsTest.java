@@ -0,0 +1,71 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.products;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LatencyStatsTest {
+
+    @Test
+    public void reportsZeroWithoutSamples() {
+        LatencyStats stats = new LatencyStats(8);
+
+        assertEquals(0, stats.getSampleCount());
+        assertEquals(0, stats.getP50Nanos());
+        assertEquals(0, stats.getP99Nanos());
+    }
+
+    @Test
+    public void computesPercentilesOverSamples() {
+        LatencyStats stats = new LatencyStats(100);
+        // Recorded out of order, the percentiles are over the sorted samples.
+        for (int i = 100; i >= 1; i--) {
+            stats.record(i);
+        }
+
+        assertEquals(100, stats.getSampleCount());
+        assertEquals(50, stats.getP50Nanos());
+        assertEquals(99, stats.getP99Nanos());
+        assertEquals(1, stats.getPercentileNanos(0));
+        assertEquals(100, stats.getPercentileNanos(100));
+    }
+
+    @Test
+    public void keepsOnlyMostRecentSamples() {
+        LatencyStats stats = new LatencyStats(4);
+        for (int i = 0; i < 4; i++) {
+            stats.record(1_000);
+        }
+        for (int i = 0; i < 4; i++) {
+            stats.record(10);
+        }
+
+        assertEquals(4, stats.getSampleCount());
+        assertEquals(10, stats.getP99Nanos());
+    }
+
+    @Test
+    public void resetForgetsSamples() {
+        LatencyStats stats = new LatencyStats(4);
+        stats.record(10);
+
+        stats.reset();
+
+        assertEquals(0, stats.getSampleCount());
+        assertEquals(0, stats.getP50Nanos());
+    }
+}
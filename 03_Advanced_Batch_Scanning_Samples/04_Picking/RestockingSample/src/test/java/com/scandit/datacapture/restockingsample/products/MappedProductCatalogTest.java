@@ -0,0 +1,161 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.products;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class MappedProductCatalogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void findsEveryBarcodeOfEveryProduct() throws IOException {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String barcode = String.valueOf(4_000_000_000_000L + i);
+            products.add(new Product("Item " + i, i % 5 + 1, barcode));
+        }
+        File file = write(products);
+
+        try (MappedProductCatalog catalog = new MappedProductCatalog(file)) {
+            assertEquals(10_000, catalog.getRecordCount());
+            for (int i = 0; i < 10_000; i++) {
+                Product product = catalog.findProduct(String.valueOf(4_000_000_000_000L + i));
+                assertNotNull(product);
+                assertEquals("Item " + i, product.identifier);
+                assertEquals(i % 5 + 1, product.quantityToPick);
+            }
+        }
+    }
+
+    @Test
+    public void returnsNullOnMiss() throws IOException {
+        File file = write(Arrays.asList(
+            new Product("Item A", 1, "8414792869912", "0123"),
+            new Product("Item B", 2, "1318890267144")
+        ));
+
+        try (MappedProductCatalog catalog = new MappedProductCatalog(file)) {
+            assertNull(catalog.findProduct("8414792869913"));
+            assertNull(catalog.findProduct("123"));
+            assertNull(catalog.findProduct("CODE-39"));
+            assertNull(catalog.findProduct(""));
+            assertNull(catalog.findProduct("12345678901234567"));
+            assertEquals("Item A", catalog.findProduct("0123").identifier);
+        }
+    }
+
+    @Test
+    public void keepsMultiByteIdentifiers() throws IOException {
+        String identifier = "Caf\u00e9 cr\u00e8me";
+        File file = write(Arrays.asList(new Product(identifier, 1, "42")));
+
+        try (MappedProductCatalog catalog = new MappedProductCatalog(file)) {
+            assertEquals(identifier, catalog.findProduct("42").identifier);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsFileWithoutMagic() throws IOException {
+        File file = write(Arrays.asList(new Product("Item A", 1, "42")));
+        overwriteInt(file, 0, 0xCAFEBABE);
+
+        new MappedProductCatalog(file).close();
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsUnknownVersion() throws IOException {
+        File file = write(Arrays.asList(new Product("Item A", 1, "42")));
+        overwriteInt(file, 4, MappedProductCatalog.VERSION + 1);
+
+        new MappedProductCatalog(file).close();
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsNegativeRecordCount() throws IOException {
+        File file = write(Arrays.asList(new Product("Item A", 1, "42")));
+        overwriteInt(file, 8, -1);
+
+        new MappedProductCatalog(file).close();
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTruncatedFile() throws IOException {
+        File file = write(Arrays.asList(new Product("Item A", 1, "42", "43")));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+
+        new MappedProductCatalog(file).close();
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsFileShorterThanHeader() throws IOException {
+        File file = folder.newFile();
+
+        new MappedProductCatalog(file).close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void writerRejectsDuplicateBarcodes() throws IOException {
+        write(Arrays.asList(new Product("Item A", 1, "42"), new Product("Item B", 1, "42")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void writerRejectsNonNumericBarcodes() throws IOException {
+        write(Arrays.asList(new Product("Item A", 1, "ABC")));
+    }
+
+    @Test
+    public void databaseUsesCatalogForUnlistedBarcodes() throws IOException {
+        File file = write(Arrays.asList(new Product("Catalog item", 3, "555")));
+
+        try (MappedProductCatalog catalog = new MappedProductCatalog(file)) {
+            ProductDatabase database =
+                new ProductDatabase(catalog, new Product("Listed item", 1, "111"));
+
+            assertEquals("Listed item", database.getProductForItemData("111").identifier);
+            assertEquals("Catalog item", database.getProductForItemData("555").identifier);
+            assertNull(database.getProductForItemData("666"));
+        }
+    }
+
+    private File write(List<Product> products) throws IOException {
+        File file = folder.newFile();
+        ProductCatalogWriter.write(products, file, 32);
+        return file;
+    }
+
+    private static void overwriteInt(File file, long position, int value) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(position);
+            raf.writeInt(value);
+        }
+    }
+}
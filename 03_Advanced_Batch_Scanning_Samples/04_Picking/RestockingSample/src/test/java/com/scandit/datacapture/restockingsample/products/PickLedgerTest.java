@@ -0,0 +1,262 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.products;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.scandit.datacapture.restockingsample.result.DisplayProduct;
+import com.scandit.datacapture.restockingsample.result.Header;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class PickLedgerTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final PickLedger ledger = new PickLedger(new ProductDatabase(
+        new Product("Item A", 2, "A1", "A2", "A3"),
+        new Product("Item B", 1, "B1")
+    ));
+
+    @Test
+    public void startsWithTwoEmptySections() {
+        List<Object> content = ledger.getPickResultContent();
+
+        assertEquals(2, content.size());
+        assertTrue(content.get(0) instanceof Header);
+        assertTrue(content.get(1) instanceof Header);
+    }
+
+    @Test
+    public void listsScannedCodesThatAreNotPickedInInventory() {
+        ledger.setScannedCodes(codes("A1", "B1", "X"));
+        ledger.setPickedCodes(codes("A1"));
+
+        assertEquals(Collections.singletonList("A1"), pickedSection());
+        assertEquals(Arrays.asList("B1", "X"), inventorySection());
+        assertEquals("Unknown", row("X").identifier);
+    }
+
+    @Test
+    public void checksOnlyUpToQuantityToPick() {
+        ledger.setPickedCodes(codes("A1", "A2", "A3"));
+
+        assertTrue(row("A1").picked);
+        assertTrue(row("A2").picked);
+        assertFalse(row("A3").picked);
+    }
+
+    @Test
+    public void unpickingMovesLaterCodesUpAndBackToInventory() {
+        ledger.setScannedCodes(codes("A1", "A2", "A3"));
+        ledger.setPickedCodes(codes("A1", "A2", "A3"));
+
+        ledger.setPickedCodes(codes("A2", "A3"));
+
+        assertEquals(Arrays.asList("A2", "A3"), pickedSection());
+        assertTrue(row("A3").picked);
+        assertEquals(Collections.singletonList("A1"), inventorySection());
+    }
+
+    @Test
+    public void doesNotModifyTheGivenSets() {
+        Set<String> scanned = codes("A1", "B1");
+        Set<String> picked = codes("A1");
+
+        ledger.setScannedCodes(scanned);
+        ledger.setPickedCodes(picked);
+
+        assertEquals(codes("A1", "B1"), scanned);
+        assertEquals(codes("A1"), picked);
+    }
+
+    @Test
+    public void unchangedUpdateKeepsTheSameContent() {
+        ledger.setScannedCodes(codes("A1"));
+        List<Object> content = ledger.getPickResultContent();
+
+        ledger.setScannedCodes(codes("A1"));
+
+        assertSame(content, ledger.getPickResultContent());
+    }
+
+    @Test
+    public void readsDoNotWaitForUpdateInProgress() throws Exception {
+        CountDownLatch lookupStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ProductCatalog blockingCatalog = itemData -> {
+            lookupStarted.countDown();
+            try {
+                release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        };
+        PickLedger blockingLedger = new PickLedger(new ProductDatabase(blockingCatalog));
+        List<Object> before = blockingLedger.getPickResultContent();
+
+        Thread writer = new Thread(() -> blockingLedger.setScannedCodes(codes("X")));
+        writer.start();
+        assertTrue(lookupStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        // The update is stuck in the middle, the last published content is returned anyway.
+        CompletableFuture<List<Object>> read =
+            CompletableFuture.supplyAsync(blockingLedger::getPickResultContent);
+        assertSame(before, read.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        release.countDown();
+        writer.join();
+        assertEquals(3, blockingLedger.getPickResultContent().size());
+    }
+
+    @Test
+    public void clearEmptiesBothSections() {
+        ledger.setScannedCodes(codes("A1", "B1"));
+        ledger.setPickedCodes(codes("B1"));
+
+        ledger.clear();
+
+        assertTrue(pickedSection().isEmpty());
+        assertTrue(inventorySection().isEmpty());
+    }
+
+    @Test
+    public void readsStayConsistentWhileUpdating() throws Exception {
+        List<String> universe = Arrays.asList("A1", "A2", "A3", "B1", "X1", "X2", "X3", "X4");
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int w = 0; w < 4; w++) {
+            long seed = w;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 20_000; i++) {
+                    Set<String> subset = new HashSet<>();
+                    for (String code : universe) {
+                        if (random.nextBoolean()) {
+                            subset.add(code);
+                        }
+                    }
+                    if (random.nextBoolean()) {
+                        ledger.setScannedCodes(subset);
+                    } else {
+                        ledger.setPickedCodes(subset);
+                    }
+                }
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            threads.add(new Thread(() -> {
+                while (writing.get()) {
+                    try {
+                        assertWellFormed(ledger.getPickResultContent());
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                        return;
+                    }
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads.subList(0, 4)) {
+            thread.join();
+        }
+        writing.set(false);
+        for (Thread thread : threads.subList(4, threads.size())) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+
+        ledger.setScannedCodes(codes("A1", "B1", "X1"));
+        ledger.setPickedCodes(codes("A2", "B1"));
+        assertEquals(codes("A2", "B1"), new HashSet<>(pickedSection()));
+        assertEquals(codes("A1", "X1"), new HashSet<>(inventorySection()));
+    }
+
+    // Two headers, each followed by its rows, and no barcode listed twice.
+    private static void assertWellFormed(List<Object> content) {
+        assertTrue(content.get(0) instanceof Header);
+        int headers = 0;
+        Set<String> seen = new HashSet<>();
+        for (Object item : content) {
+            if (item instanceof Header) {
+                headers++;
+            } else {
+                assertTrue(seen.add(((DisplayProduct) item).barcodeData));
+            }
+        }
+        assertEquals(2, headers);
+    }
+
+    private List<String> pickedSection() {
+        return section(0);
+    }
+
+    private List<String> inventorySection() {
+        return section(1);
+    }
+
+    // Returns the barcode content of the rows following the given header.
+    private List<String> section(int headerIndex) {
+        List<String> codes = new ArrayList<>();
+        int headersSeen = -1;
+        for (Object item : ledger.getPickResultContent()) {
+            if (item instanceof Header) {
+                headersSeen++;
+            } else if (headersSeen == headerIndex) {
+                codes.add(((DisplayProduct) item).barcodeData);
+            }
+        }
+        return codes;
+    }
+
+    private DisplayProduct row(String code) {
+        for (Object item : ledger.getPickResultContent()) {
+            if (item instanceof DisplayProduct && ((DisplayProduct) item).barcodeData.equals(code)) {
+                return (DisplayProduct) item;
+            }
+        }
+        throw new AssertionError("No row for " + code);
+    }
+
+    // Keeps the given order, so that rows are added in a predictable order.
+    private static Set<String> codes(String... codes) {
+        return new LinkedHashSet<>(Arrays.asList(codes));
+    }
+}
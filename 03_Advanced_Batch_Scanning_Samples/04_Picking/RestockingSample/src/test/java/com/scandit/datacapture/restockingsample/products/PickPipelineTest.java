@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.products;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class PickPipelineTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Test
+    public void runsActionsOnDifferentItemsConcurrently() throws Exception {
+        // Each call waits until both items are being picked at the same time.
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        PickBackend backend = new RecordingBackend() {
+            @Override
+            public boolean pick(@NonNull String itemData) throws InterruptedException {
+                super.pick(itemData);
+                bothRunning.countDown();
+                return bothRunning.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        };
+        PickPipeline pipeline = new PickPipeline(backend);
+
+        CompletableFuture<Boolean> first = new CompletableFuture<>();
+        CompletableFuture<Boolean> second = new CompletableFuture<>();
+        pipeline.pick("A", first::complete);
+        pipeline.pick("B", second::complete);
+
+        assertTrue(first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void runsActionsOnSameItemInOrder() throws Exception {
+        RecordingBackend backend = new RecordingBackend();
+        PickPipeline pipeline = new PickPipeline(backend);
+
+        CompletableFuture<Boolean> pick = new CompletableFuture<>();
+        CompletableFuture<Boolean> unpick = new CompletableFuture<>();
+        pipeline.pick("A", pick::complete);
+        assertTrue(pick.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        pipeline.unpick("A", unpick::complete);
+        assertTrue(unpick.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        assertEquals(Arrays.asList("pick A", "unpick A"), backend.calls);
+    }
+
+    @Test
+    public void keepsOnlyLatestWaitingActionForAnItem() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        RecordingBackend backend = new RecordingBackend() {
+            @Override
+            public boolean pick(@NonNull String itemData) throws InterruptedException {
+                super.pick(itemData);
+                started.countDown();
+                return release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        };
+        PickPipeline pipeline = new PickPipeline(backend);
+
+        CompletableFuture<Boolean> running = new CompletableFuture<>();
+        CompletableFuture<Boolean> superseded = new CompletableFuture<>();
+        CompletableFuture<Boolean> latest = new CompletableFuture<>();
+        pipeline.pick("A", running::complete);
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        pipeline.unpick("A", superseded::complete);
+        pipeline.unpick("A", latest::complete);
+
+        assertFalse(superseded.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        release.countDown();
+        assertTrue(running.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(latest.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("pick A", "unpick A"), backend.calls);
+    }
+
+    private static class RecordingBackend implements PickBackend {
+        final List<String> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean pick(@NonNull String itemData) throws InterruptedException {
+            calls.add("pick " + itemData);
+            return true;
+        }
+
+        @Override
+        public boolean unpick(@NonNull String itemData) throws InterruptedException {
+            calls.add("unpick " + itemData);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.products;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ProductDatabaseTest {
+
+    private static final int SMALL_CATALOGUE = 1_000;
+    private static final int LARGE_CATALOGUE = 100_000;
+    private static final int LOOKUPS = 200_000;
+    private static final int RUNS = 15;
+
+    private final Product itemA = new Product("Item A", 1, "8414792869912", "3714711193285");
+    private final Product itemB = new Product("Item B", 2, "1318890267144");
+    private final ProductDatabase database = new ProductDatabase(itemA, itemB);
+
+    @Test
+    public void findsProductForEachOfItsBarcodes() {
+        assertSame(itemA, database.getProductForItemData("8414792869912"));
+        assertSame(itemA, database.getProductForItemData("3714711193285"));
+        assertSame(itemB, database.getProductForItemData("1318890267144"));
+    }
+
+    @Test
+    public void returnsNullForUnknownBarcode() {
+        assertNull(database.getProductForItemData("0000000000000"));
+    }
+
+    @Test
+    public void keepsFirstDeclaredProductForSharedBarcode() {
+        Product first = new Product("First", 1, "123");
+        Product second = new Product("Second", 1, "123");
+
+        ProductDatabase shared = new ProductDatabase(first, second);
+
+        assertSame(first, shared.getProductForItemData("123"));
+    }
+
+    @Test
+    public void lookupAllKeepsOrderAndMisses() {
+        List<Product> products = database.lookupAll(
+            Arrays.asList("1318890267144", "unknown", "8414792869912")
+        );
+
+        assertEquals(Arrays.asList(itemB, null, itemA), products);
+    }
+
+    @Test
+    public void lookupAllOfNothingIsEmpty() {
+        assertEquals(Collections.emptyList(), database.lookupAll(Collections.emptyList()));
+    }
+
+    @Test
+    public void fallsBackToCatalogForBarcodesOfOtherProducts() {
+        Product fromCatalog = new Product("Catalog", 3, "999");
+        Product shadowed = new Product("Shadowed", 1, "8414792869912");
+        ProductDatabase withCatalog = new ProductDatabase(
+            itemData -> "999".equals(itemData) ? fromCatalog : shadowed, itemA
+        );
+
+        assertSame(fromCatalog, withCatalog.getProductForItemData("999"));
+        assertSame(itemA, withCatalog.getProductForItemData("8414792869912"));
+        assertEquals(1, withCatalog.getProductListCount());
+    }
+
+    // A linear search would make lookups in the large catalogue about a hundred times slower. The
+    // index keeps them within a small factor, which leaves room for cache effects and timer noise.
+    @Test
+    public void lookupCostDoesNotGrowWithCatalogue() {
+        long small = bestLookupNanos(SMALL_CATALOGUE);
+        long large = bestLookupNanos(LARGE_CATALOGUE);
+
+        assertTrue(
+            "lookups took " + small + " ns with " + SMALL_CATALOGUE + " products, " + large
+                + " ns with " + LARGE_CATALOGUE,
+            large < 10 * small
+        );
+    }
+
+    // Looks up present and missing barcodes in turn, and returns the best time of all runs.
+    private static long bestLookupNanos(int catalogueSize) {
+        Product[] products = new Product[catalogueSize];
+        String[] itemsData = new String[2 * catalogueSize];
+        for (int i = 0; i < catalogueSize; i++) {
+            itemsData[2 * i] = String.format("590123%07d", i);
+            itemsData[2 * i + 1] = String.format("400638%07d", i);
+            products[i] = new Product("Item " + i, 1, itemsData[2 * i]);
+        }
+        ProductDatabase database = new ProductDatabase(products);
+
+        long best = Long.MAX_VALUE;
+        int found = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                if (database.getProductForItemData(itemsData[i % itemsData.length]) != null) {
+                    found++;
+                }
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        assertEquals(RUNS * LOOKUPS / 2, found);
+        return best;
+    }
+}
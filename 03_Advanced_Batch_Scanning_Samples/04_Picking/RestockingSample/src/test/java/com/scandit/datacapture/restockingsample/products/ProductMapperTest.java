@@ -0,0 +1,160 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scandit.datacapture.restockingsample.products;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.scandit.datacapture.barcode.pick.data.BarcodePickProductProviderCallbackItem;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ProductMapperTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final long SLOW_LOOKUP_MILLIS = 20;
+
+    private final Product itemA = new Product("Item A", 1, "111", "112");
+    private final Product itemB = new Product("Item B", 1, "222");
+    private final Product catalogued = new Product("Catalogued", 1, "333");
+
+    @Test
+    public void mapsSingleBarcode() throws Exception {
+        ProductMapper mapper = new ProductMapper(new ProductDatabase(itemA, itemB));
+
+        List<BarcodePickProductProviderCallbackItem> items = map(mapper, "222");
+
+        assertEquals(1, items.size());
+        assertEquals("222", items.get(0).getItemData());
+        assertEquals("Item B", items.get(0).getProductIdentifier());
+    }
+
+    @Test
+    public void mapsBatchInRequestOrder() throws Exception {
+        ProductMapper mapper = new ProductMapper(new ProductDatabase(itemA, itemB));
+
+        List<BarcodePickProductProviderCallbackItem> items = map(mapper, "112", "999", "222");
+
+        assertEquals(3, items.size());
+        assertEquals("Item A", items.get(0).getProductIdentifier());
+        assertEquals("999", items.get(1).getItemData());
+        assertNull(items.get(1).getProductIdentifier());
+        assertEquals("Item B", items.get(2).getProductIdentifier());
+    }
+
+    @Test
+    public void looksUpItemDataInFlightOnlyOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentHashMap<String, AtomicInteger> lookups = new ConcurrentHashMap<>();
+        ProductCatalog blockingCatalog = itemData -> {
+            lookups.computeIfAbsent(itemData, key -> new AtomicInteger()).incrementAndGet();
+            try {
+                release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "333".equals(itemData) ? catalogued : null;
+        };
+        ProductMapper mapper = new ProductMapper(new ProductDatabase(blockingCatalog, itemA));
+
+        CompletableFuture<List<BarcodePickProductProviderCallbackItem>> first =
+            new CompletableFuture<>();
+        CompletableFuture<List<BarcodePickProductProviderCallbackItem>> second =
+            new CompletableFuture<>();
+        // Only item data that isn't listed reaches the catalogue.
+        mapper.map(Collections.singletonList("333"), first::complete);
+        mapper.map(Collections.singletonList("333"), second::complete);
+        release.countDown();
+
+        assertEquals(
+            "Catalogued",
+            first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).get(0).getProductIdentifier()
+        );
+        assertEquals(
+            "Catalogued",
+            second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).get(0).getProductIdentifier()
+        );
+        assertEquals(1, lookups.get("333").get());
+    }
+
+    @Test
+    public void reportsItemDataAsUnknownWhenCatalogueFails() throws Exception {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        ProductCatalog failingCatalog = itemData -> {
+            if (failing.get()) {
+                throw new IllegalStateException("Corrupt catalogue");
+            }
+            return "333".equals(itemData) ? catalogued : null;
+        };
+        ProductMapper mapper = new ProductMapper(new ProductDatabase(failingCatalog, itemA));
+
+        List<BarcodePickProductProviderCallbackItem> items = map(mapper, "333", "111");
+        assertEquals(2, items.size());
+        assertNull(items.get(0).getProductIdentifier());
+        assertNull(items.get(1).getProductIdentifier());
+
+        // The failed lookups don't stay in flight, so the item data is looked up again.
+        failing.set(false);
+        assertEquals("Catalogued", map(mapper, "333").get(0).getProductIdentifier());
+    }
+
+    @Test
+    public void recordsMappingLatency() throws Exception {
+        ProductCatalog slowCatalog = itemData -> {
+            try {
+                Thread.sleep(SLOW_LOOKUP_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        };
+        ProductMapper mapper = new ProductMapper(new ProductDatabase(slowCatalog, itemA));
+        assertEquals(0, mapper.getP50LatencyMillis(), 0);
+
+        for (int i = 0; i < 5; i++) {
+            map(mapper, "unknown" + i);
+        }
+
+        assertTrue(mapper.getP50LatencyMillis() >= SLOW_LOOKUP_MILLIS);
+        assertTrue(mapper.getP99LatencyMillis() >= mapper.getP50LatencyMillis());
+    }
+
+    @Test
+    public void emptyRequestCompletesWithNoItems() throws Exception {
+        ProductMapper mapper = new ProductMapper(new ProductDatabase(itemA));
+
+        assertTrue(map(mapper).isEmpty());
+    }
+
+    private static List<BarcodePickProductProviderCallbackItem> map(
+        ProductMapper mapper, String... itemsData
+    ) throws Exception {
+        CompletableFuture<List<BarcodePickProductProviderCallbackItem>> result =
+            new CompletableFuture<>();
+        mapper.map(Arrays.asList(itemsData), result::complete);
+        return result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+}
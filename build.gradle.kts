@@ -31,6 +31,7 @@ buildscript {
             "androidx_datastore_preferences" to "1.1.7",
             "androidx_lifecycle" to "2.3.1",
             "androidx_preference" to "1.1.1",
+            "androidx_recyclerview" to "1.2.1",
             "androidx_test_core" to "1.5.0",
             "androidx_test_espresso" to "3.5.1",
             "androidx_test_ext_junit" to "1.1.5",
@@ -44,10 +45,12 @@ buildscript {
             "coroutines" to "1.8.1",
             "desugar" to "1.1.5",
             "java" to JavaVersion.VERSION_1_8,
+            "junit" to "4.13.2",
             "kotlin" to "1.9.25",
             "kotlin_serialization" to "1.7.1",
             "material" to "1.3.0",
             "mockito_android" to "3.12.4",
+            "mockito_inline" to "4.11.0",
             "mockito_kotlin_version" to "4.0.0",
             "okhttp" to "4.12.0",
         )
@@ -1,5 +1,6 @@
 include(":01_Single_Scanning_Samples:01_Barcode_Scanning_with_Pre_Built_UI:ListBuildingSample")
 include(":01_Single_Scanning_Samples:01_Barcode_Scanning_with_Pre_Built_UI:ListBuildingSampleCompose")
+include(":01_Single_Scanning_Samples:01_Barcode_Scanning_with_Pre_Built_UI:SparkScanCommon")
 include(":01_Single_Scanning_Samples:02_Barcode_Scanning_with_Low_Level_API:BarcodeCaptureSimpleSample")
 include(":01_Single_Scanning_Samples:02_Barcode_Scanning_with_Low_Level_API:BarcodeSelectionSettingsSample")
 include(":02_ID_Scanning_Samples:AgeVerifiedDeliverySample")
@@ -11,6 +12,8 @@ include(":03_Advanced_Batch_Scanning_Samples:01_Batch_Scanning_and_AR_Info_Looku
 include(":03_Advanced_Batch_Scanning_Samples:01_Batch_Scanning_and_AR_Info_Lookup:MatrixScanRejectSample")
 include(":03_Advanced_Batch_Scanning_Samples:01_Batch_Scanning_and_AR_Info_Lookup:MatrixScanSimpleSample")
 include(":03_Advanced_Batch_Scanning_Samples:01_Batch_Scanning_and_AR_Info_Lookup:MatrixScanBubblesSample")
+include(":03_Advanced_Batch_Scanning_Samples:01_Batch_Scanning_and_AR_Info_Lookup:MatrixScanCommon")
+include(":03_Advanced_Batch_Scanning_Samples:02_Counting_and_Receiving:CountingCommon")
 include(":03_Advanced_Batch_Scanning_Samples:02_Counting_and_Receiving:ExpiryManagementSample")
 include(":03_Advanced_Batch_Scanning_Samples:02_Counting_and_Receiving:MatrixScanCountSimpleSample")
 include(":03_Advanced_Batch_Scanning_Samples:02_Counting_and_Receiving:MatrixScanCountToteMappingSample")